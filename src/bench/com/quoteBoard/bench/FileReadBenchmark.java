@@ -0,0 +1,74 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.dao.QuoteRepositoryImpl;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.FileUtils;
+import com.quoteBoard.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 파일 저장소 전체 읽기 비용.
+ * 이전 방식({id}.json 파일별 저장)을 FileUtils.readAll 로 읽는 경우와 단일 로그(quotes.log)를 순회하는 경우를 비교한다.
+ * 데이터는 Trial 마다 임시 디렉터리에 새로 만든다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileReadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int files;
+
+    private Path legacyDir;
+    private Path logDir;
+    private QuoteRepositoryImpl repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        legacyDir = Files.createTempDirectory("bench-legacy");
+        logDir = Files.createTempDirectory("bench-log");
+        repository = new QuoteRepositoryImpl(logDir);
+        for(long id = 1; id <= files; id++) {
+            Quote quote = new Quote(id, "명언 " + id, "작자미상 " + id);
+            Files.writeString(legacyDir.resolve(id + ".json"), JsonUtils.entityToJson(quote));
+            repository.create(new Quote(quote.getQuote(), quote.getAuthor()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(legacyDir);
+        delete(logDir);
+    }
+
+    @Benchmark
+    public void legacyReadAll(Blackhole bh) {
+        for(String json : FileUtils.readAll(legacyDir)) {
+            bh.consume(JsonUtils.jsonToEntity(json));
+        }
+    }
+
+    @Benchmark
+    public void logScanAll(Blackhole bh) {
+        repository.scanAll(bh::consume);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for(Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
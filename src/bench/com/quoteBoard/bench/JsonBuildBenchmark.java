@@ -0,0 +1,54 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * data.json 생성 비용 : 문자열 목록을 한 번에 합치는 JsonUtils.build 와 Writer 로 바로 쓰는 JsonUtils.writeArray 비교.
+ * writeArray 는 결과를 버리는 Writer 에 기록하여 인코딩 비용만 측정한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class JsonBuildBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private List<Quote> quotes;
+    private List<String> jsons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        quotes = new ArrayList<>(entries);
+        for(int i = 1; i <= entries; i++) {
+            quotes.add(new Quote((long) i, "명언 " + i, "작자미상 " + (i % 1000)));
+        }
+        jsons = quotes.stream().map(JsonUtils::entityToJson).toList();
+    }
+
+    @Benchmark
+    public int buildFromStrings() {
+        return JsonUtils.build(jsons).length();
+    }
+
+    @Benchmark
+    public int legacyBuildFromStrings() {
+        return LegacyJsonUtils.build(jsons).length();
+    }
+
+    @Benchmark
+    public void streamingWriteArray() throws IOException {
+        JsonUtils.writeArray(Writer.nullWriter(), quotes::forEach);
+    }
+}
@@ -0,0 +1,60 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단건 직렬화/역직렬화 처리량 비교 : 현재 JsonUtils(단일 순회 codec) vs 이전 구현(LegacyJsonUtils).
+ * 이전 구현은 ':' ',' '"' 가 포함된 값을 깨뜨리므로, 비교용 데이터는 두 구현 모두 처리할 수 있는 값만 사용한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    @Param({"16", "256"})
+    public int contentLength;
+
+    private Quote quote;
+    private String json;
+    private final StringBuilder reused = new StringBuilder(512);
+
+    @Setup
+    public void setUp() {
+        quote = new Quote(123_456L, "명언".repeat(contentLength / 2), "작자미상");
+        json = JsonUtils.entityToJson(quote);
+    }
+
+    @Benchmark
+    public String entityToJson() {
+        return JsonUtils.entityToJson(quote);
+    }
+
+    @Benchmark
+    public String legacyEntityToJson() {
+        return LegacyJsonUtils.entityToJson(quote);
+    }
+
+    @Benchmark
+    public int writeEntityReusedBuffer() {
+        reused.setLength(0);
+        JsonUtils.writeEntity(quote, reused);
+        return reused.length();
+    }
+
+    @Benchmark
+    public Quote jsonToEntity() {
+        return JsonUtils.jsonToEntity(json);
+    }
+
+    @Benchmark
+    public Quote legacyJsonToEntity() {
+        return LegacyJsonUtils.jsonToEntity(json);
+    }
+}
@@ -0,0 +1,61 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.entity.Quote;
+
+import java.util.List;
+
+/**
+ * 비교 기준으로 남겨둔 이전 JsonUtils 구현 (String.format 직렬화 / 줄 분리 + split 역직렬화).
+ * 벤치마크 외에는 사용하지 않는다.
+ */
+public class LegacyJsonUtils {
+
+    public static String entityToJson(Quote quote) {
+        return String.format("""
+                {
+                    "id": %d,
+                    "content": "%s",
+                    "author": "%s"
+                }
+            """, quote.getId(), quote.getQuote(), quote.getAuthor());
+    }
+
+    public static String build(List<String> jsons) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[\n");
+        for (String json : jsons) {
+            json = json.trim();
+            sb.append("\t").append(json).append(",").append("\n");
+        }
+        if (!jsons.isEmpty()) {
+            int lastCommaIdx = sb.lastIndexOf(",");
+            if (lastCommaIdx != -1) sb.deleteCharAt(lastCommaIdx);
+        }
+        sb.append("\n").append("]");
+        return sb.toString();
+    }
+
+    public static Quote jsonToEntity(String json) {
+        List<String> lines = json.lines().toList();
+        long id = -1L; String content = null; String author = null;
+
+        for (String line : lines) {
+            line = line.trim();
+            if (line.startsWith("\"id\"")) {
+                String value = line.split(":")[1].replace(",", "").trim();
+                id = Long.parseLong(value);
+            } else if (line.startsWith("\"content\"")) {
+                content = line.split(":")[1]
+                        .replace(",", "")
+                        .replace("\"", "")
+                        .trim();
+            } else if (line.startsWith("\"author\"")) {
+                author = line.split(":")[1]
+                        .replace(",", "")
+                        .replace("\"", "")
+                        .trim();
+            }
+        }
+        return new Quote(id, content, author);
+    }
+}
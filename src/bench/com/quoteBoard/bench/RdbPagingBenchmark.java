@@ -0,0 +1,59 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.dao.RDBQuoteRepositoryImpl;
+import com.quoteBoard.dto.PagedQuoteDto;
+import dbConfig.ConnectionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 번호 페이지 조회에서 전체 수를 구하는 방식 비교 (100만 건).
+ * <ul>
+ *     <li>separate : COUNT 와 페이지 SELECT 를 따로 실행 (매번 카운트 캐시를 비워 두 번 왕복)</li>
+ *     <li>separateCachedCount : 카운트 캐시가 맞는 경우 (SELECT 한 번)</li>
+ *     <li>combined : 전체 수와 페이지를 하나의 쿼리로 실행 (한 번 왕복)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RdbPagingBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"1", "2000"})
+    public int page;
+
+    private RDBQuoteRepositoryImpl separate;
+    private RDBQuoteRepositoryImpl combined;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ConnectionManager.createTable();
+        RdbRepositoryBenchmark.seed(rows);
+        separate = new RDBQuoteRepositoryImpl(RDBQuoteRepositoryImpl.PageQuery.SEPARATE);
+        combined = new RDBQuoteRepositoryImpl(RDBQuoteRepositoryImpl.PageQuery.COMBINED);
+    }
+
+    @Benchmark
+    public PagedQuoteDto separate() {
+        RDBQuoteRepositoryImpl.invalidateCountCache();
+        return separate.findPagedQuote(page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto separateCachedCount() {
+        return separate.findPagedQuote(page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto combined() {
+        return combined.findPagedQuote(page);
+    }
+}
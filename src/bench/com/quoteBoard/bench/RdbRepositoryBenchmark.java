@@ -0,0 +1,143 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.dao.RDBQuoteRepositoryImpl;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import dbConfig.ConnectionManager;
+import dbConfig.ConnectionPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RDB 저장소의 목록/검색 경로와 작가 색인을 쓰는 작가 완전 일치 / 접두어 조회.
+ * 로컬 MySQL(ConnectionManager 설정)을 대상으로 하며, quote 테이블에 rows 건이 되도록 미리 채운다.
+ * page 는 얕은 페이지(1)와 깊은 페이지를 모두 측정한다.
+ * 끝나면 풀의 statement 준비 횟수 / 캐시 재사용 횟수를 출력한다 (준비 횟수는 커넥션 수 x 쿼리 모양 수를 넘지 않아야 한다).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RdbRepositoryBenchmark {
+
+    private static final int AUTHORS = 1000;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"1", "200"})
+    public int page;
+
+    private RDBQuoteRepositoryImpl repository;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ConnectionManager.createTable();
+        seed(rows);
+        repository = new RDBQuoteRepositoryImpl();
+
+        // 같은 깊이의 페이지를 커서로 조회하기 위해 한 번만 offset 으로 위치를 찾는다
+        PagedQuoteDto dto = repository.findPagedQuote(page);
+        deepCursor = dto.prevCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        ConnectionPool.Stats stats = ConnectionManager.poolStats();
+        System.out.printf("%nstatements prepared=%d, reused=%d%n", stats.statementsPrepared(), stats.statementCacheHits());
+    }
+
+    @Benchmark
+    public Optional<Quote> find() {
+        return repository.find((long) page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto findPagedQuoteByPage() {
+        return repository.findPagedQuote(page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto findPagedQuoteByCursor() {
+        return repository.findPagedQuoteByCursor(deepCursor);
+    }
+
+    @Benchmark
+    public PagedQuoteDto searchContent() {
+        return repository.search(SearchQuoteRequest.SearchType.CONTENT, "명언 7", page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto searchAuthor() {
+        return repository.search(SearchQuoteRequest.SearchType.AUTHOR, "작자미상 3", page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto findByAuthor() {
+        return repository.findByAuthor("작자미상 3", page);
+    }
+
+    @Benchmark
+    public PagedQuoteDto findByAuthorPrefix() {
+        return repository.findByAuthorPrefix("작자미상 3", page);
+    }
+
+    // 부족한 만큼만 배치로 채운다. 작가는 1000명을 먼저 등록하고 명언은 author_id 로 가리킨다
+    static void seed(int rows) throws SQLException {
+        try (Connection conn = ConnectionManager.getConnection()) {
+            long current;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM quote");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                current = rs.getLong(1);
+            }
+            long[] authorIds = seedAuthors(conn, AUTHORS);
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO quote(content, author_id) VALUES (?, ?)")) {
+                for(long i = current + 1; i <= rows; i++) {
+                    ps.setString(1, "명언 " + i);
+                    ps.setLong(2, authorIds[(int) (i % AUTHORS)]);
+                    ps.addBatch();
+                    if(i % 1000 == 0) {
+                        ps.executeBatch();
+                        conn.commit();
+                    }
+                }
+                ps.executeBatch();
+                conn.commit();
+            }
+        }
+    }
+
+    // "작자미상 0" ~ "작자미상 {count - 1}" 을 등록하고 번호별 author_id 를 반환
+    private static long[] seedAuthors(Connection conn, int count) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("INSERT IGNORE INTO author(name) VALUES (?)")) {
+            for(int i = 0; i < count; i++) {
+                ps.setString(1, "작자미상 " + i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        long[] ids = new long[count];
+        try (PreparedStatement ps = conn.prepareStatement("SELECT author_id FROM author WHERE name = ?")) {
+            for(int i = 0; i < count; i++) {
+                ps.setString(1, "작자미상 " + i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if(!rs.next()) throw new SQLException("author is missing : " + i);
+                    ids[i] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,109 @@
+package com.quoteBoard.bench;
+
+import com.quoteBoard.dao.MemoryQuoteRepository;
+import com.quoteBoard.dao.QuoteRepository;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.service.QuoteTransfer;
+import com.quoteBoard.utils.FileUtils;
+import com.quoteBoard.utils.QuoteJsonReader;
+import com.quoteBoard.utils.QuoteSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 빌드 결과로 저장소를 복원하는 비용 : 명언마다 create 호출, data.json 파싱 후 createAll, 스냅샷(data.qsnap) 가져오기 비교.
+ * 저장소 자체의 비용을 빼기 위해 매 호출마다 빈 메모리 저장소에 복원하며, 파일 읽기만 하는 경우도 함께 잰다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotRestoreBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private Path dir;
+    private Path json;
+    private Path snapshot;
+    private List<Quote> quotes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-snapshot");
+        quotes = new ArrayList<>(entries);
+        for(int i = 1; i <= entries; i++) {
+            quotes.add(new Quote((long) i, "명언 " + i + " : 삶이 있는 한 희망은 있다", "작자미상 " + (i % 1000)));
+        }
+        FileUtils.writeBuildFiles(dir, quotes::forEach);
+        json = dir.resolve("data.json");
+        snapshot = dir.resolve(QuoteSnapshot.BUILD_FILE_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for(Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long perQuoteCreate() {
+        QuoteRepository repository = new MemoryQuoteRepository();
+        for(Quote quote : quotes) {
+            repository.create(new Quote(quote.getQuote(), quote.getAuthor()));
+        }
+        return repository.findPagedQuote(1).maxPage();
+    }
+
+    @Benchmark
+    public long parseJsonAndCreateAll() throws IOException {
+        QuoteRepository repository = new MemoryQuoteRepository();
+        List<Quote> batch = new ArrayList<>(QuoteRepository.DEFAULT_BATCH_SIZE);
+        try (Reader in = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+            new QuoteJsonReader(in).readArray(quote -> {
+                batch.add(quote);
+                if(batch.size() == QuoteRepository.DEFAULT_BATCH_SIZE) {
+                    repository.createAll(batch);
+                    batch.clear();
+                }
+            });
+        }
+        repository.createAll(batch);
+        return repository.findPagedQuote(1).maxPage();
+    }
+
+    @Benchmark
+    public long importSnapshot() throws IOException {
+        QuoteRepository repository = new MemoryQuoteRepository();
+        new QuoteTransfer(repository).importFrom(snapshot, (rows, rate) -> { });
+        return repository.findPagedQuote(1).maxPage();
+    }
+
+    @Benchmark
+    public void readJson(Blackhole bh) throws IOException {
+        try (Reader in = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+            new QuoteJsonReader(in).readArray(bh::consume);
+        }
+    }
+
+    @Benchmark
+    public void readSnapshot(Blackhole bh) throws IOException {
+        QuoteSnapshot.read(snapshot, bh::consume);
+    }
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# JMH 벤치마크 빌드/실행 스크립트
+#
+# JDK 21 이상 (가상 스레드를 쓰는 src/java 를 함께 컴파일한다)
+#
+# 필요한 jar (lib/bench/ 에 둔다) :
+#   jmh-core, jmh-generator-annprocess, jopt-simple, commons-math3
+#
+# 사용법 (프로젝트 루트에서) :
+#   src/bench/run.sh                       # 전체 실행
+#   src/bench/run.sh JsonCodecBenchmark    # 정규식으로 대상 지정
+# 결과는 ops/s 와 gc 프로파일러의 할당률(gc.alloc.rate.norm 등)로 출력된다.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="$ROOT/out/bench"
+CP="$ROOT/lib/*:$ROOT/lib/bench/*"
+
+JAVA_MAJOR="$(javac -version 2>&1 | sed -E 's/^javac ([0-9]+).*/\1/')"
+if [ "$JAVA_MAJOR" -lt 21 ] 2>/dev/null; then
+    echo "JDK 21 이상이 필요합니다. (현재 javac $JAVA_MAJOR)" >&2
+    exit 1
+fi
+
+if ! ls "$ROOT"/lib/bench/jmh-core-*.jar > /dev/null 2>&1; then
+    echo "lib/bench/ 에 JMH jar 가 없습니다. (jmh-core, jmh-generator-annprocess, jopt-simple, commons-math3)" >&2
+    exit 1
+fi
+
+rm -rf "$OUT" && mkdir -p "$OUT"
+javac -encoding UTF-8 -cp "$CP" -d "$OUT" \
+    -processor org.openjdk.jmh.generators.BenchmarkProcessor \
+    $(find "$ROOT/src/java" "$ROOT/src/bench" -name '*.java')
+
+cd "$ROOT"
+java -cp "$OUT:$CP" org.openjdk.jmh.Main -prof gc -rf json -rff "$ROOT/out/bench-result.json" "${@:-.*}"
@@ -1,6 +1,7 @@
 package com.quoteBoard;
 
 import com.quoteBoard.controller.SystemController;
+import com.quoteBoard.dao.QuoteRepositoryRegistry;
 import com.quoteBoard.dto.Command;
 import com.quoteBoard.dto.SearchQuoteRequest;
 import com.quoteBoard.utils.UIUtils;
@@ -10,10 +11,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.sql.Connection;
-import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,20 +26,13 @@ public class App {
 
     public void run() throws IOException {
 
+        // MySQL 을 쓰는 경우에만 테이블 / 예제 데이터를 준비한다
+        if(QuoteRepositoryRegistry.configuredBackend().equals(QuoteRepositoryRegistry.RDB)) {
+            //if table not exist, create new table (스키마 마이그레이션)
+            ConnectionManager.createTable();
 
-        //if table not exist, create new table
-        ConnectionManager.createTable();
-
-        //if record not exist, create 10 records
-        ConnectionManager.insertExample(10);
-        try {
-            String sql = Files.readString(Path.of("src", "resources", "create_table.sql"));
-            try (Connection conn = ConnectionManager.getConnection();
-                 Statement stmt = conn.createStatement()) {
-                     stmt.execute(sql);
-            }
-        } catch (Exception e) {
-            System.out.println("sql file not found");
+            //if record not exist, create 10 records
+            ConnectionManager.insertExample(10);
         }
 
 
@@ -61,8 +51,11 @@ public class App {
                 String value = cmd.substring(Command.LIST.label().length()).trim();
                 Map<String, String> val = parseQuery(value);
 
+                // 커서가 주어지면 → 커서 기반 목록
+                if (val.containsKey("cursor")) {
+                    controller.list(val.get("cursor"));
                 // 쿼리 파라미터 없거나(page만 있는 경우 포함) → 일반 목록
-                if (!val.containsKey("keywordType") || !val.containsKey("keyword")) {
+                } else if (!val.containsKey("keywordType") || !val.containsKey("keyword")) {
                     String rawPage = val.get("page");
                     controller.list(rawPage == null ? 1 : Integer.parseInt(rawPage));
                 } else { // 검색 모드
@@ -92,6 +85,14 @@ public class App {
                 controller.update(id);
             } else if(cmd.equals(Command.BUILD.label())) { // 빌드
                 controller.build();
+            } else if(cmd.startsWith(Command.IMPORT.label())) { // 가져오기?file=quotes.jsonl
+                String value = cmd.substring(Command.IMPORT.label().length());
+                controller.importFile(parseQuery(value).get("file"));
+            } else if(cmd.startsWith(Command.EXPORT.label())) { // 내보내기?file=quotes.csv
+                String value = cmd.substring(Command.EXPORT.label().length());
+                controller.exportFile(parseQuery(value).get("file"));
+            } else if(cmd.equals(Command.STATS.label())) { // 통계
+                controller.stats();
             }
         }
     }
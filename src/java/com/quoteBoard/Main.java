@@ -1,13 +1,49 @@
 package com.quoteBoard;
 
 
+import com.quoteBoard.dao.QuoteRepositoryRegistry;
+import com.quoteBoard.http.QuoteHttpServer;
+import com.quoteBoard.metrics.Metrics;
+import com.quoteBoard.service.AsyncQuoteService;
+import dbConfig.ConnectionManager;
+
 import java.io.IOException;
 
 public class Main {
+
+    private static final int DEFAULT_HTTP_PORT = 8080;
+
+    /**
+     * 인자 없이 실행하면 콘솔 모드, {@code http [port]} 로 실행하면 HTTP 서버 모드
+     */
     public static void main(String[] args) {
+        Metrics.register();
+        if(args.length > 0 && args[0].equals("http")) {
+            runHttp(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT);
+            return;
+        }
         App application = new App(System.in);
         try {
             application.run();
         } catch (IOException ignore) {}
     }
-}
\ No newline at end of file
+
+    private static void runHttp(int port) {
+        if(QuoteRepositoryRegistry.configuredBackend().equals(QuoteRepositoryRegistry.RDB)) {
+            ConnectionManager.createTable();
+        }
+        try {
+            AsyncQuoteService service = new AsyncQuoteService();
+            QuoteHttpServer server = new QuoteHttpServer(port, service);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                service.close();
+                ConnectionManager.shutdown();
+            }, "quote-http-shutdown"));
+            server.start();
+            System.out.println("http://localhost:" + server.port() + "/quotes 에서 요청을 받습니다.");
+        } catch (IOException e) {
+            System.out.println("서버를 시작하지 못했습니다. : " + e.getMessage());
+        }
+    }
+}
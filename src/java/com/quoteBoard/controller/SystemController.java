@@ -1,10 +1,17 @@
 package com.quoteBoard.controller;
 
+import com.quoteBoard.dao.QuoteRepositoryRegistry;
 import com.quoteBoard.dto.*;
+import com.quoteBoard.metrics.MetricsRegistry;
+import com.quoteBoard.metrics.OperationStats;
 import com.quoteBoard.service.QuoteService;
+import com.quoteBoard.service.QuoteTransfer;
+import dbConfig.ConnectionManager;
+import dbConfig.ConnectionPool;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 public class SystemController {
@@ -34,6 +41,15 @@ public class SystemController {
         paging(data); // 목록 페이징 출력
     }
 
+    public void list(String cursor) {
+        try {
+            PagedQuoteResponse data = quoteService.getList(cursor);
+            paging(data); // 목록 페이징 출력
+        } catch (IllegalArgumentException e) {
+            System.out.println("유효하지 않은 커서입니다.");
+        }
+    }
+
     public void search(SearchQuoteRequest request) {
         System.out.println("----------------------");
         System.out.println("검색 타입 : " + request.type().label());
@@ -73,7 +89,62 @@ public class SystemController {
 
     public void build() {
         quoteService.build();
-        System.out.println("data.json 파일의 내용이 갱신되었습니다.");
+        System.out.println("빌드 결과가 갱신되었습니다. (data.json, data.qsnap / 이후 변경분은 data.manifest)");
+    }
+
+    public void importFile(String file) {
+        if(file == null || file.isBlank()) {
+            System.out.println("유효하지 않은 템플릿입니다.");
+            return;
+        }
+        try {
+            QuoteTransfer.Result result = quoteService.importFrom(Path.of(file), this::progress);
+            System.out.println(result.rows() + "개의 명언을 가져왔습니다. (건너뜀 " + result.skipped() + "개, "
+                    + Math.round(result.rowsPerSecond()) + "개/초)");
+        } catch (IllegalArgumentException e) {
+            System.out.println("지원하지 않는 파일 형식입니다. (.jsonl / .csv / .qsnap)");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("가져오기에 실패했습니다. : " + e.getMessage());
+        }
+    }
+
+    public void exportFile(String file) {
+        if(file == null || file.isBlank()) {
+            System.out.println("유효하지 않은 템플릿입니다.");
+            return;
+        }
+        try {
+            QuoteTransfer.Result result = quoteService.exportTo(Path.of(file), this::progress);
+            System.out.println(result.rows() + "개의 명언을 " + file + " 파일로 내보냈습니다. ("
+                    + Math.round(result.rowsPerSecond()) + "개/초)");
+        } catch (IllegalArgumentException e) {
+            System.out.println("지원하지 않는 파일 형식입니다. (.jsonl / .csv / .qsnap)");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("내보내기에 실패했습니다. : " + e.getMessage());
+        }
+    }
+
+    public void stats() {
+        List<OperationStats> operations = MetricsRegistry.global().snapshot();
+        System.out.println("작업 / 호출 / 실패 / 행 / p50 / p99 / p99.9 / 최대 (ms)");
+        System.out.println("----------------------");
+        for(OperationStats op : operations) {
+            if(op.calls() == 0) continue;
+            System.out.printf("%s / %d / %d / %d / %.2f / %.2f / %.2f / %.2f%n",
+                    op.name(), op.calls(), op.errors(), op.rows(),
+                    op.p50Millis(), op.p99Millis(), op.p999Millis(), op.maxMillis());
+        }
+        System.out.println("----------------------");
+
+        if(!QuoteRepositoryRegistry.configuredBackend().equals(QuoteRepositoryRegistry.RDB)) return;
+        ConnectionPool.Stats pool = ConnectionManager.poolStats();
+        System.out.println("커넥션 : 사용 " + pool.active() + " / 열림 " + pool.total() + " / 최대 " + pool.maxSize()
+                + " (대여 " + pool.borrowed() + ", 대기 " + pool.waits() + ", 시간 초과 " + pool.timeouts() + ")");
+        System.out.println("statement : 준비 " + pool.statementsPrepared() + " / 재사용 " + pool.statementCacheHits());
+    }
+
+    private void progress(long rows, double rowsPerSecond) {
+        System.out.println("진행 : " + rows + "개 (" + Math.round(rowsPerSecond) + "개/초)");
     }
 
     private void paging(PagedQuoteResponse response) {
@@ -103,5 +174,13 @@ public class SystemController {
         sb.deleteCharAt(sb.length() - 1);
         sb.deleteCharAt(sb.length() - 1);
         System.out.println(sb.toString());
+
+        // 깊은 페이지는 커서로 이어서 조회
+        if(response.prevCursor() != null) {
+            System.out.println("이전 : " + Command.LIST.label() + "?cursor=" + response.prevCursor());
+        }
+        if(response.nextCursor() != null) {
+            System.out.println("다음 : " + Command.LIST.label() + "?cursor=" + response.nextCursor());
+        }
     }
 }
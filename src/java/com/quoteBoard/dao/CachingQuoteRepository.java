@@ -0,0 +1,81 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.LruCache;
+
+import java.util.Optional;
+
+/**
+ * id 기준 단건 조회 결과를 메모리에 캐시하는 QuoteRepository 데코레이터.
+ * <ul>
+ *     <li>find : 캐시에 없으면 저장소에서 읽어와 캐시한다(read-through).</li>
+ *     <li>create : 저장소에 쓴 뒤 캐시도 갱신한다(write-through).</li>
+ *     <li>update / delete : 캐시에서 제거한다. 저장소가 값을 바꿔 저장하거나 실패를 삼키는 경우에도 다음 find 가 저장소에서 다시 읽는다.</li>
+ * </ul>
+ * 저장소 구현(RDB / 파일)과 무관하게 앞단에 둘 수 있다.
+ * 캐시된 엔티티가 호출자에 의해 바뀌지 않도록 항상 복사본을 저장하고 반환한다.
+ */
+public class CachingQuoteRepository extends ForwardingQuoteRepository {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final LruCache<Long, Quote> cache;
+
+    public CachingQuoteRepository(QuoteRepository delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param delegate 실제 저장소
+     * @param capacity 캐시할 최대 명언 수
+     */
+    public CachingQuoteRepository(QuoteRepository delegate, int capacity) {
+        super(delegate);
+        this.cache = new LruCache<>(capacity);
+    }
+
+    /**
+     * 캐시 적중률 / 제거 횟수 등의 통계를 반환한다.
+     * @return 캐시 통계
+     */
+    public LruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        Quote created = delegate.create(quote);
+        if(created != null && created.getId() != null) {
+            cache.put(created.getId(), copy(created));
+        }
+        return created;
+    }
+
+    @Override
+    public Optional<Quote> find(Long id) {
+        Quote cached = cache.get(id, key -> delegate.find(key).map(CachingQuoteRepository::copy).orElse(null));
+        return Optional.ofNullable(cached).map(CachingQuoteRepository::copy);
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        try {
+            delegate.update(id, word, author);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    private static Quote copy(Quote quote) {
+        return new Quote(quote.getId(), quote.getQuote(), quote.getAuthor());
+    }
+}
@@ -0,0 +1,88 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 모든 호출을 다른 QuoteRepository 로 위임하는 데코레이터의 기반 클래스.
+ * 캐시/계측 등 부가 기능은 필요한 메서드만 재정의한다.
+ */
+public abstract class ForwardingQuoteRepository implements QuoteRepository {
+
+    protected final QuoteRepository delegate;
+
+    protected ForwardingQuoteRepository(QuoteRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        return delegate.create(quote);
+    }
+
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        return delegate.createAll(quotes, batchSize);
+    }
+
+    @Override
+    public List<Quote> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void scanAll(Consumer<Quote> consumer) {
+        delegate.scanAll(consumer);
+    }
+
+    @Override
+    public Optional<Quote> find(Long id) {
+        return delegate.find(id);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        delegate.update(id, word, author);
+    }
+
+    @Override
+    public void build() {
+        delegate.build();
+    }
+
+    @Override
+    public void checkpoint() throws IOException {
+        delegate.checkpoint();
+    }
+
+    @Override
+    public boolean processLocal() {
+        return delegate.processLocal();
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuote(int page) {
+        return delegate.findPagedQuote(page);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        return delegate.findPagedQuoteByCursor(cursor);
+    }
+
+    @Override
+    public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        return delegate.search(type, keyword, page);
+    }
+}
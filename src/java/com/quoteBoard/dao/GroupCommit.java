@@ -0,0 +1,134 @@
+package com.quoteBoard.dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 여러 쓰기 스레드의 fsync 를 한 번으로 묶는 group commit.
+ * <p>
+ * 쓰기 스레드는 기록 전에 {@link #begin()}, 기록 후에 {@link #register()} 로 순번을 받고
+ * {@link #await(long)} 에서 그 순번까지 디스크에 반영되기를 기다린다.
+ * 기다리는 스레드 중 하나가 리더가 되어, 기록 중인 쓰기가 남아 있는 동안 최대 {@code windowNanos}
+ * (혹은 {@code maxRecords} 건이 모일 때까지) 기다렸다가 한 번만 sync 를 호출하고, 그 시점까지 등록된 쓰기를 모두 완료 처리한다.
+ * 기록 중인 쓰기가 없으면 기다리지 않으므로 혼자 쓰는 경우에는 지연이 늘지 않는다.
+ * sync 중에 들어온 쓰기는 다음 리더가 처리한다.
+ */
+class GroupCommit {
+
+    @FunctionalInterface
+    interface Sync {
+        void run() throws IOException;
+    }
+
+    private final Sync sync;
+    private final long windowNanos;
+    private final int maxRecords;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final Condition filled = lock.newCondition();
+    private int inFlight;
+    private long written;
+    private long durable;
+    private boolean syncing;
+
+    /**
+     * @param sync 디스크에 반영하는 함수 (예: {@code channel.force(false)})
+     * @param windowMillis 리더가 쓰기를 모으는 최대 시간
+     * @param maxRecords 이만큼 모이면 기다리지 않고 바로 sync 한다
+     */
+    GroupCommit(Sync sync, long windowMillis, int maxRecords) {
+        this.sync = sync;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * 기록을 시작하기 전에 호출한다. 이후 반드시 {@link #register()} 나 {@link #abort()} 중 하나를 호출해야 한다.
+     */
+    void begin() {
+        lock.lock();
+        try {
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 기록하지 않고 끝난 경우 호출한다.
+     */
+    void abort() {
+        lock.lock();
+        try {
+            if(--inFlight == 0) filled.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 기록을 마친 뒤 호출한다.
+     * @return {@link #await(long)} 에 넘길 순번
+     */
+    long register() {
+        lock.lock();
+        try {
+            ++written;
+            if(--inFlight == 0 || written - durable >= maxRecords) filled.signal();
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * seq 까지의 쓰기가 디스크에 반영될 때까지 기다린다.
+     * @throws UncheckedIOException 이 스레드가 리더로서 호출한 sync 가 실패한 경우 (기다리던 다른 스레드는 다음 리더가 다시 시도한다)
+     */
+    void await(long seq) {
+        lock.lock();
+        try {
+            while(durable < seq) {
+                if(syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                try {
+                    collect();
+                    long target = written;
+                    lock.unlock();
+                    try {
+                        sync.run();
+                    } finally {
+                        lock.lock();
+                    }
+                    durable = Math.max(durable, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    syncing = false;
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 기록 중인 쓰기가 있으면 windowNanos 동안, 혹은 maxRecords 건이 모일 때까지 기다린다. 인터럽트되면 바로 sync 한다
+    private void collect() {
+        long remaining = windowNanos;
+        try {
+            while(remaining > 0 && inFlight > 0 && written - durable < maxRecords) {
+                remaining = filled.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
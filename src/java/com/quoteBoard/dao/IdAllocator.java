@@ -0,0 +1,82 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.utils.FileUtils;
+import com.quoteBoard.utils.InterProcessLock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 파일 저장소의 id 발급기. 여러 스레드와, 같은 디렉터리를 쓰는 여러 프로세스에서 중복 없이 id 를 발급한다.
+ * <p>
+ * lastId.txt 에는 "아직 누구에게도 예약되지 않은 첫 id"(high-water mark)를 둔다.
+ * 발급기는 잠금 파일을 잡고 이 값부터 {@code blockSize} 개를 예약한 뒤, 예약한 구간 안에서는
+ * {@link AtomicLong} 만으로 id 를 나눠 준다. 따라서 파일 기록은 id 가 아니라 구간마다 한 번이다.
+ * 프로세스가 예약한 구간을 다 쓰지 못하고 끝나면 그만큼의 id 는 비게 된다.
+ * {@code maxId} 를 넘는 id 는 발급하지 않고 예외를 던진다.
+ * lastId.txt 를 읽거나 기록하지 못하면 구간을 예약하지 않고 예외를 던진다. 손상된 파일을 처음부터 다시 세지 않으므로
+ * 다른 프로세스가 이미 예약한 id 를 다시 발급하지 않는다.
+ */
+class IdAllocator {
+
+    static final int DEFAULT_BLOCK_SIZE = 1_000;
+
+    // [next, end) 구간. 구간이 바뀔 때만 새 객체로 교체한다.
+    private record Block(AtomicLong next, long end) { }
+
+    private final Path dir;
+    private final int blockSize;
+    private final LongSupplier floor;
+    private final long maxId;
+    private final InterProcessLock lock;
+    private volatile Block block = new Block(new AtomicLong(), 0);
+
+    /**
+     * @param dir 데이터 디렉터리 (lastId.txt 위치)
+     * @param blockSize 한 번에 예약할 id 개수
+     * @param floor 발급할 수 있는 가장 작은 id. lastId.txt 가 없거나 실제 데이터보다 뒤처진 경우의 하한으로 쓴다.
+     * @param maxId 발급할 수 있는 가장 큰 id
+     */
+    IdAllocator(Path dir, int blockSize, LongSupplier floor, long maxId) {
+        if(blockSize <= 0) throw new IllegalArgumentException("blockSize must be positive");
+        this.dir = dir;
+        this.blockSize = blockSize;
+        this.floor = floor;
+        this.maxId = maxId;
+        this.lock = InterProcessLock.of(dir.resolve("lastId.lock"));
+    }
+
+    /**
+     * @return 새 id
+     * @throws UncheckedIOException lastId.txt 를 읽거나 기록하지 못한 경우
+     * @throws IllegalStateException 발급할 id 가 {@code maxId} 를 넘는 경우
+     */
+    long next() {
+        while(true) {
+            Block current = block;
+            long id = current.next().getAndIncrement();
+            if(id < current.end()) return id;
+            synchronized (this) {
+                if(block == current) block = reserve(current.end());
+            }
+        }
+    }
+
+    // previousEnd : 이 프로세스가 이미 쓴 구간을 다시 예약하지 않도록 하는 하한
+    private Block reserve(long previousEnd) {
+        try {
+            return lock.call(() -> {
+                long start = Math.max(Math.max(FileUtils.getMaxNumber(dir), floor.getAsLong()), previousEnd);
+                if(start > maxId) throw new IllegalStateException("id space exhausted: next id " + start + " exceeds " + maxId);
+                long end = Math.min(start + blockSize, maxId + 1);
+                FileUtils.putMaxNumber(dir, end);
+                return new Block(new AtomicLong(start), end);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.quoteBoard.dao;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 존재하는 id 집합에 대한 순위 색인.
+ * <p>
+ * id 는 순차 발급되어 범위가 작으므로 id 를 그대로 인덱스로 쓴다.
+ * 펜윅 트리로 k 번째로 작은 id 를 O(log n) 에 찾고, 비트셋으로 존재 여부와 이웃한 id 를 찾는다.
+ * 따라서 깊은 번호 페이지도 시작 id 를 바로 찾은 뒤 한 페이지 분량만 훑는다.
+ * 스레드 안전하지 않으므로 잠금은 호출자가 책임진다.
+ */
+final class IdRank {
+
+    static final long MAX_ID = 1 << 30;
+
+    private final BitSet present = new BitSet();
+    // 1부터 capacity 까지 사용. capacity 는 2의 거듭제곱
+    private int[] tree = new int[1024 + 1];
+    private int size;
+
+    /**
+     * @return 새로 추가되었으면 true, 이미 있었으면 false
+     * @throws IllegalArgumentException id 가 [1, {@link #MAX_ID}] 범위를 벗어난 경우
+     */
+    boolean add(long id) {
+        if(id < 1 || id > MAX_ID) throw new IllegalArgumentException("id out of range: " + id);
+        if(present.get((int) id)) return false;
+        present.set((int) id);
+        grow((int) id);
+        update((int) id, 1);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return 제거되었으면 true, 없었으면 false
+     */
+    boolean remove(long id) {
+        if(!contains(id)) return false;
+        present.clear((int) id);
+        update((int) id, -1);
+        size--;
+        return true;
+    }
+
+    boolean contains(long id) {
+        return id >= 1 && id <= MAX_ID && present.get((int) id);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param k 1부터 시작하는 순위 ({@link #size()} 이하)
+     * @return k 번째로 작은 id
+     */
+    long select(int k) {
+        int pos = 0;
+        for(int step = tree.length - 1; step > 0; step >>= 1) {
+            int next = pos + step;
+            if(next < tree.length && tree[next] < k) {
+                pos = next;
+                k -= tree[next];
+            }
+        }
+        return pos + 1;
+    }
+
+    /**
+     * 내림차순으로 offset 개를 건너뛴 뒤의 id 를 최대 limit 개 반환한다.
+     */
+    List<Long> descending(long offset, int limit) {
+        if(offset < 0 || offset >= size) return List.of();
+        return walkDown((int) select((int) (size - offset)), limit);
+    }
+
+    /**
+     * @return id 보다 작은 id 를 내림차순으로 최대 limit 개
+     */
+    List<Long> below(long id, int limit) {
+        if(id <= 1) return List.of();
+        return walkDown(present.previousSetBit((int) Math.min(id - 1, MAX_ID)), limit);
+    }
+
+    /**
+     * @return id 보다 큰 id 를 오름차순으로 최대 limit 개
+     */
+    List<Long> above(long id, int limit) {
+        if(id >= MAX_ID) return List.of();
+        List<Long> ids = new ArrayList<>(limit);
+        for(int i = present.nextSetBit((int) Math.max(id + 1, 1)); i >= 0 && ids.size() < limit; i = present.nextSetBit(i + 1)) {
+            ids.add((long) i);
+        }
+        return ids;
+    }
+
+    /**
+     * 오름차순 순회용. {@code for(long id = next(0); id > 0; id = next(id))}
+     * @return id 보다 큰 첫 id, 없으면 -1
+     */
+    long next(long id) {
+        if(id >= MAX_ID) return -1;
+        return present.nextSetBit((int) Math.max(id + 1, 1));
+    }
+
+    private List<Long> walkDown(int from, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        for(int i = from; i >= 1 && ids.size() < limit; i = present.previousSetBit(i - 1)) {
+            ids.add((long) i);
+        }
+        return ids;
+    }
+
+    private void update(int id, int delta) {
+        for(int i = id; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // 크기가 2의 거듭제곱이면 늘린 구간의 노드는 마지막 노드(전체 합)를 빼고 모두 0 이다
+    private void grow(int id) {
+        int capacity = tree.length - 1;
+        while(capacity < id) {
+            int total = tree[capacity];
+            tree = Arrays.copyOf(tree, capacity * 2 + 1);
+            capacity *= 2;
+            tree[capacity] = total;
+        }
+    }
+}
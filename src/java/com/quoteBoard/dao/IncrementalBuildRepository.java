@@ -0,0 +1,451 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.PageCursor;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.FileUtils;
+import com.quoteBoard.utils.InterProcessLock;
+import com.quoteBoard.utils.JsonUtils;
+import com.quoteBoard.utils.QuoteJsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * build 를 마지막 빌드 이후 바뀐 명언만큼만 수행하는 QuoteRepository 데코레이터.
+ * <pre>
+ * data.json, data.qsnap          -- 기준 빌드 (전체)
+ * data.delta-000001.jsonl ...    -- 기준 이후의 변경분. 한 줄에 명언 하나, content / author 가 null 이면 삭제
+ * data.manifest                  -- 기준 빌드의 크기 / 건수, 변경분 목록, 최고 id(high-water mark)
+ * build.journal                  -- 마지막 빌드 이후 등록 / 수정 / 삭제된 id
+ * </pre>
+ * 최신 전체 목록은 data.json 에 manifest 의 변경분 파일을 순서대로 덮어쓴 결과다.
+ * <ul>
+ *     <li>등록 / 수정 / 삭제는 id 를 변경 기록에 남겨 두었다가 build 때 현재 상태를 읽는다(없으면 삭제).
+ *     기록은 파일이므로 재시작 후에도, 같은 디렉터리를 쓰는 다른 프로세스의 변경도 이어진다.
+ *     id 는 프로세스마다 다른 구간에서 발급되거나(파일 저장소) 커밋 순서와 다를 수 있으므로(AUTO_INCREMENT), 최고 id 만으로는 새 명언을 찾을 수 없다.</li>
+ *     <li>한 번에 {@value #MAX_JOURNALED_CREATES} 건 넘게 일괄 등록하면 id 대신 전체 빌드 표시를 남긴다.</li>
+ *     <li>등록 후 기록하기 전에 프로세스가 멈춘 경우를 위해, build 때 최고 id 보다 큰 명언도 커서 페이징으로 함께 읽는다.</li>
+ *     <li>변경분이 {@value #MAX_DELTAS} 개를 넘거나 기준 건수의 1/{@value #MERGE_RATIO} 을 넘으면
+ *     data.json 과 변경분을 합쳐 data.json / data.qsnap 을 다시 만든다. 저장소는 읽지 않는다.</li>
+ *     <li>manifest 가 없거나, data.json 이 manifest 이후 다른 방식으로 바뀐 경우에는 저장소 전체를 빌드한다.</li>
+ * </ul>
+ * 변경 기록과 빌드는 각각 파일 잠금으로 프로세스 사이에서도 직렬화한다.
+ */
+public class IncrementalBuildRepository extends ForwardingQuoteRepository {
+
+    public static final String MANIFEST_FILE_NAME = "data.manifest";
+    public static final String JOURNAL_FILE_NAME = "build.journal";
+
+    private static final String BASE_FILE_NAME = "data.json";
+    private static final String DELTA_PREFIX = "data.delta-";
+    private static final String DELTA_SUFFIX = ".jsonl";
+    private static final int MAX_DELTAS = 16;
+    private static final int MERGE_RATIO = 4;
+    // 기준 빌드가 작을 때 매번 합치지 않도록 하는 최소 변경 수
+    private static final long MIN_MERGE_CHANGES = 1_000;
+    // 일괄 등록에서 id 를 하나씩 기록하는 최대 건수. 넘으면 변경분 대신 전체 빌드가 싸다
+    private static final int MAX_JOURNALED_CREATES = 1_000;
+    // 변경 기록에서 다음 build 를 전체 빌드로 하라는 줄
+    private static final String FULL_BUILD_MARK = "*";
+
+    private final Path dir;
+    private final Path journal;
+    private final InterProcessLock journalLock;
+    private final InterProcessLock buildLock;
+
+    /**
+     * 기준 빌드 정보
+     * @param baseSize data.json 크기
+     * @param baseModified data.json 수정 시각(ms). 다른 방식으로 다시 쓰였는지 확인한다
+     * @param baseCount data.json 의 명언 수
+     * @param highWaterMark 빌드에 반영된 최고 id
+     * @param sequence 마지막 변경분 파일 번호
+     * @param changes 변경분 파일들의 줄 수 합
+     * @param deltas 변경분 파일 이름, 적용 순서대로
+     */
+    private record Manifest(long baseSize, long baseModified, long baseCount, long highWaterMark,
+                            long sequence, long changes, List<String> deltas) { }
+
+    // 변경 기록에서 읽은 id, 전체 빌드 표시 여부와 읽은 바이트 수 (빌드가 끝나면 그만큼 지운다)
+    private record JournalSnapshot(Set<Long> ids, boolean fullBuild, long length) { }
+
+    /**
+     * @param delegate 실제 저장소
+     * @param dir 빌드 결과를 둘 디렉터리 (저장소의 build 가 data.json 을 쓰는 곳)
+     */
+    public IncrementalBuildRepository(QuoteRepository delegate, Path dir) {
+        super(delegate);
+        this.dir = dir;
+        this.journal = dir.resolve(JOURNAL_FILE_NAME);
+        this.journalLock = InterProcessLock.of(dir.resolve(JOURNAL_FILE_NAME + ".lock"));
+        this.buildLock = InterProcessLock.of(dir.resolve("build.lock"));
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        Quote created = delegate.create(quote);
+        if(created != null && created.getId() != null) record(List.of(String.valueOf(created.getId())));
+        return created;
+    }
+
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        CreatedIds created = new CreatedIds(quotes);
+        try {
+            return delegate.createAll(created, batchSize);
+        } finally {
+            // 도중에 실패해도 그 전까지 저장된 명언은 기록한다
+            created.drain();
+            record(created.overflow ? List.of(FULL_BUILD_MARK) : created.ids.stream().map(String::valueOf).toList());
+        }
+    }
+
+    /**
+     * 일괄 등록에 넘기는 입력을 감싸, 저장되어 id 가 할당된 명언의 id 만 모은다.
+     * id 는 묶음을 저장할 때 순서대로 할당되므로, 아직 id 가 없는 명언(최대 한 묶음)만 붙잡아 둔다.
+     */
+    private static final class CreatedIds implements Iterable<Quote> {
+        private final Iterable<Quote> source;
+        private final ArrayDeque<Quote> pending = new ArrayDeque<>();
+        private final List<Long> ids = new ArrayList<>();
+        private boolean overflow;
+
+        private CreatedIds(Iterable<Quote> source) {
+            this.source = source;
+        }
+
+        @Override
+        public Iterator<Quote> iterator() {
+            Iterator<Quote> iterator = source.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Quote next() {
+                    drain();
+                    Quote quote = iterator.next();
+                    if(!overflow) pending.add(quote);
+                    return quote;
+                }
+            };
+        }
+
+        private void drain() {
+            while(!pending.isEmpty() && pending.peek().getId() != null) {
+                ids.add(pending.poll().getId());
+            }
+            if(ids.size() > MAX_JOURNALED_CREATES) {
+                overflow = true;
+                ids.clear();
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * 변경 전에 기록하여, 변경 후 기록하기 전에 멈춰도 다음 build 에 반영되게 한다.
+     * 그 사이 build 가 변경 전 상태를 읽고 기록을 지웠을 수 있으므로 변경 후에 한 번 더 기록한다.
+     */
+    @Override
+    public void delete(Long id) {
+        List<String> entry = List.of(String.valueOf(id));
+        record(entry);
+        delegate.delete(id);
+        record(entry);
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        List<String> entry = List.of(String.valueOf(id));
+        record(entry);
+        delegate.update(id, word, author);
+        record(entry);
+    }
+
+    @Override
+    public void build() {
+        try {
+            buildLock.call(() -> {
+                JournalSnapshot changed = readJournal();
+                Manifest manifest = readManifest();
+                Manifest built = manifest == null || changed.fullBuild() ? fullBuild() : appendDelta(manifest, changed.ids());
+                if(built != manifest) writeManifest(built);
+                trimJournal(changed.length());
+                return null;
+            });
+        } catch (IOException | RuntimeException ignore) {
+            // 변경 기록은 남아 있으므로 다음 build 에서 다시 반영된다
+        }
+        try {
+            // 변경분 / 병합 빌드는 저장소의 build 를 거치지 않으므로 색인 저장을 따로 요청한다
+            delegate.checkpoint();
+        } catch (IOException | RuntimeException ignore) { }
+    }
+
+    /**
+     * 저장소 전체를 빌드한다. 남아 있는 변경분 파일은 지운다.
+     * 저장소의 build 는 실패를 알리지 않으므로 같은 빌드 파일을 직접 기록하여, 실패하면 manifest 를 갱신하지 않는다.
+     * 색인 저장은 {@link #build()} 가 마지막에 요청한다.
+     */
+    private Manifest fullBuild() throws IOException {
+        // 순회 전에 읽는다. 그 사이 등록된 명언은 다음 변경분에 한 번 더 들어갈 뿐이다
+        long highWaterMark = maxId();
+        long[] count = {0};
+        FileUtils.writeBuildFiles(dir, consumer -> delegate.scanAll(quote -> {
+            consumer.accept(quote);
+            count[0]++;
+        }));
+        try (DirectoryStream<Path> deltas = Files.newDirectoryStream(dir, DELTA_PREFIX + "*" + DELTA_SUFFIX)) {
+            for(Path delta : deltas) Files.deleteIfExists(delta);
+        }
+        return baseManifest(count[0], highWaterMark, 0);
+    }
+
+    // 바뀐 명언을 변경분 파일로 기록하고, 쌓였으면 기준 빌드와 합친다
+    private Manifest appendDelta(Manifest manifest, Set<Long> journalIds) throws IOException {
+        //기록된 id 는 현재 상태로 (값이 null 이면 삭제), 기록되지 않았더라도 최고 id 보다 큰 id 는 새로 등록된 명언으로 본다
+        SortedMap<Long, Quote> changes = new TreeMap<>();
+        for(Long id : journalIds) {
+            changes.put(id, delegate.find(id).orElse(null));
+        }
+        long highWaterMark = collectCreated(manifest.highWaterMark(), changes);
+        if(changes.isEmpty()) return manifest;
+
+        long sequence = manifest.sequence() + 1;
+        String name = String.format("%s%06d%s", DELTA_PREFIX, sequence, DELTA_SUFFIX);
+        FileUtils.writeAtomically(dir.resolve(name), writer -> {
+            for(Map.Entry<Long, Quote> entry : changes.entrySet()) {
+                Quote quote = entry.getValue() != null ? entry.getValue() : new Quote(entry.getKey(), null, null);
+                JsonUtils.writeLine(quote, writer);
+                writer.write('\n');
+            }
+        });
+
+        List<String> deltas = new ArrayList<>(manifest.deltas());
+        deltas.add(name);
+        Manifest appended = new Manifest(manifest.baseSize(), manifest.baseModified(), manifest.baseCount(), highWaterMark,
+                sequence, manifest.changes() + changes.size(), List.copyOf(deltas));
+        if(deltas.size() > MAX_DELTAS || appended.changes() > Math.max(MIN_MERGE_CHANGES, appended.baseCount() / MERGE_RATIO)) {
+            return merge(appended);
+        }
+        return appended;
+    }
+
+    // 최고 id 보다 큰 명언을 커서 페이징으로 모은다. 새 최고 id 를 반환
+    // 등록은 변경 기록으로 찾으므로, 이 순회는 등록 직후 기록하지 못하고 멈춘 경우를 위한 보완이다
+    private long collectCreated(long highWaterMark, Map<Long, Quote> into) {
+        long max = highWaterMark;
+        String cursor = PageCursor.prev(highWaterMark).encode();
+        while(cursor != null) {
+            PagedQuoteDto page = delegate.findPagedQuoteByCursor(cursor);
+            if(page.quotes().isEmpty()) break;
+            for(Quote quote : page.quotes()) {
+                into.put(quote.getId(), quote);
+                max = Math.max(max, quote.getId());
+            }
+            cursor = page.prevCursor();
+        }
+        return max;
+    }
+
+    /**
+     * data.json 에 변경분을 덮어써 data.json / data.qsnap 을 다시 만든다.
+     * 기준 빌드의 순서를 유지하고, 새 id 는 id 순으로 뒤에 붙인다.
+     */
+    private Manifest merge(Manifest manifest) throws IOException {
+        Map<Long, Quote> changes = new HashMap<>();
+        for(String delta : manifest.deltas()) {
+            readDelta(dir.resolve(delta), changes);
+        }
+
+        Path base = dir.resolve(BASE_FILE_NAME);
+        long[] count = {0};
+        FileUtils.writeBuildFiles(dir, consumer -> {
+            // 기존 data.json 은 임시 파일로 교체되기 전까지 그대로 읽을 수 있다
+            try (Reader in = Files.newBufferedReader(base, StandardCharsets.UTF_8)) {
+                new QuoteJsonReader(in).readArray(quote -> {
+                    Quote current = changes.containsKey(quote.getId()) ? changes.remove(quote.getId()) : quote;
+                    if(current == null) return;
+                    consumer.accept(current);
+                    count[0]++;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            changes.values().stream()
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(Quote::getId))
+                    .forEach(quote -> {
+                        consumer.accept(quote);
+                        count[0]++;
+                    });
+        });
+        deleteDeltas(manifest);
+        return baseManifest(count[0], manifest.highWaterMark(), manifest.sequence());
+    }
+
+    // 변경분 파일을 읽어 id 별 최종 상태를 덮어쓴다 (삭제는 null)
+    private static void readDelta(Path delta, Map<Long, Quote> changes) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(delta, StandardCharsets.UTF_8)) {
+            String line;
+            while((line = in.readLine()) != null) {
+                if(line.isBlank()) continue;
+                Quote quote = QuoteJsonReader.parse(line);
+                boolean deleted = quote.getQuote() == null && quote.getAuthor() == null;
+                changes.put(quote.getId(), deleted ? null : quote);
+            }
+        }
+    }
+
+    private Manifest baseManifest(long count, long highWaterMark, long sequence) throws IOException {
+        Path base = dir.resolve(BASE_FILE_NAME);
+        return new Manifest(Files.size(base), Files.getLastModifiedTime(base).toMillis(), count, highWaterMark,
+                sequence, 0, List.of());
+    }
+
+    private void deleteDeltas(Manifest manifest) {
+        for(String delta : manifest.deltas()) {
+            try {
+                Files.deleteIfExists(dir.resolve(delta));
+            } catch (IOException ignore) { }
+        }
+    }
+
+    private long maxId() {
+        List<Quote> first = delegate.findPagedQuote(1).quotes();
+        return first.isEmpty() ? 0 : first.get(0).getId();
+    }
+
+    /**
+     * @return manifest. 없거나 읽을 수 없거나, data.json / 변경분 파일이 manifest 와 맞지 않으면 null
+     */
+    private Manifest readManifest() {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(dir.resolve(MANIFEST_FILE_NAME), StandardCharsets.UTF_8)) {
+            properties.load(in);
+            String deltaList = properties.getProperty("deltas", "");
+            Manifest manifest = new Manifest(
+                    Long.parseLong(properties.getProperty("base.size")),
+                    Long.parseLong(properties.getProperty("base.modified")),
+                    Long.parseLong(properties.getProperty("base.count")),
+                    Long.parseLong(properties.getProperty("highWaterMark")),
+                    Long.parseLong(properties.getProperty("sequence")),
+                    Long.parseLong(properties.getProperty("changes")),
+                    deltaList.isEmpty() ? List.of() : List.of(deltaList.split(",")));
+
+            Path base = dir.resolve(BASE_FILE_NAME);
+            if(Files.size(base) != manifest.baseSize() || Files.getLastModifiedTime(base).toMillis() != manifest.baseModified()) {
+                return null;
+            }
+            for(String delta : manifest.deltas()) {
+                if(!Files.exists(dir.resolve(delta))) return null;
+            }
+            return manifest;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void writeManifest(Manifest manifest) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("base.size", Long.toString(manifest.baseSize()));
+        properties.setProperty("base.modified", Long.toString(manifest.baseModified()));
+        properties.setProperty("base.count", Long.toString(manifest.baseCount()));
+        properties.setProperty("highWaterMark", Long.toString(manifest.highWaterMark()));
+        properties.setProperty("sequence", Long.toString(manifest.sequence()));
+        properties.setProperty("changes", Long.toString(manifest.changes()));
+        properties.setProperty("deltas", String.join(",", manifest.deltas()));
+        FileUtils.writeAtomically(dir.resolve(MANIFEST_FILE_NAME), writer -> properties.store(writer, "incremental build"));
+    }
+
+    /**
+     * 등록 / 수정 / 삭제된 id(혹은 전체 빌드 표시)를 변경 기록에 추가한다. 다른 프로세스와 겹치지 않도록 잠금 안에서 열고 닫는다.
+     * 기록하지 못하면 manifest 를 지워 다음 build 가 전체 빌드가 되도록 한다.
+     */
+    private void record(List<String> entries) {
+        if(entries.isEmpty()) return;
+        try {
+            journalLock.call(() -> {
+                Files.createDirectories(dir);
+                // 잠금 안에서만 쓰므로 APPEND 없이 끝에 이어 쓴다
+                try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    // 쓰다가 멈춘 줄이 있으면 다음 id 와 붙지 않도록 줄을 바꾼다
+                    StringBuilder lines = new StringBuilder(endsWithNewline(channel) ? "" : "\n");
+                    for(String entry : entries) lines.append(entry).append('\n');
+                    ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+                    long position = channel.size();
+                    while(buffer.hasRemaining()) position += channel.write(buffer, position);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(dir.resolve(MANIFEST_FILE_NAME));
+            } catch (IOException ignore) { }
+        }
+    }
+
+    private static boolean endsWithNewline(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if(size == 0) return true;
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    private JournalSnapshot readJournal() throws IOException {
+        return journalLock.call(() -> {
+            byte[] bytes;
+            try {
+                bytes = Files.readAllBytes(journal);
+            } catch (NoSuchFileException e) {
+                return new JournalSnapshot(Set.of(), false, 0);
+            }
+            // 마지막 줄바꿈 뒤(쓰다가 멈춘 줄)는 무시하고, 지울 때 함께 지운다
+            Set<Long> ids = new LinkedHashSet<>();
+            boolean fullBuild = false;
+            int start = 0;
+            for(int i = 0; i < bytes.length; i++) {
+                if(bytes[i] != '\n') continue;
+                String line = new String(bytes, start, i - start, StandardCharsets.US_ASCII).trim();
+                if(line.equals(FULL_BUILD_MARK)) {
+                    fullBuild = true;
+                } else if(!line.isEmpty()) {
+                    try {
+                        ids.add(Long.parseLong(line));
+                    } catch (NumberFormatException ignore) { }
+                }
+                start = i + 1;
+            }
+            return new JournalSnapshot(ids, fullBuild, bytes.length);
+        });
+    }
+
+    // 빌드에 반영한 앞부분만 지운다. 그 사이 추가된 기록은 남긴다
+    private void trimJournal(long length) throws IOException {
+        if(length == 0) return;
+        journalLock.call(() -> {
+            byte[] bytes = Files.readAllBytes(journal);
+            Path tmp = journal.resolveSibling(JOURNAL_FILE_NAME + ".tmp");
+            Files.write(tmp, Arrays.copyOfRange(bytes, (int) Math.min(length, bytes.length), bytes.length));
+            Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return null;
+        });
+    }
+}
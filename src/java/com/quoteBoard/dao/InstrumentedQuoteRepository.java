@@ -0,0 +1,158 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.metrics.MetricsRegistry;
+import com.quoteBoard.metrics.OperationMetrics;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 메서드마다 지연 시간 / 행 수 / 실패 수를 {@link MetricsRegistry} 에 기록하는 QuoteRepository 데코레이터.
+ * <ul>
+ *     <li>작업 이름은 {@code repository.메서드} 이다 (예: repository.find).</li>
+ *     <li>행 수는 반환된 명언 수(목록은 페이지의 명언 수, 단건은 0 또는 1)이다.</li>
+ *     <li>{@link IllegalArgumentException}(없는 id 등 잘못된 요청)을 제외한 예외와,
+ *     저장소가 실패를 null 로 알리는 메서드(create, 목록, 검색)의 null 반환을 실패로 센다.</li>
+ * </ul>
+ */
+public class InstrumentedQuoteRepository extends ForwardingQuoteRepository {
+
+    private static final String PREFIX = "repository.";
+
+    private final OperationMetrics create;
+    private final OperationMetrics createAll;
+    private final OperationMetrics findAll;
+    private final OperationMetrics scanAll;
+    private final OperationMetrics find;
+    private final OperationMetrics delete;
+    private final OperationMetrics update;
+    private final OperationMetrics build;
+    private final OperationMetrics findPagedQuote;
+    private final OperationMetrics findPagedQuoteByCursor;
+    private final OperationMetrics search;
+
+    public InstrumentedQuoteRepository(QuoteRepository delegate) {
+        this(delegate, MetricsRegistry.global());
+    }
+
+    /**
+     * @param delegate 실제 저장소
+     * @param registry 기록할 레지스트리
+     */
+    public InstrumentedQuoteRepository(QuoteRepository delegate, MetricsRegistry registry) {
+        super(delegate);
+        this.create = registry.operation(PREFIX + "create");
+        this.createAll = registry.operation(PREFIX + "createAll");
+        this.findAll = registry.operation(PREFIX + "findAll");
+        this.scanAll = registry.operation(PREFIX + "scanAll");
+        this.find = registry.operation(PREFIX + "find");
+        this.delete = registry.operation(PREFIX + "delete");
+        this.update = registry.operation(PREFIX + "update");
+        this.build = registry.operation(PREFIX + "build");
+        this.findPagedQuote = registry.operation(PREFIX + "findPagedQuote");
+        this.findPagedQuoteByCursor = registry.operation(PREFIX + "findPagedQuoteByCursor");
+        this.search = registry.operation(PREFIX + "search");
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        return timed(create, () -> delegate.create(quote), created -> created == null ? -1 : 1);
+    }
+
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        return timed(createAll, () -> delegate.createAll(quotes, batchSize), created -> created);
+    }
+
+    @Override
+    public List<Quote> findAll() {
+        return timed(findAll, delegate::findAll, List::size);
+    }
+
+    @Override
+    public void scanAll(Consumer<Quote> consumer) {
+        long[] rows = new long[1];
+        timed(scanAll, () -> {
+            delegate.scanAll(quote -> {
+                rows[0]++;
+                consumer.accept(quote);
+            });
+            return null;
+        }, ignore -> rows[0]);
+    }
+
+    @Override
+    public Optional<Quote> find(Long id) {
+        return timed(find, () -> delegate.find(id), found -> found.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public void delete(Long id) {
+        timed(delete, () -> {
+            delegate.delete(id);
+            return null;
+        }, ignore -> 1);
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        timed(update, () -> {
+            delegate.update(id, word, author);
+            return null;
+        }, ignore -> 1);
+    }
+
+    @Override
+    public void build() {
+        timed(build, () -> {
+            delegate.build();
+            return null;
+        }, ignore -> 0);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuote(int page) {
+        return timed(findPagedQuote, () -> delegate.findPagedQuote(page), InstrumentedQuoteRepository::pageRows);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        return timed(findPagedQuoteByCursor, () -> delegate.findPagedQuoteByCursor(cursor), InstrumentedQuoteRepository::pageRows);
+    }
+
+    @Override
+    public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        return timed(search, () -> delegate.search(type, keyword, page), InstrumentedQuoteRepository::pageRows);
+    }
+
+    private static long pageRows(PagedQuoteDto dto) {
+        return dto == null ? -1 : dto.quotes().size();
+    }
+
+    /**
+     * call 을 실행하고 걸린 시간을 기록한다.
+     * @param rows 결과의 행 수. 음수면 실패로 기록한다.
+     */
+    private static <T> T timed(OperationMetrics metrics, Supplier<T> call, ToLongFunction<T> rows) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (IllegalArgumentException e) {
+            metrics.record(System.nanoTime() - start, 0, false);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            metrics.record(System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        long count = rows.applyAsLong(result);
+        metrics.record(System.nanoTime() - start, Math.max(count, 0), count < 0);
+        return result;
+    }
+}
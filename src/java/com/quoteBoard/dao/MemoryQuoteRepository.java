@@ -0,0 +1,248 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.PageCursor;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 프로세스 메모리에만 저장하는 QuoteRepository 구현체. 디스크 / 네트워크 I/O 가 없으며 종료하면 내용이 사라진다.
+ * <p>
+ * 페이징과 검색 의미는 {@link RDBQuoteRepositoryImpl} 과 같다. (quote_id 내림차순, 20건씩, 범위를 벗어난 페이지는 마지막 페이지로 제한)
+ * <ul>
+ *     <li>명언은 id 내림차순 {@link ConcurrentSkipListMap} 에 보관한다. 단건 / 커서 조회와 전체 순회는 잠금 없이 읽는다.</li>
+ *     <li>번호 페이지는 {@link IdRank} 로 시작 id 를 찾으므로 페이지 깊이와 무관하게 O(log n + 페이지 크기)이다.</li>
+ *     <li>검색은 {@link QuoteSearchIndex} 를 사용한다.</li>
+ * </ul>
+ * 쓰기는 하나의 잠금으로 직렬화하고, 번호 페이지 / 검색은 읽기 잠금 아래에서 전체 수와 행이 같은 시점을 보도록 한다.
+ */
+public class MemoryQuoteRepository implements QuoteRepository {
+
+    private static final int PAGE_CNT = 20;
+    private static final Path BUILD_DIR = Path.of("db", "wiseSaying");
+
+    // id 내림차순
+    private final ConcurrentSkipListMap<Long, Quote> store = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final IdRank ranks = new IdRank();
+    private final QuoteSearchIndex searchIndex = new QuoteSearchIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // 쓰기 잠금 아래에서만 바뀐다. ConcurrentSkipListMap.size() 는 O(n) 이므로 따로 센다
+    private volatile int size;
+    private long sequence;
+
+    public MemoryQuoteRepository() {
+        // 빈 상태에서 시작하므로 색인은 바로 검색 가능하다
+        searchIndex.beginBuild();
+        searchIndex.completeBuild(List.of());
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        lock.writeLock().lock();
+        try {
+            quote.setId(++sequence);
+            put(quote);
+            return quote;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        if(batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+
+        //묶음 단위로 쓰기 잠금을 잡아, 대량 등록 도중에도 조회가 오래 막히지 않게 한다
+        long created = 0;
+        Iterator<Quote> iterator = quotes.iterator();
+        while(iterator.hasNext()) {
+            lock.writeLock().lock();
+            try {
+                for(int i = 0; i < batchSize && iterator.hasNext(); i++) {
+                    Quote quote = iterator.next();
+                    quote.setId(++sequence);
+                    put(quote);
+                    created++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public List<Quote> findAll() {
+        List<Quote> quotes = new ArrayList<>(size);
+        scanAll(quotes::add);
+        return quotes;
+    }
+
+    @Override
+    public void scanAll(Consumer<Quote> consumer) {
+        // RDB 의 ORDER BY quote_id 와 같은 오름차순
+        for(Quote quote : store.descendingMap().values()) {
+            consumer.accept(copy(quote));
+        }
+    }
+
+    @Override
+    public Optional<Quote> find(Long id) {
+        return Optional.ofNullable(store.get(id)).map(MemoryQuoteRepository::copy);
+    }
+
+    @Override
+    public void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            if(store.remove(id) == null) {
+                throw new IllegalArgumentException("unknown id, nothing to delete");
+            }
+            ranks.remove(id);
+            size--;
+            searchIndex.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        lock.writeLock().lock();
+        try {
+            if(store.replace(id, new Quote(id, word, author)) == null) {
+                throw new IllegalArgumentException("unknown id, nothing to update");
+            }
+            searchIndex.add(id, word, author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void build() {
+        try {
+            FileUtils.writeBuildFiles(BUILD_DIR, this::scanAll);
+        } catch (IOException | RuntimeException ignore) {
+        }
+    }
+
+    @Override
+    public boolean processLocal() {
+        return true;
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuote(int page) {
+        lock.readLock().lock();
+        try {
+            int maxPage = maxPage(size);
+            int currentPage = clampPage(page, maxPage);
+            long offset = (long) PAGE_CNT * (currentPage - 1);
+
+            List<Quote> quotes = new ArrayList<>(PAGE_CNT);
+            if(offset < size) {
+                //내림차순 offset 번째 = 오름차순 (size - offset) 번째
+                long startId = ranks.select((int) (size - offset));
+                take(store.tailMap(startId, true), PAGE_CNT, quotes);
+            }
+            return withCursors(maxPage, currentPage, quotes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 번호로 조회한 페이지에 앞 / 뒤 페이지 커서를 붙인다
+    private static PagedQuoteDto withCursors(int maxPage, int currentPage, List<Quote> quotes) {
+        String prevCursor = currentPage > 1 && !quotes.isEmpty()
+                ? PageCursor.prev(quotes.get(0).getId()).encode() : null;
+        String nextCursor = currentPage < maxPage && !quotes.isEmpty()
+                ? PageCursor.next(quotes.get(quotes.size() - 1).getId()).encode() : null;
+        return new PagedQuoteDto(maxPage, currentPage, quotes, prevCursor, nextCursor);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        if(cursor == null || cursor.isBlank()) return findPagedQuote(1);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        //기준 id 에서 바로 시작하고, 다음 페이지 존재 여부 확인을 위해 한 건 더 읽는다
+        boolean forward = pageCursor.direction() == PageCursor.Direction.NEXT;
+        NavigableMap<Long, Quote> range = forward
+                ? store.tailMap(pageCursor.id(), false)                   // 더 작은 id, 내림차순
+                : store.headMap(pageCursor.id(), false).descendingMap();  // 더 큰 id, 오름차순
+
+        List<Quote> quotes = new ArrayList<>(PAGE_CNT + 1);
+        take(range, PAGE_CNT + 1, quotes);
+        boolean hasMore = quotes.size() > PAGE_CNT;
+        if(hasMore) quotes.remove(quotes.size() - 1);
+        if(!forward) Collections.reverse(quotes);
+
+        String prevCursor = null;
+        String nextCursor = null;
+        if(!quotes.isEmpty()) {
+            long first = quotes.get(0).getId();
+            long last = quotes.get(quotes.size() - 1).getId();
+            // 커서를 따라온 방향의 반대편은 항상 존재한다
+            prevCursor = !forward && !hasMore ? null : PageCursor.prev(first).encode();
+            nextCursor = forward && !hasMore ? null : PageCursor.next(last).encode();
+        }
+        return new PagedQuoteDto(maxPage(size), 0, quotes, prevCursor, nextCursor);
+    }
+
+    @Override
+    public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        lock.readLock().lock();
+        try {
+            QuoteSearchIndex.Hits hits = searchIndex.search(type, keyword);
+
+            int maxPage = maxPage(hits.total());
+            int currentPage = clampPage(page, maxPage);
+            List<Quote> quotes = new ArrayList<>(PAGE_CNT);
+            for(Long id : hits.page((long) PAGE_CNT * (currentPage - 1), PAGE_CNT)) {
+                quotes.add(copy(store.get(id)));
+            }
+            return new PagedQuoteDto(maxPage, currentPage, quotes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 쓰기 잠금 아래에서 호출. 호출자가 넘긴 엔티티는 이후에 바뀔 수 있으므로 복사본을 보관한다
+    private void put(Quote quote) {
+        store.put(quote.getId(), copy(quote));
+        ranks.add(quote.getId());
+        size++;
+        searchIndex.add(quote.getId(), quote.getQuote(), quote.getAuthor());
+    }
+
+    private static void take(NavigableMap<Long, Quote> range, int limit, List<Quote> into) {
+        for(Quote quote : range.values()) {
+            if(into.size() == limit) break;
+            into.add(copy(quote));
+        }
+    }
+
+    private static Quote copy(Quote quote) {
+        return new Quote(quote.getId(), quote.getQuote(), quote.getAuthor());
+    }
+
+    // 전체 레코드 수로부터 페이지 수 계산 (레코드가 없어도 1페이지)
+    private static int maxPage(long total) {
+        return (int) Math.max(1, (total + PAGE_CNT - 1) / PAGE_CNT);
+    }
+
+    // 요청 페이지를 [1, maxPage] 범위로 제한
+    private static int clampPage(int page, int maxPage) {
+        return Math.min(Math.max(page, 1), maxPage);
+    }
+}
@@ -0,0 +1,211 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.SearchQuoteRequest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 메타데이터(전체 페이지 수)를 위한 레코드 수 캐시.
+ * <p>
+ * 전체 레코드 수는 한 번 읽어온 뒤 create / delete 시점에 제자리에서 증감시키고,
+ * 검색 결과 수는 (검색 타입, 키워드) 별로 메모이즈하되 쓰기가 발생하면 모두 무효화한다.
+ * 조회(loader) 도중 쓰기가 끼어든 경우 그 결과는 캐시에 저장하지 않는다.
+ * <p>
+ * 쓰기는 문장을 실행하기 전에 {@link #beginWrite()}, 끝나면 성공 여부와 관계없이 {@link #endWrite()} 를 호출한다.
+ * 자동 커밋 쓰기는 문장이 끝나는 순간 보이므로, onCreate 등을 호출하기 전에 시작한 조회가 새 행을 세고 저장한 뒤
+ * 다시 증감되는 일을 막기 위해 진행 중인 쓰기가 있는 동안 읽은 값은 저장하지 않는다.
+ * <p>
+ * 다른 프로세스의 쓰기는 알 수 없으므로, 읽어온 지 {@code maxAge} 가 지난 값은 버리고 다시 읽는다.
+ */
+public class QuoteCountCache {
+
+    /**
+     * 캐시한 값을 다시 읽기까지의 기본 시간
+     */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofSeconds(60);
+
+    // 키워드 종류가 무한히 늘어나는 것을 막기 위한 상한
+    private static final int MAX_SEARCH_ENTRIES = 1024;
+
+    /**
+     * 캐시 적중 통계
+     * @param hits 적중 횟수
+     * @param misses 미적중(실제 COUNT 실행) 횟수
+     * @param invalidations 검색 결과 수 무효화 횟수
+     */
+    public record Stats(long hits, long misses, long invalidations) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record SearchKey(SearchQuoteRequest.SearchType type, String keyword) { }
+
+    // 캐시한 수와 DB 에서 읽어온 시각. 증감해도 읽어온 시각은 그대로 둔다
+    private record Count(long value, long loadedAt) { }
+
+    // 읽기 시점과 loader 실행 전후 확인
+    private record Ticket(long version, boolean quiet) { }
+
+    private final long maxAgeNanos;
+
+    // 아래 필드는 모두 this 로 잠근다. 적중 경로도 짧은 잠금만 잡는다
+    private Count total;
+    private final Map<SearchKey, Count> searchCounts = new HashMap<>();
+    // 쓰기마다 증가. loader 실행 전후로 비교하여 오래된 결과가 저장되는 것을 막는다.
+    private long version;
+    // beginWrite ~ endWrite 사이에 있는 쓰기 수
+    private long writing;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QuoteCountCache() {
+        this(DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param maxAge 캐시한 값을 다시 읽기까지의 시간
+     */
+    public QuoteCountCache(Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * 전체 레코드 수를 반환한다. 캐시에 없거나 오래되었으면 loader 로 읽어온다.
+     * @param loader 실제 COUNT 쿼리
+     * @return 전체 레코드 수
+     */
+    public long total(LongSupplier loader) {
+        Ticket ticket;
+        synchronized (this) {
+            if(fresh(total)) {
+                hits.increment();
+                return total.value();
+            }
+            ticket = ticket();
+        }
+        misses.increment();
+        long loadedAt = System.nanoTime();
+        long loaded = loader.getAsLong();
+        synchronized (this) {
+            if(loaded >= 0 && unchanged(ticket)) total = new Count(loaded, loadedAt);
+        }
+        return loaded;
+    }
+
+    /**
+     * 검색 결과 수를 반환한다. 캐시에 없거나 오래되었으면 loader 로 읽어온다.
+     * @param type 검색 타입
+     * @param keyword 검색어
+     * @param loader 실제 COUNT ... LIKE 쿼리
+     * @return 검색 결과 수
+     */
+    public long search(SearchQuoteRequest.SearchType type, String keyword, LongSupplier loader) {
+        SearchKey key = new SearchKey(type, keyword);
+        Ticket ticket;
+        synchronized (this) {
+            Count cached = searchCounts.get(key);
+            if(fresh(cached)) {
+                hits.increment();
+                return cached.value();
+            }
+            ticket = ticket();
+        }
+        misses.increment();
+        long loadedAt = System.nanoTime();
+        long loaded = loader.getAsLong();
+        synchronized (this) {
+            if(loaded >= 0 && unchanged(ticket)) {
+                if(searchCounts.size() >= MAX_SEARCH_ENTRIES) searchCounts.clear();
+                searchCounts.put(key, new Count(loaded, loadedAt));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 쓰기 문장을 실행하기 전에 호출한다. {@link #endWrite()} 까지 읽은 수는 캐시에 저장하지 않는다.
+     */
+    public synchronized void beginWrite() {
+        writing++;
+        version++;
+    }
+
+    /**
+     * {@link #beginWrite()} 로 시작한 쓰기가 끝났을 때 호출한다. 실패한 경우에도 호출해야 한다.
+     */
+    public synchronized void endWrite() {
+        version++;
+        writing--;
+    }
+
+    /**
+     * 레코드가 추가되었음을 반영한다.
+     * @param count 추가된 레코드 수
+     */
+    public synchronized void onCreate(long count) {
+        version++;
+        if(total != null) total = new Count(total.value() + count, total.loadedAt());
+        invalidateSearch();
+    }
+
+    /**
+     * 레코드가 하나 삭제되었음을 반영한다.
+     */
+    public synchronized void onDelete() {
+        version++;
+        if(total != null) total = new Count(Math.max(0, total.value() - 1), total.loadedAt());
+        invalidateSearch();
+    }
+
+    /**
+     * 레코드 내용이 바뀌었음을 반영한다. 전체 수는 그대로이므로 검색 결과 수만 무효화한다.
+     */
+    public synchronized void onUpdate() {
+        version++;
+        invalidateSearch();
+    }
+
+    /**
+     * 모든 캐시를 비운다. 외부에서 테이블이 변경된 경우 사용한다.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        total = null;
+        invalidateSearch();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), invalidations.sum());
+    }
+
+    // this 잠금 안에서 호출
+    private boolean fresh(Count count) {
+        return count != null && System.nanoTime() - count.loadedAt() < maxAgeNanos;
+    }
+
+    // this 잠금 안에서 호출
+    private Ticket ticket() {
+        return new Ticket(version, writing == 0);
+    }
+
+    // this 잠금 안에서 호출. 읽기 시작 때 진행 중인 쓰기가 없었고, 그 뒤로 시작 / 끝난 쓰기도 없어야 저장한다
+    private boolean unchanged(Ticket ticket) {
+        return ticket.quiet() && writing == 0 && version == ticket.version();
+    }
+
+    // this 잠금 안에서 호출
+    private void invalidateSearch() {
+        if(!searchCounts.isEmpty()) {
+            searchCounts.clear();
+            invalidations.increment();
+        }
+    }
+}
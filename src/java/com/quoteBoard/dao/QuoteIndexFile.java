@@ -0,0 +1,131 @@
+package com.quoteBoard.dao;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 파일 저장소의 정렬된 id 색인과 검색 색인을 로그 옆({@value #FILE_NAME})에 저장하고 읽는다.
+ * <pre>
+ * "QIDX"(4) | version(int) | end(long) | tailCrc(int)     -- 색인이 반영한 로그 시점
+ * idCount(int) | id(long)*                               -- 오름차순
+ * 검색 색인                                               -- {@link QuoteSearchIndex#writeTo}
+ * crc32(long)                                            -- 앞의 모든 바이트
+ * </pre>
+ * 다시 열 때 기록된 시점이 로그에 이어지면 그 뒤의 레코드만 반영하면 되므로, 전체를 다시 정렬 / 토큰화하지 않는다.
+ */
+final class QuoteIndexFile {
+
+    static final String FILE_NAME = "quotes.idx";
+
+    private static final byte[] MAGIC = {'Q', 'I', 'D', 'X'};
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * 저장된 색인
+     * @param position 색인이 반영한 로그 시점
+     * @param ids 살아있는 id
+     * @param searchIndex 검색 색인
+     */
+    record Contents(QuoteLogStore.LogPosition position, IdRank ids, QuoteSearchIndex searchIndex) { }
+
+    private QuoteIndexFile() { }
+
+    /**
+     * @param dir 데이터 디렉터리
+     * @return 저장된 색인. 파일이 없거나 손상되었으면 null
+     */
+    static Contents read(Path dir) {
+        Path file = dir.resolve(FILE_NAME);
+        CheckedInputStream checked;
+        try (DataInputStream in = new DataInputStream(checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), new CRC32()))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if(!Arrays.equals(magic, MAGIC) || in.readInt() != VERSION) return null;
+            QuoteLogStore.LogPosition position = new QuoteLogStore.LogPosition(in.readLong(), in.readInt());
+
+            IdRank ids = new IdRank();
+            int count = in.readInt();
+            for(int i = 0; i < count; i++) {
+                ids.add(in.readLong());
+            }
+            QuoteSearchIndex searchIndex = QuoteSearchIndex.readFrom(in);
+
+            long expected = checked.getChecksum().getValue();
+            if(in.readLong() != expected) return null;
+            return new Contents(position, ids, searchIndex);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // 쓰다가 멈춘 파일 등은 무시하고 로그에서 다시 만든다
+            return null;
+        }
+    }
+
+    /**
+     * 색인을 파일 형식 그대로 메모리에 직렬화한다. 호출자는 색인이 바뀌지 않도록 잠근 상태여야 하며,
+     * 디스크 쓰기와 fsync 는 {@link #write(Path, byte[])} 에서 잠금 밖에서 한다.
+     * @param position 색인이 반영한 로그 시점
+     * @param ids 살아있는 id
+     * @param searchIndex 검색 색인
+     * @return 파일 내용
+     */
+    static byte[] encode(QuoteLogStore.LogPosition position, IdRank ids, QuoteSearchIndex searchIndex) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+        DataOutputStream out = new DataOutputStream(checked);
+        try {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(position.end());
+            out.writeInt(position.tailCrc());
+
+            out.writeInt(ids.size());
+            for(long id = ids.next(0); id > 0; id = ids.next(id)) {
+                out.writeLong(id);
+            }
+            searchIndex.writeTo(out);
+
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+        } catch (IOException e) {
+            // 메모리에 쓰므로 일어나지 않는다
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * {@link #encode} 로 만든 내용을 임시 파일에 기록한 뒤 원자적으로 교체한다.
+     * 같은 디렉터리를 쓰는 다른 프로세스와 겹쳐도 어느 한 쪽의 온전한 파일이 남는다.
+     * @param dir 데이터 디렉터리
+     * @param contents 파일 내용
+     * @throws IOException 쓰기 오류
+     */
+    static void write(Path dir, byte[] contents) throws IOException {
+        Path tmp = Files.createTempFile(dir, FILE_NAME + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(contents);
+                while(buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, dir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,893 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.InterProcessLock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 명언을 하나의 append-only 세그먼트 파일에 저장하는 저장 엔진.
+ * <p>
+ * 파일 구조:
+ * <pre>
+ * header : "QLOG"(4) | version(int)
+ * record : length(int) | crc32(int) | op(byte) | id(long) | payload
+ *          payload(PUT) = contentLength(int) | content(UTF-8) | authorLength(int) | author(UTF-8)
+ *          payload(DELETE) = 없음 (tombstone)
+ * </pre>
+ * length 는 length 필드 자신을 제외한 레코드 크기이며, crc32 는 op 부터 payload 끝까지에 대한 값이다.
+ * <ul>
+ *     <li>메모리의 id → offset 색인으로 단건 조회 시 해당 레코드만 읽는다.</li>
+ *     <li>읽기는 파일 전체를 매핑한 {@link MappedByteBuffer} 에서 레코드를 바로 디코딩한다.</li>
+ *     <li>수정은 새 레코드를 덧붙이고, 삭제는 tombstone 을 덧붙인다.</li>
+ *     <li>쓰기는 fsync 된 뒤에 완료된다. 동시에 들어온 쓰기들은 {@link GroupCommit} 으로 묶어 fsync 를 한 번만 호출한다.</li>
+ *     <li>덮어써진 레코드가 파일의 절반을 넘으면 백그라운드에서 살아있는 레코드만 새 파일로 옮긴다(compaction).</li>
+ *     <li>열 때 파일을 처음부터 다시 읽어(replay) 색인을 복원하며, 끝이 잘렸거나 crc 가 맞지 않는 레코드부터는 잘라낸다.</li>
+ * </ul>
+ * 같은 디렉터리를 여러 프로세스(혹은 한 JVM 의 여러 인스턴스)가 함께 열 수 있다.
+ * 쓰기는 잠금 파일({@value #LOCK_FILE_NAME})을 잡은 상태에서, 다른 쪽이 덧붙인 레코드를 먼저 색인에 반영(catch-up)한 뒤
+ * 실제 파일 끝에 기록한다. 다른 쪽이 compaction 으로 파일을 교체했으면 새 파일을 다시 연다.
+ * 읽기는 최대 {@code READ_SYNC_INTERVAL} 간격으로 같은 확인을 하므로, 다른 프로세스의 쓰기는 그만큼 늦게 보일 수 있다.
+ * <p>
+ * 정렬된 id / 검색 색인처럼 이 저장소 밖에서 유지하는 색인은 {@link ChangeListener} 로 변경을 받고,
+ * {@link #position} 으로 얻은 시점({@link LogPosition})부터 {@link #listen} 으로 이어 받을 수 있다.
+ */
+public class QuoteLogStore implements Closeable {
+
+    public static final String FILE_NAME = "quotes.log";
+    public static final String LOCK_FILE_NAME = "quotes.lock";
+
+    private static final byte[] MAGIC = {'Q', 'L', 'O', 'G'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + Integer.BYTES;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    // 기록되지 않는 내부 연산. 존재 확인 후 PUT 으로 기록한다
+    private static final byte OP_REPLACE = 3;
+    // length 이후 고정 필드 : crc(4) + op(1) + id(8)
+    private static final int RECORD_FIXED = Integer.BYTES + 1 + Long.BYTES;
+
+    // 쓰레기 비율이 이 값을 넘고, 쓰레기 크기가 최소값 이상일 때 compaction
+    private static final double COMPACT_GARBAGE_RATIO = 0.5;
+    private static final long COMPACT_MIN_GARBAGE_BYTES = 1L << 20;
+    // 읽기 경로에서 다른 프로세스의 변경을 확인하는 최소 간격
+    private static final long READ_SYNC_INTERVAL_NANOS = 100_000_000L;
+    // 쓰기는 이 시간 혹은 이 건수만큼 모아서 한 번에 fsync 한 뒤 완료된다
+    private static final long GROUP_COMMIT_WINDOW_MILLIS = 1;
+    private static final int GROUP_COMMIT_MAX_RECORDS = 256;
+    // LogPosition 의 crc 를 계산하는 파일 끝 구간 크기
+    private static final int TAIL_BYTES = 64;
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "quote-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 색인이 바뀔 때마다 호출되는 함수. 이 인스턴스의 쓰기와, 다른 프로세스가 덧붙인 레코드를 반영할 때 모두 호출된다.
+     * 저장소의 잠금을 잡은 상태에서 호출되므로 저장소의 메서드를 다시 호출하면 안 된다.
+     */
+    public interface ChangeListener {
+        /**
+         * 명언이 추가되거나 수정되었다. quote 는 읽기만 해야 한다.
+         */
+        void put(Quote quote);
+
+        /**
+         * 명언이 삭제되었다. 이미 삭제된 id 일 수 있다.
+         */
+        void delete(long id);
+
+        /**
+         * 색인 전체가 바뀌었다. (등록 시 따라잡을 수 없는 경우, 다른 프로세스의 compaction 으로 파일을 다시 연 경우)
+         * @param all 살아있는 명언 전체를 전달하는 함수. 이 호출 안에서만 사용할 수 있다.
+         */
+        void reload(Consumer<Consumer<Quote>> all);
+    }
+
+    /**
+     * 로그의 한 시점. 이 시점까지 반영해 저장한 외부 색인이 지금 파일에 이어지는지 확인하는 데 쓴다.
+     * compaction 으로 파일이 바뀌면 같은 위치의 내용이 달라지므로 맞지 않게 된다.
+     * @param end 파일 끝 위치
+     * @param tailCrc end 바로 앞 구간(최대 64 바이트, 헤더 제외)의 crc32
+     */
+    public record LogPosition(long end, int tailCrc) { }
+
+    private final Path file;
+    private final boolean created;
+    // 프로세스 사이의 쓰기 / 파일 교체 직렬화
+    private final InterProcessLock fileLock;
+
+    // 파일 교체(compaction)와 읽기/쓰기 사이의 배타 제어. 교체 시에만 write lock 을 잡는다.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // 덧붙이기(append) 직렬화
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final GroupCommit commit = new GroupCommit(this::force, GROUP_COMMIT_WINDOW_MILLIS, GROUP_COMMIT_MAX_RECORDS);
+
+    private FileChannel channel;
+    // 읽기 경로에서 사용하는 매핑. 파일이 커지거나 교체되면 다시 만든다.
+    private volatile MappedByteBuffer mapping;
+    private final Object mappingLock = new Object();
+    private volatile Map<Long, Long> index = new ConcurrentHashMap<>();
+    private long end;
+    private long garbageBytes;
+    private volatile long maxId;
+    // 열어 둔 파일의 식별자(inode). 경로의 파일과 다르면 다른 프로세스가 교체한 것
+    private volatile Object fileKey;
+    // 파일을 바꿔 열 때마다 증가. 닫힌 파일의 inode 번호는 재사용될 수 있어 compaction 시작 시점 비교에는 이 값을 쓴다
+    private volatile long generation;
+    private volatile long lastReadSync = System.nanoTime();
+    private volatile ChangeListener listener;
+
+    private QuoteLogStore(Path file, boolean created) {
+        this.file = file;
+        this.created = created;
+        this.fileLock = InterProcessLock.of(file.resolveSibling(LOCK_FILE_NAME));
+    }
+
+    /**
+     * 디렉터리의 로그 파일을 열거나, 없으면 새로 만든다.
+     * @param dir 데이터 디렉터리
+     * @return 열린 저장소
+     * @throws IOException 파일을 열 수 없거나 형식이 올바르지 않은 경우
+     */
+    public static QuoteLogStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(FILE_NAME);
+        boolean created = Files.notExists(file);
+
+        QuoteLogStore store = new QuoteLogStore(file, created);
+        store.fileLock.call(() -> {
+            store.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            store.fileKey = store.currentFileKey();
+            if(store.channel.size() == 0) {
+                store.writeHeader(store.channel);
+                store.channel.force(true);
+                store.end = HEADER_SIZE;
+            } else {
+                store.readHeader();
+                store.scan(HEADER_SIZE, true, null);
+            }
+            return null;
+        });
+        return store;
+    }
+
+    /**
+     * @return 이번에 파일을 새로 만들었는지 여부 (기존 데이터 가져오기 판단용)
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    /**
+     * @return 저장된 명언 수
+     */
+    public int size() {
+        syncForRead();
+        return index.size();
+    }
+
+    /**
+     * @return 지금까지 기록된 가장 큰 id (삭제된 것 포함). 없으면 0
+     */
+    public long maxId() {
+        syncForRead();
+        return maxId;
+    }
+
+    public boolean contains(long id) {
+        syncForRead();
+        return index.containsKey(id);
+    }
+
+    /**
+     * 명언을 저장한다. 같은 id 가 있으면 덮어쓴다.
+     * @param quote id 가 할당된 명언
+     */
+    public void put(Quote quote) {
+        append(OP_PUT, quote.getId(), quote);
+    }
+
+    /**
+     * 여러 명언을 한 번의 쓰기로 저장한다. 같은 id 가 있으면 덮어쓴다.
+     * @param quotes id 가 할당된 명언들
+     */
+    public void putAll(List<Quote> quotes) {
+        if(quotes.isEmpty()) return;
+        List<ByteBuffer> records = new ArrayList<>(quotes.size());
+        int total = 0;
+        for(Quote quote : quotes) {
+            ByteBuffer record = encode(OP_PUT, quote.getId(), encodePayload(quote));
+            records.add(record);
+            total += record.remaining();
+        }
+        ByteBuffer batch = ByteBuffer.allocate(total);
+        records.forEach(batch::put);
+        batch.flip();
+
+        exclusive(() -> {
+            long offset = end;
+            writeFully(channel, batch, offset);
+            for(int i = 0; i < quotes.size(); i++) {
+                long id = quotes.get(i).getId();
+                Long previous = index.put(id, offset);
+                if(previous != null) garbageBytes += recordSizeAt(channel, previous);
+                maxId = Math.max(maxId, id);
+                offset += records.get(i).capacity();
+            }
+            end = offset;
+
+            ChangeListener target = listener;
+            if(target != null) quotes.forEach(target::put);
+        });
+    }
+
+    /**
+     * 명언을 삭제한다(tombstone 기록).
+     * @param id 삭제할 id
+     * @throws IllegalArgumentException 존재하지 않는 id 인 경우
+     */
+    public void delete(long id) {
+        append(OP_DELETE, id, null);
+    }
+
+    /**
+     * 이미 있는 명언을 새 내용으로 바꾼다. 존재 확인과 기록이 한 잠금 구간에서 일어나므로,
+     * 다른 스레드나 프로세스가 그 사이 삭제한 명언을 되살리지 않는다.
+     * @param quote 바꿀 명언
+     * @throws IllegalArgumentException 존재하지 않는 id 인 경우
+     */
+    public void replace(Quote quote) {
+        append(OP_REPLACE, quote.getId(), quote);
+    }
+
+    /**
+     * 매핑된 영역에서 레코드를 바로 디코딩하여 반환한다.
+     * @param id 조회할 id
+     * @return 저장된 명언
+     */
+    public Optional<Quote> get(long id) {
+        syncForRead();
+        swapLock.readLock().lock();
+        try {
+            Long offset = index.get(id);
+            if(offset == null) return Optional.empty();
+            // length 를 먼저 읽고, 레코드 끝까지 매핑되어 있는지 확인
+            ByteBuffer mapped = mapped(offset + Integer.BYTES);
+            if(mapped != null) mapped = mapped(offset + Integer.BYTES + mapped.getInt((int) (long) offset));
+            if(mapped == null) return Optional.of(readRecord(channel, offset));
+            return Optional.of(decode(mapped, (int) (long) offset));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 살아있는 명언을 파일에 기록된 순서대로 하나씩 전달한다.
+     * 매핑된 영역을 앞에서부터 훑으므로 레코드별 파일 접근이나 전체 목록 적재가 없다.
+     * 순회하는 동안 compaction 에 의한 파일 교체는 대기한다.
+     * @param consumer 명언을 받을 함수
+     */
+    public void forEach(Consumer<Quote> consumer) {
+        syncForRead();
+        swapLock.readLock().lock();
+        try {
+            forEachLive(consumer);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // swapLock 을 (read 든 write 든) 잡은 상태에서 호출한다
+    private void forEachLive(Consumer<Quote> consumer) {
+        try {
+            long limit;
+            appendLock.lock();
+            try {
+                limit = end;
+            } finally {
+                appendLock.unlock();
+            }
+
+            ByteBuffer mapped = mapped(limit);
+            if(mapped == null) {
+                // 매핑할 수 없는 크기(2GB 초과)면 색인 순서로 읽는다
+                for(Long offset : new ArrayList<>(index.values())) {
+                    consumer.accept(readRecord(channel, offset));
+                }
+                return;
+            }
+
+            // 순회 도중 수정 / 삭제되어 색인이 limit 이후를 가리키게 된(혹은 사라진) id 의, limit 이전 마지막 PUT 위치.
+            // limit 시점에는 그 레코드가 살아있었으므로 순회가 끝난 뒤 전달한다
+            Map<Long, Integer> moved = new HashMap<>();
+            int position = HEADER_SIZE;
+            while(position < limit) {
+                int size = Integer.BYTES + mapped.getInt(position);
+                byte op = mapped.get(position + Integer.BYTES * 2);
+                long id = mapped.getLong(position + Integer.BYTES * 2 + 1);
+                Long current = index.get(id);
+                if(current != null && current == position) {
+                    // 같은 id 의 이후 레코드로 대체되지 않은 PUT
+                    consumer.accept(decode(mapped, position));
+                } else if(current == null || current >= limit) {
+                    if(op == OP_PUT) moved.put(id, position);
+                    else moved.remove(id);
+                }
+                position += size;
+            }
+            moved.values().stream().sorted().forEach(offset -> consumer.accept(decode(mapped, offset)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 저장된 모든 명언을 id 오름차순으로 반환한다.
+     * @return 명언 리스트
+     */
+    public List<Quote> readAll() {
+        List<Quote> quotes = new ArrayList<>(index.size());
+        forEach(quotes::add);
+        quotes.sort(Comparator.comparing(Quote::getId));
+        return quotes;
+    }
+
+    /**
+     * 다른 프로세스의 변경을 확인할 때가 되었으면 반영한다. 외부 색인을 읽기 전에 호출한다.
+     */
+    public void refresh() {
+        syncForRead();
+    }
+
+    /**
+     * 변경 알림을 받을 함수를 등록하고, 외부 색인이 지금 상태를 따라잡도록 그동안의 변경을 전달한다.
+     * <ul>
+     *     <li>from 이 지금 파일에 이어지면 그 뒤에 기록된 레코드만 순서대로 put / delete 로 전달한다.</li>
+     *     <li>from 이 null 이거나 이어지지 않으면(그 사이 compaction 등) reload 로 전체를 전달한다.</li>
+     * </ul>
+     * 따라잡기와 등록은 쓰기를 막은 상태에서 일어나므로 그 사이의 변경을 놓치지 않는다.
+     * @param listener 등록할 함수
+     * @param from 외부 색인을 저장한 시점. 없으면 null
+     * @return from 부터 이어 받았으면 true, 전체를 다시 받았으면 false
+     */
+    public boolean listen(ChangeListener listener, LogPosition from) {
+        syncForRead();
+        swapLock.readLock().lock();
+        appendLock.lock();
+        try {
+            boolean incremental = from != null && continues(from);
+            if(incremental) {
+                replay(from.end(), listener);
+            } else {
+                listener.reload(this::forEachLive);
+            }
+            this.listener = listener;
+            return incremental;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 지금 시점을 반환한다. 이 시점까지의 변경은 모두 {@link ChangeListener} 에 전달된 상태다.
+     * 외부 색인은 이 값을 얻은 뒤 자기 내용을 저장하면 되며, 색인이 이 시점보다 앞서 있어도
+     * 다시 열 때 그 뒤의 변경을 한 번 더 받을 뿐이다. (변경은 여러 번 반영해도 결과가 같다)
+     * @return 지금 시점
+     * @throws IOException 로그를 읽지 못한 경우
+     */
+    public LogPosition position() throws IOException {
+        swapLock.readLock().lock();
+        appendLock.lock();
+        try {
+            return new LogPosition(end, tailCrc(end));
+        } finally {
+            appendLock.unlock();
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        swapLock.writeLock().lock();
+        try {
+            mapping = null;
+            if(channel.isOpen()) channel.force(false);
+            channel.close();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // op 가 OP_REPLACE 이면 존재를 확인한 뒤 PUT 레코드로 기록한다. 삭제는 quote 가 null
+    private void append(byte op, long id, Quote quote) {
+        byte recordOp = op == OP_DELETE ? OP_DELETE : OP_PUT;
+        ByteBuffer record = encode(recordOp, id, quote == null ? ByteBuffer.allocate(0) : encodePayload(quote));
+        int recordSize = record.remaining();
+
+        exclusive(() -> {
+            if(op == OP_DELETE && !index.containsKey(id)) {
+                throw new IllegalArgumentException("unknown id, nothing to delete");
+            }
+            if(op == OP_REPLACE && !index.containsKey(id)) {
+                throw new IllegalArgumentException("unknown id, nothing to update");
+            }
+            long offset = end;
+            writeFully(channel, record, offset);
+            end += recordSize;
+            maxId = Math.max(maxId, id);
+
+            Long previous = recordOp == OP_PUT ? index.put(id, offset) : index.remove(id);
+            if(previous != null) garbageBytes += recordSizeAt(channel, previous);
+            if(recordOp == OP_DELETE) garbageBytes += recordSize;
+
+            ChangeListener target = listener;
+            if(target != null) {
+                if(recordOp == OP_PUT) target.put(quote);
+                else target.delete(id);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * 쓰기 잠금 구간에서 write 를 실행한다.
+     * 잠금 순서는 항상 swapLock(read) → appendLock → 파일 잠금이다.
+     * 파일 잠금을 잡은 뒤 다른 쪽이 덧붙인 레코드를 반영하므로 write 는 실제 파일 끝({@code end})에 기록하게 된다.
+     * 다른 프로세스가 파일을 교체했으면 잠금을 풀고 새 파일을 연 뒤 다시 시도한다.
+     * 기록한 뒤에는 잠금을 풀고 group commit 으로 디스크에 반영될 때까지 기다린다.
+     */
+    private void exclusive(Write write) {
+        commit.begin();
+        try {
+            while(true) {
+                boolean replaced;
+                swapLock.readLock().lock();
+                appendLock.lock();
+                try {
+                    replaced = fileLock.call(() -> {
+                        if(replaced()) return true;
+                        scan(end, true, listener);
+                        write.run();
+                        return false;
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    appendLock.unlock();
+                    swapLock.readLock().unlock();
+                }
+                if(!replaced) break;
+                reopen();
+            }
+        } catch (RuntimeException e) {
+            commit.abort();
+            throw e;
+        }
+        commit.await(commit.register());
+        maybeCompact();
+    }
+
+    // group commit 의 리더가 호출한다. 교체된 파일은 swap 에서 이미 디스크에 반영했으므로 현재 파일만 sync 하면 된다
+    private void force() throws IOException {
+        swapLock.readLock().lock();
+        try {
+            channel.force(false);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // 읽기 전에, 마지막 확인 이후 일정 시간이 지났으면 다른 프로세스의 변경을 반영한다
+    private void syncForRead() {
+        long now = System.nanoTime();
+        if(now - lastReadSync < READ_SYNC_INTERVAL_NANOS) return;
+        lastReadSync = now;
+
+        if(replaced()) {
+            reopen();
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            if(channel.size() <= end) return;
+            appendLock.lock();
+            try {
+                // 다른 프로세스가 기록 중인 레코드일 수 있으므로 잘라내지 않는다
+                scan(end, false, listener);
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // 다른 프로세스가 compaction 으로 교체한 파일을 다시 열고 색인을 새로 만든다
+    private void reopen() {
+        swapLock.writeLock().lock();
+        try {
+            if(!replaced()) return;
+            fileLock.call(() -> {
+                channel.close();
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                fileKey = currentFileKey();
+                generation++;
+                mapping = null;
+                index = new ConcurrentHashMap<>();
+                garbageBytes = 0;
+                readHeader();
+                scan(HEADER_SIZE, true, null);
+                ChangeListener target = listener;
+                if(target != null) target.reload(this::forEachLive);
+                return null;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private boolean replaced() {
+        Object current = currentFileKey();
+        return current != null && !current.equals(fileKey);
+    }
+
+    // 파일 식별자를 제공하지 않는 파일 시스템이면 null (교체 감지 불가)
+    private Object currentFileKey() {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        if(!Arrays.equals(magic, MAGIC) || header.getInt() != VERSION) {
+            throw new IOException("not a quote log file: " + file);
+        }
+    }
+
+    /**
+     * from 부터 파일 끝까지의 레코드를 색인에 반영하고 end 를 옮긴다.
+     * 열 때는 처음부터, 이후에는 다른 프로세스가 덧붙인 부분만 읽는다.
+     * @param truncate 끝이 잘렸거나 손상된 레코드를 잘라낼지 여부. 파일 잠금을 잡은 경우에만 true 로 호출한다.
+     * @param target 반영한 레코드를 전달할 함수. 없으면 null
+     */
+    private void scan(long from, boolean truncate, ChangeListener target) throws IOException {
+        long size = channel.size();
+        long offset = from;
+        ByteBuffer lengthBuf = ByteBuffer.allocate(Integer.BYTES);
+        while(offset + Integer.BYTES <= size) {
+            lengthBuf.clear();
+            readFully(channel, lengthBuf, offset);
+            int length = lengthBuf.flip().getInt();
+            if(length < RECORD_FIXED || offset + Integer.BYTES + length > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(channel, body, offset + Integer.BYTES);
+            body.flip();
+            int crc = body.getInt();
+            if(crc != crc(body, body.position(), body.remaining())) break;
+
+            byte op = body.get();
+            long id = body.getLong();
+            int recordSize = Integer.BYTES + length;
+            Long previous = op == OP_PUT ? index.put(id, offset) : index.remove(id);
+            if(previous != null) garbageBytes += recordSizeAt(channel, previous);
+            if(op == OP_DELETE) garbageBytes += recordSize;
+            maxId = Math.max(maxId, id);
+            offset += recordSize;
+            if(target != null) notify(target, op, id, body);
+        }
+        if(truncate && offset < size) channel.truncate(offset);
+        end = offset;
+    }
+
+    // 레코드 하나를 외부 색인에 전달. body 는 op / id 를 읽은 뒤 payload 앞에 있다
+    private static void notify(ChangeListener target, byte op, long id, ByteBuffer body) {
+        if(op == OP_PUT) {
+            String content = readString(body);
+            String author = readString(body);
+            target.put(new Quote(id, content, author));
+        } else {
+            target.delete(id);
+        }
+    }
+
+    // [from, end) 의 레코드를 순서대로 전달한다. 색인에는 이미 반영된 레코드들이다
+    private void replay(long from, ChangeListener target) throws IOException {
+        long offset = from;
+        while(offset < end) {
+            int size = recordSizeAt(channel, offset);
+            ByteBuffer body = ByteBuffer.allocate(size - Integer.BYTES);
+            readFully(channel, body, offset + Integer.BYTES);
+            body.flip().getInt();
+            byte op = body.get();
+            long id = body.getLong();
+            notify(target, op, id, body);
+            offset += size;
+        }
+    }
+
+    // position 이 지금 파일에 이어지는지 (같은 위치까지의 끝 구간 내용이 같은지)
+    private boolean continues(LogPosition position) throws IOException {
+        return position.end() >= HEADER_SIZE && position.end() <= end && tailCrc(position.end()) == position.tailCrc();
+    }
+
+    private int tailCrc(long until) throws IOException {
+        long from = Math.max(HEADER_SIZE, until - TAIL_BYTES);
+        ByteBuffer tail = ByteBuffer.allocate((int) (until - from));
+        readFully(channel, tail, from);
+        return crc(tail, 0, tail.capacity());
+    }
+
+    private void maybeCompact() {
+        long garbage = garbageBytes;
+        if(garbage < COMPACT_MIN_GARBAGE_BYTES || garbage < end * COMPACT_GARBAGE_RATIO) return;
+        if(!compacting.compareAndSet(false, true)) return;
+        COMPACTOR.execute(() -> {
+            try {
+                compact();
+            } catch (IOException ignore) {
+                // 다음 쓰기 때 다시 시도
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * 살아있는 레코드만 새 파일로 옮긴 뒤 원자적으로 교체한다.
+     * 복사 중에도 쓰기는 계속되며, 복사 시작 이후 덧붙은 레코드는 교체 직전에 그대로 이어 붙인다.
+     */
+    void compact() throws IOException {
+        // 여러 프로세스가 동시에 compaction 할 수 있으므로 임시 파일 이름이 겹치지 않게 한다
+        Path tmp = Files.createTempFile(file.getParent(), FILE_NAME + ".", ".compact");
+        Map<Long, Long> snapshot;
+        long snapshotEnd;
+        FileChannel source;
+        long sourceGeneration;
+        // 다시 열기(reopen)와 섞이지 않도록 swapLock 도 잡는다
+        swapLock.readLock().lock();
+        appendLock.lock();
+        try {
+            snapshot = new HashMap<>(index);
+            snapshotEnd = end;
+            source = channel;
+            sourceGeneration = generation;
+        } finally {
+            appendLock.unlock();
+            swapLock.readLock().unlock();
+        }
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writeHeader(out);
+            long position = HEADER_SIZE;
+            Map<Long, Long> compacted = new ConcurrentHashMap<>();
+
+            // 1) 스냅샷 시점의 살아있는 레코드 복사 (잠금 없음)
+            List<Long> offsets = new ArrayList<>(snapshot.values());
+            Collections.sort(offsets);
+            Map<Long, Long> idByOffset = new HashMap<>();
+            snapshot.forEach((id, offset) -> idByOffset.put(offset, id));
+            for(Long offset : offsets) {
+                int size = recordSizeAt(source, offset);
+                position += transfer(source, offset, size, out, position);
+                compacted.put(idByOffset.get(offset), position - size);
+            }
+
+            // 2) 그 사이 덧붙은 레코드를 이어 붙이고 파일 교체
+            swapLock.writeLock().lock();
+            try {
+                long copied = position;
+                fileLock.call(() -> {
+                    // 그 사이 다른 프로세스가 먼저 교체했다면(이미 다시 열었더라도) 이번 결과는 버린다
+                    if(replaced() || sourceGeneration != generation) return null;
+                    scan(end, true, listener);
+                    swap(tmp, out, compacted, snapshotEnd, copied);
+                    return null;
+                });
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // compaction 마무리: snapshotEnd 이후의 레코드를 out 에 이어 붙이고 파일을 교체한다 (swapLock write + 파일 잠금 상태)
+    private void swap(Path tmp, FileChannel out, Map<Long, Long> compacted, long snapshotEnd, long position) throws IOException {
+        long garbage = 0;
+        long offset = snapshotEnd;
+        while(offset < end) {
+            int size = recordSizeAt(channel, offset);
+            ByteBuffer fixed = ByteBuffer.allocate(RECORD_FIXED);
+            readFully(channel, fixed, offset + Integer.BYTES);
+            fixed.flip().getInt();
+            byte op = fixed.get();
+            long id = fixed.getLong();
+
+            transfer(channel, offset, size, out, position);
+            Long previous = op == OP_PUT ? compacted.put(id, position) : compacted.remove(id);
+            if(previous != null) garbage += recordSizeAt(out, previous);
+            if(op == OP_DELETE) garbage += size;
+            position += size;
+            offset += size;
+        }
+        out.force(true);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileKey = currentFileKey();
+        generation++;
+        mapping = null;
+        index = compacted;
+        end = position;
+        garbageBytes = garbage;
+    }
+
+    private void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).putInt(VERSION).flip();
+        writeFully(target, header, 0);
+    }
+
+    private static ByteBuffer encodePayload(Quote quote) {
+        byte[] content = quote.getQuote().getBytes(StandardCharsets.UTF_8);
+        byte[] author = quote.getAuthor().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES * 2 + content.length + author.length);
+        payload.putInt(content.length).put(content).putInt(author.length).put(author).flip();
+        return payload;
+    }
+
+    private static ByteBuffer encode(byte op, long id, ByteBuffer payload) {
+        int length = RECORD_FIXED + payload.remaining();
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+        record.putInt(length).putInt(0).put(op).putLong(id).put(payload);
+        int crcStart = Integer.BYTES * 2;
+        record.putInt(Integer.BYTES, crc(record, crcStart, record.position() - crcStart));
+        return record.flip();
+    }
+
+    /**
+     * [0, limit) 구간을 포함하는 읽기 전용 매핑을 반환한다. 파일이 커져 현재 매핑을 벗어나면 끝까지 다시 매핑한다.
+     * 레코드는 덧붙이기만 하므로 한 번 매핑된 영역의 내용은 바뀌지 않는다.
+     * @return 매핑, 파일이 매핑 가능한 크기(2GB)를 넘으면 null
+     */
+    private ByteBuffer mapped(long limit) throws IOException {
+        MappedByteBuffer current = mapping;
+        if(current != null && limit <= current.capacity()) return current;
+
+        synchronized (mappingLock) {
+            current = mapping;
+            if(current != null && limit <= current.capacity()) return current;
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE) return null;
+            current = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapping = current;
+            return current;
+        }
+    }
+
+    // 매핑된 영역의 position 에서 PUT 레코드를 디코딩
+    private static Quote decode(ByteBuffer mapped, int position) {
+        int cursor = position + Integer.BYTES * 2 + 1;
+        long id = mapped.getLong(cursor);
+        cursor += Long.BYTES;
+
+        int contentLength = mapped.getInt(cursor);
+        cursor += Integer.BYTES;
+        String content = decodeString(mapped, cursor, contentLength);
+        cursor += contentLength;
+
+        int authorLength = mapped.getInt(cursor);
+        cursor += Integer.BYTES;
+        String author = decodeString(mapped, cursor, authorLength);
+        return new Quote(id, content, author);
+    }
+
+    private static String decodeString(ByteBuffer mapped, int position, int length) {
+        byte[] bytes = new byte[length];
+        mapped.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Quote readRecord(FileChannel source, long offset) throws IOException {
+        int size = recordSizeAt(source, offset);
+        ByteBuffer record = ByteBuffer.allocate(size);
+        readFully(source, record, offset);
+        record.flip();
+        record.position(Integer.BYTES * 2 + 1);
+        long id = record.getLong();
+        String content = readString(record);
+        String author = readString(record);
+        return new Quote(id, content, author);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // length 필드를 포함한 레코드 전체 크기
+    private static int recordSizeAt(FileChannel source, long offset) throws IOException {
+        ByteBuffer lengthBuf = ByteBuffer.allocate(Integer.BYTES);
+        readFully(source, lengthBuf, offset);
+        return Integer.BYTES + lengthBuf.flip().getInt();
+    }
+
+    private static int crc(ByteBuffer buffer, int from, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + from, length);
+        return (int) crc.getValue();
+    }
+
+    private static long transfer(FileChannel source, long offset, int size, FileChannel target, long position) throws IOException {
+        long copied = 0;
+        while(copied < size) {
+            long n = source.transferTo(offset + copied, size - copied, target.position(position + copied));
+            if(n <= 0 && offset + copied >= source.size()) throw new IOException("unexpected end of quote log");
+            copied += n;
+        }
+        return copied;
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            int read = source.read(buffer, position + buffer.position());
+            if(read < 0) throw new IOException("unexpected end of quote log");
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            target.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -5,23 +5,57 @@ import com.quoteBoard.dto.PagedQuoteDto;
 import com.quoteBoard.dto.SearchQuoteRequest;
 import com.quoteBoard.entity.Quote;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface QuoteRepository {
 
+    /**
+     * 일괄 등록 시 한 번에 묶어 보내는 기본 건수
+     */
+    int DEFAULT_BATCH_SIZE = 1_000;
+
     /**
      * 명언 생성 메서드
      * @param quote 생성하고자 하는 명언에 대한 데이터
      */
     Quote create(Quote quote);
 
+    /**
+     * 명언을 일괄 생성합니다. {@link #DEFAULT_BATCH_SIZE} 건씩 묶어 저장합니다.
+     * @see #createAll(Iterable, int)
+     */
+    default long createAll(Iterable<Quote> quotes) {
+        return createAll(quotes, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 명언을 일괄 생성합니다. batchSize 건씩 묶어 한 번에 저장하며, 묶음 단위로 커밋됩니다.
+     * 입력을 순회하면서 저장하므로 Iterable 이 지연 생성되는 경우 전체를 메모리에 올리지 않습니다.
+     * 생성된 id 는 각 quote 에 할당됩니다.
+     * @param quotes 생성할 명언
+     * @param batchSize 묶음 크기
+     * @return 생성된 명언 수
+     * @throws IllegalStateException 저장 도중 실패한 경우. 이전 묶음까지는 저장된 상태로 남는다.
+     */
+    long createAll(Iterable<Quote> quotes, int batchSize);
+
     /**
      * 저장된 모든 명언 데이터를 반환합니다.
      * @return 저장된 명언 리스트 반환
      */
     List<Quote> findAll();
 
+    /**
+     * 저장된 모든 명언을 목록으로 모으지 않고 하나씩 전달합니다.
+     * 저장소 크기와 무관하게 메모리 사용량이 일정하며, 빌드/내보내기에 사용합니다.
+     * @param consumer 명언을 받을 함수
+     * @throws IllegalStateException 순회 도중 저장소를 읽지 못한 경우
+     */
+    void scanAll(Consumer<Quote> consumer);
+
     /**
      * id 에 기반하여 quote 를 검색합니다.
      * @param id 검색할 아이디
@@ -47,11 +81,44 @@ public interface QuoteRepository {
 
     /**
      * 저장된 파일들을 합치여 하나의 파일로 구성한다.
+     * 임시 파일에 스트리밍으로 기록한 뒤 data.json 위로 원자적으로 교체한다.
      */
     void build();
 
+    /**
+     * 저장소가 따로 유지하는 색인 등을 디스크에 남깁니다. {@link #build()} 가 함께 수행하며,
+     * build 를 거치지 않고 빌드 파일을 만드는 경우(증분 빌드 등) 따로 호출합니다. 기본 구현은 아무 일도 하지 않습니다.
+     * @throws IOException 기록하지 못한 경우
+     */
+    default void checkpoint() throws IOException {
+    }
+
+    /**
+     * 저장소의 내용을 이 프로세스만 바꿀 수 있는지 반환합니다.
+     * true 이면 이 프로세스에서 센 변경 횟수만으로 내용이 바뀌었는지 알 수 있습니다. (ETag 등)
+     * 기본값은 다른 프로세스도 같은 파일 / DB 를 쓸 수 있다고 보아 false 입니다.
+     * @return 이 프로세스 안에서만 바뀌는 저장소이면 true
+     */
+    default boolean processLocal() {
+        return false;
+    }
+
+    /**
+     * 페이지 번호로 명언 목록을 조회합니다. (quote_id 내림차순)
+     * 범위를 벗어난 페이지는 마지막 페이지로 제한됩니다.
+     * @param page 1부터 시작하는 페이지 번호
+     * @return 페이지 데이터. 이어서 조회할 수 있도록 이전/다음 커서를 함께 담는다.
+     */
     PagedQuoteDto findPagedQuote(int page);
 
+    /**
+     * 커서(키셋) 기반으로 명언 목록을 조회합니다. 페이지 깊이와 무관하게 한 페이지 분량만 읽습니다.
+     * @param cursor {@link PagedQuoteDto} 가 반환한 prev/next 커서. null 이면 첫 페이지
+     * @return 페이지 데이터. currentPage 는 0 (위치 미상)
+     * @throws IllegalArgumentException 커서 형식이 올바르지 않은 경우
+     */
+    PagedQuoteDto findPagedQuoteByCursor(String cursor);
+
     PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page);
 
 }
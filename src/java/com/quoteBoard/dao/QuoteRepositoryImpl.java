@@ -1,78 +1,439 @@
 package com.quoteBoard.dao;
 
+import com.quoteBoard.dto.PageCursor;
 import com.quoteBoard.dto.PagedQuoteDto;
 import com.quoteBoard.dto.SearchQuoteRequest;
 import com.quoteBoard.entity.Quote;
 import com.quoteBoard.utils.FileUtils;
 import com.quoteBoard.utils.JsonUtils;
+import com.quoteBoard.utils.LruCache;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * QuoteRepository 구현체
+ * QuoteRepository 구현체. 단일 append-only 로그 파일({@link QuoteLogStore})에 저장한다.
+ * <p>
+ * 여러 스레드에서 동시에 사용할 수 있고, 같은 디렉터리를 여러 프로세스가 함께 써도 된다.
+ * id 는 {@link IdAllocator} 가 구간 단위로 예약해 발급하며, 같은 id 에 대한 수정 / 삭제는 id 별 잠금으로 직렬화한다.
+ * <p>
+ * 목록과 검색은 로그의 변경 알림으로 유지하는 두 색인을 사용하며, 페이지에 필요한 레코드만 읽는다.
+ * 페이징 / 검색 의미는 {@link RDBQuoteRepositoryImpl} 과 같다.
+ * <ul>
+ *     <li>정렬된 id 색인({@link IdRank}) : 번호 페이지의 시작 id 를 O(log n) 에 찾고, 커서는 이웃한 id 를 바로 찾는다.</li>
+ *     <li>검색 색인({@link QuoteSearchIndex}) : content / author 의 n-gram 역색인</li>
+ *     <li>결과 캐시 : 페이지 / 커서 / 검색 결과를 색인 버전과 함께 보관하고, 색인이 바뀌면 버린다.</li>
+ * </ul>
+ * 두 색인은 {@value QuoteIndexFile#FILE_NAME} 에 저장해 두었다가({@link #build()}, 변경이 쌓일 때),
+ * 다시 열 때 저장 시점 이후의 레코드만 반영한다.
  */
 public class QuoteRepositoryImpl implements QuoteRepository {
 
-    private Long cnt = 1L;
+    private static final int LOCK_STRIPES = 64;
+    private static final int PAGE_CNT = 20;
+    private static final int RESULT_CACHE_CAPACITY = 1_000;
+    // 마지막으로 색인 파일을 저장한 뒤 이만큼 바뀌면 백그라운드에서 다시 저장한다
+    private static final long CHECKPOINT_CHANGES = 10_000;
+
+    private static final ExecutorService CHECKPOINTER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "quote-index-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path dir;
+    private final QuoteLogStore store;
+    private final IdAllocator ids;
+    // id 별 잠금. id 마다 잠금을 만드는 대신 고정 개수를 나눠 쓴다
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    // 색인은 로그의 변경 알림(로그의 잠금 안)에서만 바뀐다. 읽는 쪽은 이 잠금을 잡은 채로 로그를 호출하지 않는다
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private IdRank ranks = new IdRank();
+    private QuoteSearchIndex searchIndex = new QuoteSearchIndex();
+    // 색인이 바뀔 때마다 증가. 캐시된 결과의 유효성 확인에 쓴다
+    private volatile long version;
+    private final LruCache<String, CachedPage> results = new LruCache<>(RESULT_CACHE_CAPACITY);
+    private final AtomicLong changesSinceCheckpoint = new AtomicLong();
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+
+    // 결과와, 결과를 만들기 시작할 때의 색인 버전
+    private record CachedPage(long version, PagedQuoteDto page) { }
+
+    // 한 페이지의 id 와 페이지 정보
+    private record PageIds(int maxPage, int currentPage, List<Long> ids) { }
 
     public QuoteRepositoryImpl() {
-        cnt = FileUtils.getMaxNumber(); // 마지막 ID 로드
+        this(Path.of("db", "wiseSaying"));
+    }
+
+    /**
+     * @param dir 데이터 디렉터리
+     */
+    public QuoteRepositoryImpl(Path dir) {
+        this.dir = dir;
+        try {
+            this.store = QuoteLogStore.open(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if(store.isCreated()) {
+            try {
+                importLegacyFiles();
+            } catch (IllegalStateException e) {
+                // 아무것도 쓰지 않은 새 로그를 지워, 원인을 고친 뒤 다시 열면 처음부터 옮기게 한다
+                try {
+                    store.close();
+                    Files.deleteIfExists(dir.resolve(QuoteLogStore.FILE_NAME));
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+        this.ids = new IdAllocator(dir, IdAllocator.DEFAULT_BLOCK_SIZE, () -> store.maxId() + 1, IdRank.MAX_ID);
+        for(int i = 0; i < LOCK_STRIPES; i++) stripes[i] = new ReentrantLock();
+
+        //저장해 둔 색인이 있으면 그 시점 이후의 레코드만 반영하고, 없거나 맞지 않으면 전체를 읽어 만든다
+        QuoteIndexFile.Contents saved = QuoteIndexFile.read(dir);
+        if(saved != null) {
+            ranks = saved.ids();
+            searchIndex = saved.searchIndex();
+        }
+        store.listen(new IndexUpdater(), saved == null ? null : saved.position());
+        maybeCheckpoint();
     }
 
     @Override
     public Quote create(Quote quote) {
-        quote.setId(cnt++); // ID 할당
-        String json = JsonUtils.entityToJson(quote);
-        try {
-            FileUtils.save(quote.getId(), json); // 저장
-            FileUtils.putMaxNumber(cnt); // 마지막 ID 갱신
-        } catch (IOException ignore) { }
+        quote.setId(ids.next()); // ID 할당
+        store.put(quote); // 저장
+        maybeCheckpoint();
         return quote;
     }
 
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        if(batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        long created = 0;
+        List<Quote> chunk = new ArrayList<>(batchSize);
+        for(Quote quote : quotes) {
+            quote.setId(ids.next()); // ID 할당
+            chunk.add(quote);
+            if(chunk.size() == batchSize) created += flushBatch(chunk);
+        }
+        if(!chunk.isEmpty()) created += flushBatch(chunk);
+        maybeCheckpoint();
+        return created;
+    }
+
+    // 묶음을 한 번에 기록
+    private int flushBatch(List<Quote> chunk) {
+        store.putAll(chunk);
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
     @Override
     public List<Quote> findAll() {
-        return FileUtils.readAll().stream().map(JsonUtils::jsonToEntity).toList(); // 전체 조회
+        return store.readAll(); // 전체 조회
+    }
+
+    @Override
+    public void scanAll(Consumer<Quote> consumer) {
+        store.forEach(consumer); // 매핑된 로그를 순서대로 순회
     }
 
     @Override
     public Optional<Quote> find(Long id) {
-        try {
-            String json = FileUtils.readOne(id);
-            if(json == null) return Optional.empty();
-            return Optional.of(JsonUtils.jsonToEntity(json)); // 단건 조회
-        } catch (IllegalArgumentException e) {
-            return Optional.empty();
-        }
+        return store.get(id); // 단건 조회
     }
 
     @Override
     public void delete(Long id) {
-        FileUtils.delete(id); // 삭제
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            store.delete(id); // 삭제
+        } finally {
+            lock.unlock();
+        }
+        maybeCheckpoint();
     }
 
     @Override
     public void update(Long id, String word, String author) {
-        String json = JsonUtils.entityToJson(new Quote(id, word, author));
+        ReentrantLock lock = stripe(id);
+        lock.lock();
         try {
-            FileUtils.save(id, json); // 업데이트
-        } catch (IOException ignore) { }
+            store.replace(new Quote(id, word, author)); // 업데이트 (없는 id 면 IllegalArgumentException)
+        } finally {
+            lock.unlock();
+        }
+        maybeCheckpoint();
     }
 
     @Override
     public void build() {
-        String buildFile = JsonUtils.build(FileUtils.readAll()); // 빌드 파일 생성
-        FileUtils.saveBuild(buildFile);
+        try {
+            FileUtils.writeBuildFiles(dir, this::scanAll); // 빌드 파일(data.json, data.qsnap) 생성
+        } catch (IOException | RuntimeException ignore) { }
+        try {
+            saveIndex(); // 색인 파일 갱신
+        } catch (IOException | RuntimeException ignore) { }
     }
 
     @Override
     public PagedQuoteDto findPagedQuote(int page) {
-        return null;
+        return cached("page:" + page, () -> {
+            PageIds pageIds;
+            indexLock.readLock().lock();
+            try {
+                int maxPage = maxPage(ranks.size());
+                int currentPage = clampPage(page, maxPage);
+                pageIds = new PageIds(maxPage, currentPage, ranks.descending((long) PAGE_CNT * (currentPage - 1), PAGE_CNT));
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            return withCursors(pageIds.maxPage(), pageIds.currentPage(), load(pageIds.ids()));
+        });
+    }
+
+    // 번호로 조회한 페이지에 앞 / 뒤 페이지 커서를 붙인다
+    private static PagedQuoteDto withCursors(int maxPage, int currentPage, List<Quote> quotes) {
+        String prevCursor = currentPage > 1 && !quotes.isEmpty()
+                ? PageCursor.prev(quotes.get(0).getId()).encode() : null;
+        String nextCursor = currentPage < maxPage && !quotes.isEmpty()
+                ? PageCursor.next(quotes.get(quotes.size() - 1).getId()).encode() : null;
+        return new PagedQuoteDto(maxPage, currentPage, quotes, prevCursor, nextCursor);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        if(cursor == null || cursor.isBlank()) return findPagedQuote(1);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        return cached("cursor:" + cursor, () -> {
+            //기준 id 의 이웃부터 읽고, 다음 페이지 존재 여부 확인을 위해 한 건 더 읽는다
+            boolean forward = pageCursor.direction() == PageCursor.Direction.NEXT;
+            List<Long> pageIds;
+            int total;
+            indexLock.readLock().lock();
+            try {
+                pageIds = forward ? ranks.below(pageCursor.id(), PAGE_CNT + 1) : ranks.above(pageCursor.id(), PAGE_CNT + 1);
+                total = ranks.size();
+            } finally {
+                indexLock.readLock().unlock();
+            }
+
+            boolean hasMore = pageIds.size() > PAGE_CNT;
+            if(hasMore) pageIds = pageIds.subList(0, PAGE_CNT);
+            if(!forward) {
+                pageIds = new ArrayList<>(pageIds);
+                Collections.reverse(pageIds);
+            }
+            List<Quote> quotes = load(pageIds);
+
+            String prevCursor = null;
+            String nextCursor = null;
+            if(!quotes.isEmpty()) {
+                long first = quotes.get(0).getId();
+                long last = quotes.get(quotes.size() - 1).getId();
+                // 커서를 따라온 방향의 반대편은 항상 존재한다
+                prevCursor = !forward && !hasMore ? null : PageCursor.prev(first).encode();
+                nextCursor = forward && !hasMore ? null : PageCursor.next(last).encode();
+            }
+            return new PagedQuoteDto(maxPage(total), 0, quotes, prevCursor, nextCursor);
+        });
     }
 
     @Override
     public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
-        return null;
+        return cached("search:" + type + ":" + page + ":" + keyword, () -> {
+            PageIds pageIds;
+            indexLock.readLock().lock();
+            try {
+                QuoteSearchIndex.Hits hits = searchIndex.search(type, keyword);
+                int maxPage = maxPage(hits.total());
+                int currentPage = clampPage(page, maxPage);
+                pageIds = new PageIds(maxPage, currentPage, hits.page((long) PAGE_CNT * (currentPage - 1), PAGE_CNT));
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            return new PagedQuoteDto(pageIds.maxPage(), pageIds.currentPage(), load(pageIds.ids()));
+        });
+    }
+
+    /**
+     * 캐시된 결과가 지금 색인 버전과 같으면 그대로, 아니면 새로 만들어 캐시한다.
+     * 만드는 도중 색인이 바뀌면 버전이 달라지므로 그 결과는 다음 조회 때 쓰이지 않는다.
+     */
+    private PagedQuoteDto cached(String key, Supplier<PagedQuoteDto> loader) {
+        store.refresh(); // 다른 프로세스의 변경 반영 (바뀌었으면 version 이 오른다)
+        long current = version;
+        CachedPage hit = results.get(key);
+        PagedQuoteDto page;
+        if(hit != null && hit.version() == current) {
+            page = hit.page();
+        } else {
+            page = loader.get();
+            results.put(key, new CachedPage(current, page));
+        }
+        // 캐시된 엔티티가 호출자에 의해 바뀌지 않도록 복사본을 반환
+        List<Quote> quotes = page.quotes().stream().map(q -> new Quote(q.getId(), q.getQuote(), q.getAuthor())).toList();
+        return new PagedQuoteDto(page.maxPage(), page.currentPage(), quotes, page.prevCursor(), page.nextCursor());
+    }
+
+    // 페이지의 레코드만 읽는다. 그 사이 삭제된 명언은 빠진다
+    private List<Quote> load(List<Long> pageIds) {
+        List<Quote> quotes = new ArrayList<>(pageIds.size());
+        for(Long id : pageIds) {
+            store.get(id).ifPresent(quotes::add);
+        }
+        return quotes;
+    }
+
+    // 전체 레코드 수로부터 페이지 수 계산 (레코드가 없어도 1페이지)
+    private static int maxPage(long total) {
+        return (int) Math.max(1, (total + PAGE_CNT - 1) / PAGE_CNT);
+    }
+
+    // 요청 페이지를 [1, maxPage] 범위로 제한
+    private static int clampPage(int page, int maxPage) {
+        return Math.min(Math.max(page, 1), maxPage);
+    }
+
+    // 변경이 쌓였으면 백그라운드에서 색인 파일을 저장
+    private void maybeCheckpoint() {
+        if(changesSinceCheckpoint.get() < CHECKPOINT_CHANGES) return;
+        if(!checkpointing.compareAndSet(false, true)) return;
+        CHECKPOINTER.execute(() -> {
+            try {
+                saveIndex();
+            } catch (IOException | RuntimeException ignore) {
+                // 다음 변경 때 다시 시도
+            } finally {
+                checkpointing.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void checkpoint() throws IOException {
+        saveIndex();
+    }
+
+    // 로그 시점을 먼저 얻고, 색인은 그 뒤에 메모리로 직렬화한 다음 잠금 밖에서 파일에 쓴다.
+    // 색인이 시점보다 앞설 수는 있어도 뒤처지지 않으므로, 다시 열 때 그 뒤의 변경을 다시 반영하면 된다.
+    // 생성자에서도 호출되므로 재정의할 수 있는 checkpoint() 대신 이 메서드를 쓴다
+    private void saveIndex() throws IOException {
+        QuoteLogStore.LogPosition position = store.position();
+        byte[] contents;
+        indexLock.readLock().lock();
+        try {
+            changesSinceCheckpoint.set(0);
+            contents = QuoteIndexFile.encode(position, ranks, searchIndex);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        QuoteIndexFile.write(dir, contents);
+    }
+
+    /**
+     * 로그의 변경을 색인에 반영한다. 로그의 잠금 안에서 호출되므로 로그를 다시 호출하지 않는다.
+     * 같은 변경이 두 번 전달되어도 결과가 같다.
+     */
+    private final class IndexUpdater implements QuoteLogStore.ChangeListener {
+
+        @Override
+        public void put(Quote quote) {
+            indexLock.writeLock().lock();
+            try {
+                // 발급 / 이전 파일 옮기기에서 범위를 넘는 id 는 거부하므로, 여기서는 손상된 로그 등 예외적인 경우만 걸러진다
+                if(quote.getId() <= IdRank.MAX_ID) ranks.add(quote.getId());
+                searchIndex.add(quote.getId(), quote.getQuote(), quote.getAuthor());
+                changed(1);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void delete(long id) {
+            indexLock.writeLock().lock();
+            try {
+                ranks.remove(id);
+                searchIndex.remove(id);
+                changed(1);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void reload(Consumer<Consumer<Quote>> all) {
+            //새 색인을 다 만든 뒤 한 번에 바꾼다. 만드는 동안 다른 변경은 로그의 잠금으로 막혀 있다
+            IdRank freshRanks = new IdRank();
+            QuoteSearchIndex freshIndex = new QuoteSearchIndex();
+            freshIndex.beginBuild();
+            all.accept(quote -> {
+                if(quote.getId() <= IdRank.MAX_ID) freshRanks.add(quote.getId());
+                freshIndex.add(quote.getId(), quote.getQuote(), quote.getAuthor());
+            });
+            freshIndex.completeBuild(List.of());
+
+            indexLock.writeLock().lock();
+            try {
+                ranks = freshRanks;
+                searchIndex = freshIndex;
+                changed(CHECKPOINT_CHANGES);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        }
+
+        // 쓰기 잠금 안에서 호출
+        private void changed(long changes) {
+            version++;
+            changesSinceCheckpoint.addAndGet(changes);
+        }
+    }
+
+    private ReentrantLock stripe(long id) {
+        return stripes[(int) ((id ^ (id >>> 32)) & (LOCK_STRIPES - 1))];
+    }
+
+    // 이전 방식({id}.json 파일별 저장)의 데이터를 로그로 옮긴다. 기존 파일은 그대로 둔다.
+    // 모두 읽고 확인한 뒤 DEFAULT_BATCH_SIZE 건씩 묶어 기록한다. 색인 범위를 넘는 id 가 있으면 아무것도 쓰지 않고 실패한다
+    private void importLegacyFiles() {
+        List<Quote> quotes = new ArrayList<>();
+        for(String json : FileUtils.readAll(dir)) {
+            try {
+                Quote quote = JsonUtils.jsonToEntity(json);
+                if(quote.getId() == null || quote.getId() < 0 || quote.getQuote() == null || quote.getAuthor() == null) continue;
+                if(quote.getId() > IdRank.MAX_ID) {
+                    throw new IllegalStateException("legacy quote id " + quote.getId() + " exceeds " + IdRank.MAX_ID);
+                }
+                quotes.add(quote);
+            } catch (IllegalArgumentException ignore) {
+                // 쓰다가 잘린 파일 등 손상된 파일은 건너뛴다
+            }
+        }
+        for(int from = 0; from < quotes.size(); from += DEFAULT_BATCH_SIZE) {
+            store.putAll(quotes.subList(from, Math.min(from + DEFAULT_BATCH_SIZE, quotes.size())));
+        }
     }
 }
@@ -0,0 +1,111 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.utils.ConfigLoader;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 이름으로 저장소 구현을 고르는 레지스트리.
+ * <p>
+ * {@code src/resources/storage.properties} 의 {@code storage.backend} 로 사용할 저장소를 정한다.
+ * 환경 변수(QUOTEBOARD_STORAGE_BACKEND)와 시스템 프로퍼티(-Dquoteboard.storage.backend)로 덮어쓸 수 있다.
+ * <ul>
+ *     <li>rdb : MySQL ({@link RDBQuoteRepositoryImpl}) 앞에 단건 캐시</li>
+ *     <li>file : {@code storage.file.dir} 의 로그 파일 ({@link QuoteRepositoryImpl}) 앞에 단건 캐시</li>
+ *     <li>memory : 프로세스 메모리 ({@link MemoryQuoteRepository}). 종료하면 내용이 사라진다</li>
+ * </ul>
+ * {@code storage.build.incremental} 이 true 이면 rdb / file 저장소의 build 는 변경분만 기록한다. ({@link IncrementalBuildRepository})
+ * 메모리 저장소는 실행마다 내용이 새로 시작하므로 이전 빌드에 이어 쓸 수 없어 항상 전체를 빌드한다.
+ */
+public final class QuoteRepositoryRegistry {
+
+    public static final String RDB = "rdb";
+    public static final String FILE = "file";
+    public static final String MEMORY = "memory";
+
+    public static final Path DEFAULT_FILE = Path.of("src", "resources", "storage.properties");
+    // rdb / memory 저장소가 build 결과를 쓰는 디렉터리
+    private static final Path BUILD_DIR = Path.of("db", "wiseSaying");
+    private static final String ENV_PREFIX = "quoteboard";
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "storage.backend", RDB,
+            "storage.file.dir", BUILD_DIR.toString(),
+            "storage.build.incremental", "true"
+    );
+
+    private static final Map<String, Function<ConfigLoader, QuoteRepository>> BACKENDS = new ConcurrentHashMap<>();
+
+    static {
+        //변경 기록은 캐시 안쪽에 두어, build 가 캐시를 거치지 않고 저장소의 현재 상태를 읽게 한다
+        register(RDB, config -> new CachingQuoteRepository(incremental(config, new RDBQuoteRepositoryImpl(), BUILD_DIR)));
+        register(FILE, config -> {
+            Path dir = Path.of(config.get("storage.file.dir"));
+            return new CachingQuoteRepository(incremental(config, new QuoteRepositoryImpl(dir), dir));
+        });
+        register(MEMORY, config -> new MemoryQuoteRepository());
+    }
+
+    private QuoteRepositoryRegistry() { }
+
+    /**
+     * 저장소 구현을 등록한다. 같은 이름이 있으면 교체한다.
+     * @param name 저장소 이름 (storage.backend 값)
+     * @param factory 설정을 받아 저장소를 만드는 함수
+     */
+    public static void register(String name, Function<ConfigLoader, QuoteRepository> factory) {
+        BACKENDS.put(name, factory);
+    }
+
+    /**
+     * @return 등록된 저장소 이름
+     */
+    public static Set<String> names() {
+        return new TreeSet<>(BACKENDS.keySet());
+    }
+
+    /**
+     * @return 설정된 저장소 이름
+     */
+    public static String configuredBackend() {
+        return loadConfig().get("storage.backend");
+    }
+
+    /**
+     * 설정된 저장소를 만든다.
+     * @throws IllegalArgumentException 등록되지 않은 저장소 이름인 경우
+     */
+    public static QuoteRepository fromConfig() {
+        ConfigLoader config = loadConfig();
+        return create(config.get("storage.backend"), config);
+    }
+
+    /**
+     * 이름으로 저장소를 만든다. 그 밖의 설정은 storage.properties 의 값을 쓴다.
+     * @throws IllegalArgumentException 등록되지 않은 저장소 이름인 경우
+     */
+    public static QuoteRepository create(String name) {
+        return create(name, loadConfig());
+    }
+
+    private static QuoteRepository create(String name, ConfigLoader config) {
+        Function<ConfigLoader, QuoteRepository> factory = BACKENDS.get(name);
+        if(factory == null) {
+            throw new IllegalArgumentException("unknown storage backend '" + name + "', expected one of " + names());
+        }
+        return factory.apply(config);
+    }
+
+    private static QuoteRepository incremental(ConfigLoader config, QuoteRepository repository, Path buildDir) {
+        if(!Boolean.parseBoolean(config.get("storage.build.incremental"))) return repository;
+        return new IncrementalBuildRepository(repository, buildDir);
+    }
+
+    private static ConfigLoader loadConfig() {
+        return ConfigLoader.load(DEFAULT_FILE, ENV_PREFIX, DEFAULTS);
+    }
+}
@@ -0,0 +1,295 @@
+package com.quoteBoard.dao;
+
+import com.quoteBoard.dto.SearchQuoteRequest.SearchType;
+import com.quoteBoard.entity.Quote;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * content / author 에 대한 프로세스 내 역색인(inverted index).
+ * <p>
+ * 한글은 형태소 분석 없이도 부분 일치를 찾을 수 있도록 문자 n-gram(1-gram, 2-gram)으로 토큰화한다.
+ * ASCII 도 같은 방식으로 처리하므로 {@code LIKE '%keyword%'} 와 같은 부분 문자열 검색 의미를 유지한다.
+ * <ol>
+ *     <li>검색어의 n-gram 중 포스팅이 가장 짧은 것을 고른다.</li>
+ *     <li>해당 포스팅을 id 내림차순으로 순회하며 원문에 검색어가 실제로 포함되는지 확인한다.</li>
+ * </ol>
+ * 대소문자는 구분하지 않는다.
+ */
+public class QuoteSearchIndex {
+
+    /**
+     * 검색 결과
+     * @param total 전체 일치 건수
+     * @param ids 일치한 id 목록 (내림차순)
+     */
+    public record Hits(int total, List<Long> ids) {
+        /**
+         * 요청한 구간의 id 만 잘라낸다.
+         * @param offset 건너뛸 개수
+         * @param limit 최대 개수
+         * @return 구간의 id 목록
+         */
+        public List<Long> page(long offset, int limit) {
+            if(offset >= ids.size()) return List.of();
+            int from = (int) offset;
+            return ids.subList(from, Math.min(ids.size(), from + limit));
+        }
+    }
+
+    // 필드(검색 타입)별 색인
+    private static final class FieldIndex {
+        private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+        private final Map<Long, String> texts = new HashMap<>();
+    }
+
+    private final EnumMap<SearchType, FieldIndex> fields = new EnumMap<>(SearchType.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 초기 구축 도중 변경된 id. 구축용 스냅샷보다 최신이므로 구축 시 덮어쓰지 않는다.
+    private final Set<Long> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    public QuoteSearchIndex() {
+        for(SearchType type : SearchType.values()) {
+            fields.put(type, new FieldIndex());
+        }
+    }
+
+    /**
+     * @return 초기 구축이 끝났는지 여부
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 초기 구축을 시작한다. 이 시점 이후의 add / remove 는 구축용 스냅샷보다 우선한다.
+     * 스냅샷을 읽기 전에 호출해야 한다.
+     */
+    public void beginBuild() {
+        touchedDuringBuild.clear();
+        building = true;
+    }
+
+    /**
+     * {@link #beginBuild()} 이후 읽어온 전체 데이터로 색인을 채우고 검색 가능 상태로 만든다.
+     * @param quotes 저장소의 전체 명언
+     */
+    public void completeBuild(Iterable<Quote> quotes) {
+        try {
+            for(Quote quote : quotes) {
+                lock.writeLock().lock();
+                try {
+                    // add / remove 와 같은 잠금 안에서 확인해야, 확인과 put 사이에 들어온 최신 값을 덮어쓰지 않는다
+                    if(touchedDuringBuild.contains(quote.getId())) continue;
+                    put(quote.getId(), quote.getQuote(), quote.getAuthor());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            ready = true;
+        } finally {
+            building = false;
+            touchedDuringBuild.clear();
+        }
+    }
+
+    /**
+     * 스냅샷을 읽지 못한 경우 구축을 취소한다. 색인은 검색 불가 상태로 남는다.
+     */
+    public void abortBuild() {
+        building = false;
+        touchedDuringBuild.clear();
+    }
+
+    /**
+     * 명언을 색인에 추가하거나, 이미 있으면 새 내용으로 교체한다.
+     */
+    public void add(long id, String content, String author) {
+        lock.writeLock().lock();
+        try {
+            if(building) touchedDuringBuild.add(id);
+            put(id, content, author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 명언을 색인에서 제거한다.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if(building) touchedDuringBuild.add(id);
+            for(SearchType type : SearchType.values()) {
+                removeField(fields.get(type), id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 검색어를 포함하는 명언의 id 를 내림차순으로 반환한다.
+     * @param type 검색 대상 필드
+     * @param keyword 검색어
+     * @return 검색 결과
+     */
+    public Hits search(SearchType type, String keyword) {
+        String needle = normalize(keyword);
+        lock.readLock().lock();
+        try {
+            FieldIndex field = fields.get(type);
+            if(needle.isEmpty()) {
+                // 빈 검색어는 LIKE '%%' 처럼 전체와 일치
+                List<Long> all = new ArrayList<>(field.texts.keySet());
+                all.sort(Comparator.reverseOrder());
+                return new Hits(all.size(), all);
+            }
+
+            NavigableSet<Long> candidates = null;
+            for(String gram : grams(needle)) {
+                NavigableSet<Long> posting = field.postings.get(gram);
+                if(posting == null) return new Hits(0, List.of());
+                if(candidates == null || posting.size() < candidates.size()) candidates = posting;
+            }
+
+            List<Long> ids = new ArrayList<>();
+            for(Long id : candidates.descendingSet()) {
+                if(field.texts.get(id).contains(needle)) ids.add(id);
+            }
+            return new Hits(ids.size(), ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 색인 전체(필드별 원문과 포스팅)를 기록한다. 다시 읽을 때 토큰화를 하지 않도록 포스팅도 그대로 남긴다.
+     * <pre>
+     * 필드마다 : textCount(int) | (id(long) | text)* | gramCount(int) | (gram | idCount(int) | id(long)*)*
+     * 문자열 : length(int) | UTF-8
+     * </pre>
+     * @param out 기록할 곳
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            for(SearchType type : SearchType.values()) {
+                FieldIndex field = fields.get(type);
+                out.writeInt(field.texts.size());
+                for(Map.Entry<Long, String> entry : field.texts.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+                out.writeInt(field.postings.size());
+                for(Map.Entry<String, NavigableSet<Long>> entry : field.postings.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for(Long id : entry.getValue()) {
+                        out.writeLong(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@link #writeTo(DataOutput)} 로 기록한 색인을 읽는다. 읽은 색인은 바로 검색 가능하다.
+     * @param in 읽을 곳
+     * @return 색인
+     * @throws IOException 읽기 오류나 형식이 잘못된 경우
+     */
+    public static QuoteSearchIndex readFrom(DataInput in) throws IOException {
+        QuoteSearchIndex index = new QuoteSearchIndex();
+        for(SearchType type : SearchType.values()) {
+            FieldIndex field = index.fields.get(type);
+            int texts = in.readInt();
+            for(int i = 0; i < texts; i++) {
+                long id = in.readLong();
+                field.texts.put(id, readString(in));
+            }
+            int grams = in.readInt();
+            for(int i = 0; i < grams; i++) {
+                String gram = readString(in);
+                int count = in.readInt();
+                NavigableSet<Long> posting = new TreeSet<>();
+                for(int j = 0; j < count; j++) {
+                    posting.add(in.readLong());
+                }
+                field.postings.put(gram, posting);
+            }
+        }
+        index.ready = true;
+        return index;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if(length < 0) throw new IOException("corrupted search index");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void put(long id, String content, String author) {
+        putField(fields.get(SearchType.CONTENT), id, content);
+        putField(fields.get(SearchType.AUTHOR), id, author);
+    }
+
+    private void putField(FieldIndex field, long id, String value) {
+        removeField(field, id);
+        String text = normalize(value);
+        field.texts.put(id, text);
+        for(String gram : grams(text)) {
+            field.postings.computeIfAbsent(gram, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void removeField(FieldIndex field, long id) {
+        String old = field.texts.remove(id);
+        if(old == null) return;
+        for(String gram : grams(old)) {
+            NavigableSet<Long> posting = field.postings.get(gram);
+            if(posting != null && posting.remove(id) && posting.isEmpty()) {
+                field.postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // 1-gram 과 2-gram 으로 분해. 한 글자 검색어도 포스팅으로 찾을 수 있도록 1-gram 을 함께 둔다
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        if(text.length() == 1) {
+            grams.add(text);
+            return grams;
+        }
+        for(int i = 0; i < text.length(); i++) {
+            grams.add(text.substring(i, i + 1));
+            if(i + 1 < text.length()) grams.add(text.substring(i, i + 2));
+        }
+        return grams;
+    }
+}
@@ -1,47 +1,294 @@
 package com.quoteBoard.dao;
 
+import com.quoteBoard.dto.PageCursor;
 import com.quoteBoard.dto.PagedQuoteDto;
 import com.quoteBoard.dto.SearchQuoteRequest;
 import com.quoteBoard.entity.Quote;
 import com.quoteBoard.utils.FileUtils;
-import com.quoteBoard.utils.JsonUtils;
+import com.quoteBoard.utils.LruCache;
 import dbConfig.ConnectionManager;
+import dbConfig.DataSourceConfig.QueryType;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 
 public class RDBQuoteRepositoryImpl implements QuoteRepository {
 
     private static final int PAGE_CNT = 20;
+    private static final Path BUILD_DIR = Path.of("db", "wiseSaying");
+
+    // 쿼리 모양이 고정되어 있으므로 SQL 은 한 번만 만든다. 준비된 statement 는 풀이 커넥션마다 SQL 별로 보관하여 재사용한다
+    // 작가 이름은 author 테이블에 한 번만 저장하고, 명언 행은 author_id 로 가리킨다 (migration/V2__author_table.sql)
+    private static final String SELECT_QUOTE = """
+            SELECT q.quote_id, q.content, a.name AS author
+            FROM quote q
+            JOIN author a ON a.author_id = q.author_id
+            """;
+    private static final String INSERT_SQL = """
+            INSERT INTO quote(content, author_id)
+            VALUES (?, ?)
+            """;
+    private static final String SELECT_ALL_SQL = SELECT_QUOTE;
+    private static final String SCAN_SQL = SELECT_QUOTE + """
+            ORDER BY q.quote_id
+            """;
+    private static final String FIND_SQL = SELECT_QUOTE + """
+            WHERE q.quote_id = ?
+            """;
+    private static final String DELETE_SQL = """
+            DELETE FROM quote
+            WHERE quote_id = ?
+            """;
+    private static final String UPDATE_SQL = """
+            UPDATE quote
+            SET content = ?, author_id = ?
+            WHERE quote_id = ?
+            """;
+    // 건너뛸 행은 quote 만 읽고, 작가 이름은 남은 한 페이지 분량만 찾는다
+    private static final String PAGE_SQL = """
+            SELECT q.quote_id, q.content, a.name AS author
+            FROM (
+                SELECT quote_id, content, author_id
+                FROM quote
+                ORDER BY quote_id DESC
+                LIMIT ? OFFSET ?
+            ) q
+            JOIN author a ON a.author_id = q.author_id
+            ORDER BY q.quote_id DESC
+            """;
+    private static final String CURSOR_NEXT_SQL = SELECT_QUOTE + """
+            WHERE q.quote_id < ?
+            ORDER BY q.quote_id DESC
+            LIMIT ?
+            """;
+    private static final String CURSOR_PREV_SQL = SELECT_QUOTE + """
+            WHERE q.quote_id > ?
+            ORDER BY q.quote_id ASC
+            LIMIT ?
+            """;
+    private static final String COUNT_SQL = """
+            SELECT COUNT(*) FROM quote
+            """;
+    // 한 페이지의 행과 전체 수를 한 번에 읽는다. 페이지가 비어도 전체 수만 담긴 행 하나가 나오도록 LEFT JOIN 한다
+    private static final String PAGE_COMBINED_SQL = """
+            WITH total AS (
+                SELECT COUNT(*) AS cnt FROM quote
+            )
+            SELECT page.quote_id, page.content, a.name AS author, total.cnt
+            FROM total
+            LEFT JOIN (
+                SELECT quote_id, content, author_id
+                FROM quote
+                ORDER BY quote_id DESC
+                LIMIT ? OFFSET ?
+            ) page ON TRUE
+            LEFT JOIN author a ON a.author_id = page.author_id
+            ORDER BY page.quote_id DESC
+            """;
+    // 작가 이름 → id. uk_author_name 색인으로 찾는다
+    private static final String FIND_AUTHOR_SQL = """
+            SELECT author_id FROM author
+            WHERE name = ?
+            """;
+    // INSERT IGNORE 가 다른 트랜잭션이 먼저 등록한 작가와 부딪힌 경우, 스냅샷이 아닌 최신 커밋을 읽기 위한 잠금 읽기
+    private static final String FIND_AUTHOR_LATEST_SQL = FIND_AUTHOR_SQL + """
+            FOR SHARE
+            """;
+    private static final String INSERT_AUTHOR_SQL = """
+            INSERT IGNORE INTO author(name)
+            VALUES (?)
+            """;
+    // 작가 한 명의 명언. idx_quote_author(author_id, quote_id) 를 내림차순으로 읽으므로 정렬하지 않는다
+    private static final String AUTHOR_PAGE_SQL = SELECT_QUOTE + """
+            WHERE q.author_id = ?
+            ORDER BY q.quote_id DESC
+            LIMIT ? OFFSET ?
+            """;
+    private static final String AUTHOR_COUNT_SQL = """
+            SELECT COUNT(*) FROM quote
+            WHERE author_id = ?
+            """;
+    // 이름이 접두어로 시작하는 작가들의 명언. 작가는 uk_author_name 범위 검색으로 찾는다
+    private static final String AUTHOR_PREFIX_PAGE_SQL = SELECT_QUOTE + """
+            WHERE a.name LIKE ?
+            ORDER BY q.quote_id DESC
+            LIMIT ? OFFSET ?
+            """;
+    private static final String AUTHOR_PREFIX_COUNT_SQL = """
+            SELECT COUNT(*)
+            FROM quote q
+            JOIN author a ON a.author_id = q.author_id
+            WHERE a.name LIKE ?
+            """;
+    // 검색 종류별 LIKE 쿼리
+    private static final Map<SearchQuoteRequest.SearchType, String> SEARCH_SQL = new EnumMap<>(SearchQuoteRequest.SearchType.class);
+    private static final Map<SearchQuoteRequest.SearchType, String> COUNT_SEARCH_SQL = new EnumMap<>(SearchQuoteRequest.SearchType.class);
+    private static final Map<SearchQuoteRequest.SearchType, String> SEARCH_COMBINED_SQL = new EnumMap<>(SearchQuoteRequest.SearchType.class);
+    // 색인 검색에서 한 페이지의 행을 읽는 쿼리. IN 목록 크기(1 ~ PAGE_CNT)별로 미리 만든다
+    private static final String[] FIND_IN_SQL = new String[PAGE_CNT + 1];
+
+    static {
+        for(SearchQuoteRequest.SearchType type : SearchQuoteRequest.SearchType.values()) {
+            String condition = searchCondition(type);
+            SEARCH_SQL.put(type, SELECT_QUOTE + """
+                    WHERE %s
+                    ORDER BY q.quote_id DESC
+                    LIMIT ? OFFSET ?
+                    """.formatted(condition));
+            COUNT_SEARCH_SQL.put(type, """
+                    SELECT COUNT(*)
+                    FROM quote q
+                    WHERE %s
+                    """.formatted(condition));
+            SEARCH_COMBINED_SQL.put(type, """
+                    WITH total AS (
+                        SELECT COUNT(*) AS cnt FROM quote q WHERE %1$s
+                    )
+                    SELECT page.quote_id, page.content, a.name AS author, total.cnt
+                    FROM total
+                    LEFT JOIN (
+                        SELECT q.quote_id, q.content, q.author_id
+                        FROM quote q
+                        WHERE %1$s
+                        ORDER BY q.quote_id DESC
+                        LIMIT ? OFFSET ?
+                    ) page ON TRUE
+                    LEFT JOIN author a ON a.author_id = page.author_id
+                    ORDER BY page.quote_id DESC
+                    """.formatted(condition));
+        }
+        for(int size = 1; size <= PAGE_CNT; size++) {
+            StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+            for(int i = 0; i < size; i++) placeholders.add("?");
+            FIND_IN_SQL[size] = SELECT_QUOTE + """
+                    WHERE q.quote_id IN %s
+                    ORDER BY q.quote_id DESC
+                    """.formatted(placeholders);
+        }
+    }
+
+    // 다른 프로세스의 쓰기는 알 수 없으므로 카운트 캐시와 검색 색인은 이 주기로 다시 읽는다
+    private static final Duration SHARED_CACHE_MAX_AGE = Duration.ofSeconds(60);
+
+    // 하나의 DB 를 공유하므로 인스턴스가 여러 개여도 같은 카운트 캐시를 사용한다
+    private static final QuoteCountCache COUNT_CACHE = new QuoteCountCache(SHARED_CACHE_MAX_AGE);
+
+    // 작가 이름 → author_id. 카운트 캐시와 마찬가지로 인스턴스끼리 공유한다.
+    // 발급된 id 는 바뀌지 않으므로 쓰기 때 무효화하지 않으며, 등록 / 수정마다 author 를 조회하지 않게 한다
+    private static final int AUTHOR_CACHE_SIZE = 10_000;
+    private static final LruCache<String, Long> AUTHOR_IDS = new LruCache<>(AUTHOR_CACHE_SIZE);
+
+    // content / author 역색인. 준비되기 전까지는 LIKE 검색으로 대신한다.
+    // 다른 프로세스의 쓰기는 알 수 없으므로 SHARED_CACHE_MAX_AGE 가 지나면 새 색인을 만들어 바꿔 끼운다.
+    // 다시 만드는 동안에는 이전 색인으로 검색하고, 이 프로세스의 쓰기는 양쪽 색인에 모두 반영한다.
+    private static final long SEARCH_INDEX_MAX_AGE_NANOS = SHARED_CACHE_MAX_AGE.toNanos();
+    private static final AtomicBoolean SEARCH_INDEX_BUILDING = new AtomicBoolean();
+    private static volatile QuoteSearchIndex searchIndex = new QuoteSearchIndex();
+    private static volatile QuoteSearchIndex rebuildingIndex;
+    private static volatile long searchIndexBuiltAt;
+
+    /**
+     * 목록 / LIKE 검색에서 전체 수를 구하는 방식
+     */
+    public enum PageQuery {
+        /**
+         * 전체 수(캐시)와 페이지 행을 따로 조회한다. 캐시가 맞으면 한 번, 아니면 두 번 왕복한다.
+         */
+        SEPARATE,
+        /**
+         * 전체 수와 페이지 행을 하나의 쿼리로 조회한다. 항상 한 번 왕복하며, 두 값이 같은 시점의 데이터를 본다.
+         * 요청 페이지가 마지막 페이지를 넘은 경우에만 마지막 페이지를 한 번 더 조회한다.
+         */
+        COMBINED
+    }
+
+    // 한 번의 조회로 읽은 페이지 행과 전체 수
+    private record PageRows(List<Quote> quotes, long total) { }
+
+    private final PageQuery pageQuery;
+
+    public RDBQuoteRepositoryImpl() {
+        this(PageQuery.SEPARATE);
+    }
+
+    /**
+     * @param pageQuery 목록 / LIKE 검색에서 전체 수를 구하는 방식
+     */
+    public RDBQuoteRepositoryImpl(PageQuery pageQuery) {
+        this.pageQuery = pageQuery;
+    }
+
+    /**
+     * 페이징용 레코드 수 캐시의 적중 통계를 반환합니다.
+     * @return 캐시 통계
+     */
+    public static QuoteCountCache.Stats countCacheStats() {
+        return COUNT_CACHE.stats();
+    }
+
+    /**
+     * 레코드 수 캐시를 비웁니다. 다른 경로로 테이블이 변경된 경우 사용합니다.
+     */
+    public static void invalidateCountCache() {
+        COUNT_CACHE.invalidateAll();
+    }
+
+    /**
+     * 작가 id 캐시의 적중 통계를 반환합니다.
+     * @return 캐시 통계
+     */
+    public static LruCache.Stats authorCacheStats() {
+        return AUTHOR_IDS.stats();
+    }
+
+    /**
+     * 작가 id 캐시를 비웁니다. 다른 경로로 author 테이블을 비우거나 다시 만든 경우 사용합니다.
+     */
+    public static void invalidateAuthorCache() {
+        AUTHOR_IDS.invalidateAll();
+    }
 
     @Override
     public Quote create(Quote quote) {
-        String sql = """
-                INSERT INTO quote(content, author)
-                VALUES (?, ?)
-                """;
-
         //auto-increment 를 사용하여, ps를 RETURN_GENERATED_KEYS 를 이용해 받고, ResultSet 으로 만들어진 키 값을 반환
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = prepare(conn, QueryType.WRITE, INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, quote.getQuote());
-            ps.setString(2, quote.getAuthor());
-
-            int updated = ps.executeUpdate();
-            if(updated != 1) throw new SQLException("unchanged");
+            ps.setLong(2, authorId(conn, quote.getAuthor()));
+
+            COUNT_CACHE.beginWrite();
+            try {
+                int updated = ps.executeUpdate();
+                if(updated != 1) throw new SQLException("unchanged");
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if(rs.next()) {
+                        long id = rs.getLong(1);
+                        quote.setId(id);
+                        COUNT_CACHE.onCreate(1);
+                        indexAdd(id, quote.getQuote(), quote.getAuthor());
+                        return quote;
+                    } else {
+                        throw new SQLException("DB insert error");
+                    }
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if(rs.next()) {
-                    long id = rs.getLong(1);
-                    quote.setId(id);
-                    return quote;
-                } else {
-                    throw new SQLException("DB insert error");
                 }
-
+            } finally {
+                COUNT_CACHE.endWrite();
             }
         } catch (SQLException ignore) {
 
@@ -49,15 +296,81 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
         return null;
     }
 
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        if(batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+
+        //rewriteBatchedStatements 로 묶음이 하나의 multi-row INSERT 로 전송되며, 묶음마다 커밋한다
+        long created = 0;
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.BATCH, INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
+            COUNT_CACHE.beginWrite();
+            try {
+                List<Quote> chunk = new ArrayList<>(batchSize);
+                // 이번 묶음에서 새로 찾거나 등록한 작가. 롤백될 수 있으므로 커밋한 뒤에 캐시한다
+                Map<String, Long> authors = new HashMap<>();
+                for(Quote quote : quotes) {
+                    ps.setString(1, quote.getQuote());
+                    ps.setLong(2, authorId(conn, quote.getAuthor(), authors));
+                    ps.addBatch();
+                    chunk.add(quote);
+                    if(chunk.size() == batchSize) {
+                        created += flushBatch(conn, ps, chunk, authors);
+                    }
+                }
+                if(!chunk.isEmpty()) {
+                    created += flushBatch(conn, ps, chunk, authors);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                COUNT_CACHE.endWrite();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("bulk insert failed after " + created + " rows", e);
+        }
+        return created;
+    }
+
+    // 쌓인 묶음을 실행/커밋하고 생성된 키를 순서대로 할당
+    private int flushBatch(Connection conn, PreparedStatement ps, List<Quote> chunk, Map<String, Long> authors) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            for(Quote quote : chunk) {
+                if(!rs.next()) throw new SQLException("generated keys are missing");
+                quote.setId(rs.getLong(1));
+            }
+        }
+        conn.commit();
+        authors.forEach(AUTHOR_IDS::put);
+        authors.clear();
+
+        int size = chunk.size();
+        COUNT_CACHE.onCreate(size);
+        for(Quote quote : chunk) {
+            indexAdd(quote.getId(), quote.getQuote(), quote.getAuthor());
+        }
+        chunk.clear();
+        return size;
+    }
+
     @Override
     public List<Quote> findAll() {
+        try {
+            return loadAll();
+        } catch (SQLException ignore) {
+        }
+        return List.of();
+    }
+
+    private static List<Quote> loadAll() throws SQLException {
         List<Quote> quotes = new ArrayList<>();
 
-        String sql = """
-                SELECT * FROM quote
-                """;
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = prepare(conn, QueryType.SCAN, SELECT_ALL_SQL);
              ResultSet rs = ps.executeQuery()) {
 
             while(rs.next()) {
@@ -68,21 +381,33 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
                 ));
             }
             return quotes;
-        } catch (SQLException ignore) {
         }
-        return List.of();
     }
 
 
     @Override
-    public Optional<Quote> find(Long id) {
+    public void scanAll(Consumer<Quote> consumer) {
+        //전방 전용 / 읽기 전용 커서로 query.scan.fetchSize(기본 stream: 한 행씩) 만큼씩 받아오며, 전체 결과를 드라이버 메모리에 올리지 않는다
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.SCAN, SCAN_SQL)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while(rs.next()) {
+                    consumer.accept(new Quote(
+                            rs.getLong("quote_id"),
+                            rs.getString("content"),
+                            rs.getString("author")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("quote scan failed", e);
+        }
+    }
 
-        String sql = """
-                SELECT * FROM quote
-                WHERE quote_id = ?
-                """;
+    @Override
+    public Optional<Quote> find(Long id) {
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = prepare(conn, QueryType.FIND, FIND_SQL)) {
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if(rs.next()) {
@@ -100,17 +425,19 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
 
     @Override
     public void delete(Long id) {
-        String sql = """
-                DELETE FROM quote
-                WHERE quote_id = ?
-                """;
-
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = prepare(conn, QueryType.WRITE, DELETE_SQL)) {
             ps.setLong(1, id);
-            int updated = ps.executeUpdate();
-            if(updated != 1) {
-                throw new IllegalArgumentException("unknown id, nothing to delete");
+            COUNT_CACHE.beginWrite();
+            try {
+                int updated = ps.executeUpdate();
+                if(updated != 1) {
+                    throw new IllegalArgumentException("unknown id, nothing to delete");
+                }
+                COUNT_CACHE.onDelete();
+                indexRemove(id);
+            } finally {
+                COUNT_CACHE.endWrite();
             }
         } catch (SQLException ignore) {
         }
@@ -118,21 +445,22 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
 
     @Override
     public void update(Long id, String word, String author) {
-        String sql = """
-                UPDATE quote
-                SET content = ?, author = ?
-                WHERE quote_id = ?
-                """;
-
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = prepare(conn, QueryType.WRITE, UPDATE_SQL)) {
             ps.setString(1, word);
-            ps.setString(2, author);
+            ps.setLong(2, authorId(conn, author));
             ps.setLong(3, id);
 
-            int updated = ps.executeUpdate();
-            if(updated != 1) {
-                throw new IllegalArgumentException("unknown id, nothing to update");
+            COUNT_CACHE.beginWrite();
+            try {
+                int updated = ps.executeUpdate();
+                if(updated != 1) {
+                    throw new IllegalArgumentException("unknown id, nothing to update");
+                }
+                COUNT_CACHE.onUpdate();
+                indexAdd(id, word, author);
+            } finally {
+                COUNT_CACHE.endWrite();
             }
         } catch (SQLException ignore) {
         }
@@ -140,58 +468,92 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
 
     @Override
     public void build() {
-        List<String> quotes = this.findAll().stream()
-                .map(JsonUtils::entityToJson)
-                .toList();
-        String json = JsonUtils.build(quotes);
-        FileUtils.saveBuild(json);
+        try {
+            FileUtils.writeBuildFiles(BUILD_DIR, this::scanAll);
+        } catch (IOException | RuntimeException ignore) {
+        }
     }
 
     @Override
     public PagedQuoteDto findPagedQuote(int page) {
-        String sql = """
-                SELECT COUNT(*) FROM quote
-                """;
+        if(pageQuery == PageQuery.COMBINED) return findPagedQuoteCombined(page);
 
-        int maxPage = 0;
+        //페이징을 위한 레코드 개수 -> 요청 페이지를 마지막 페이지 이내로 제한 (캐시 적중 시 테이블을 읽지 않음)
+        long total = COUNT_CACHE.total(this::countAll);
 
-        //페이징을 위한 레코드 개수 -> 추후 검색 시 ~페이지 범위 까지만 검색
-        //todo: 만약 페이지를 쪼개서 보여주는 경우, 내부 쿼리에 limit 걸어서 count 할 것
+        int maxPage = maxPage(total);
+        int currentPage = clampPage(page, maxPage);
+
+        //OFFSET 은 마지막 페이지 이내로 제한되므로 최대 (maxPage - 1) * PAGE_CNT 행만 건너뛴다
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = prepare(conn, QueryType.PAGE, PAGE_SQL)) {
+            ps.setInt(1, PAGE_CNT);
+            ps.setLong(2, (long) PAGE_CNT * (currentPage - 1));
 
-            if(rs.next()) {
-                maxPage = rs.getInt(1);
-            }
+            return withCursors(maxPage, currentPage, readQuotes(ps));
         } catch (SQLException ignore) {
         }
+        return null;
+    }
 
-        List<Quote> quotes = new ArrayList<>();
+    // 전체 수와 페이지를 한 쿼리로 읽는다
+    private PagedQuoteDto findPagedQuoteCombined(int page) {
+        int currentPage = Math.max(page, 1);
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.PAGE, PAGE_COMBINED_SQL)) {
+            PageRows rows = readPage(ps, 1, currentPage);
+            int maxPage = maxPage(rows.total());
+            if(currentPage > maxPage) {
+                currentPage = maxPage;
+                rows = readPage(ps, 1, currentPage);
+                maxPage = maxPage(rows.total());
+            }
+            return withCursors(maxPage, currentPage, rows.quotes());
+        } catch (SQLException ignore) {
+        }
+        return null;
+    }
 
+    // 번호로 조회한 페이지에 앞 / 뒤 페이지 커서를 붙인다
+    private static PagedQuoteDto withCursors(int maxPage, int currentPage, List<Quote> quotes) {
+        String prevCursor = currentPage > 1 && !quotes.isEmpty()
+                ? PageCursor.prev(quotes.get(0).getId()).encode() : null;
+        String nextCursor = currentPage < maxPage && !quotes.isEmpty()
+                ? PageCursor.next(quotes.get(quotes.size() - 1).getId()).encode() : null;
+        return new PagedQuoteDto(maxPage, currentPage, quotes, prevCursor, nextCursor);
+    }
 
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        if(cursor == null || cursor.isBlank()) return findPagedQuote(1);
+        PageCursor pageCursor = PageCursor.decode(cursor);
 
-        sql = """
-                SELECT *
-                FROM quote
-                ORDER BY quote_id DESC
-                LIMIT ?
-                """;
-        try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int limit = PAGE_CNT * page;
+        long total = COUNT_CACHE.total(this::countAll);
 
-            ps.setInt(1, limit);
-            ResultSet rs = ps.executeQuery();
+        //PK 범위 조건으로 시작 위치를 바로 찾고, 다음 페이지 존재 여부 확인을 위해 한 건 더 읽는다
+        boolean forward = pageCursor.direction() == PageCursor.Direction.NEXT;
+        String sql = forward ? CURSOR_NEXT_SQL : CURSOR_PREV_SQL;
 
-            while(rs.next()) {
-                quotes.add(new Quote(
-                        rs.getLong("quote_id"),
-                        rs.getString("content"),
-                        rs.getString("author")
-                ));
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.PAGE, sql)) {
+            ps.setLong(1, pageCursor.id());
+            ps.setInt(2, PAGE_CNT + 1);
+
+            List<Quote> quotes = readQuotes(ps);
+            boolean hasMore = quotes.size() > PAGE_CNT;
+            if(hasMore) quotes.remove(quotes.size() - 1);
+            if(!forward) Collections.reverse(quotes);
+
+            String prevCursor = null;
+            String nextCursor = null;
+            if(!quotes.isEmpty()) {
+                long first = quotes.get(0).getId();
+                long last = quotes.get(quotes.size() - 1).getId();
+                // 커서를 따라온 방향의 반대편은 항상 존재한다
+                prevCursor = !forward && !hasMore ? null : PageCursor.prev(first).encode();
+                nextCursor = forward && !hasMore ? null : PageCursor.next(last).encode();
             }
-            return new PagedQuoteDto(maxPage, page, quotes);
+            return new PagedQuoteDto(maxPage(total), 0, quotes, prevCursor, nextCursor);
         } catch (SQLException ignore) {
         }
         return null;
@@ -199,45 +561,333 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
 
     @Override
     public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
-        System.out.println(keyword);
+        QuoteSearchIndex index = searchIndex;
+        if(!index.isReady() || System.nanoTime() - searchIndexBuiltAt > SEARCH_INDEX_MAX_AGE_NANOS) {
+            buildSearchIndexAsync();
+        }
+        if(index.isReady()) {
+            return searchByIndex(index, type, keyword, page);
+        }
+        return searchByLike(type, keyword, page);
+    }
 
-        String cntSql = String.format("""
-                SELECT COUNT(*)
-                FROM quote
-                WHERE %s LIKE ?
-                """, type.label());
+    /**
+     * 작가 이름이 정확히 같은 명언을 조회합니다. (quote_id 내림차순, 대소문자 구분)
+     * 이름은 작가 id 캐시나 uk_author_name 색인으로 찾고 명언은 idx_quote_author 로 읽으므로, 테이블을 훑지 않습니다.
+     * @param author 작가 이름
+     * @param page 1부터 시작하는 페이지 번호. 범위를 벗어나면 마지막 페이지로 제한됩니다.
+     * @return 페이지 데이터. 조회에 실패하면 null
+     */
+    public PagedQuoteDto findByAuthor(String author, int page) {
+        if(author == null) throw new IllegalArgumentException("author is required");
+        try (Connection conn = ConnectionManager.getConnection()) {
+            Long authorId = AUTHOR_IDS.get(author);
+            if(authorId == null) {
+                authorId = findAuthorId(conn, author, FIND_AUTHOR_SQL);
+                if(authorId == null) return new PagedQuoteDto(1, 1, List.of());
+                AUTHOR_IDS.put(author, authorId);
+            }
+            return findPageBy(conn, AUTHOR_COUNT_SQL, AUTHOR_PAGE_SQL, authorId, page);
+        } catch (SQLException ignore) {
+        }
+        return null;
+    }
+
+    /**
+     * 작가 이름이 prefix 로 시작하는 명언을 조회합니다. (quote_id 내림차순, 대소문자 구분)
+     * 작가는 uk_author_name 의 범위 검색으로 찾으므로, 부분 일치 검색({@link #search})과 달리 이름 전체를 훑지 않습니다.
+     * @param prefix 작가 이름의 앞부분. % 와 _ 는 문자 그대로 비교합니다.
+     * @param page 1부터 시작하는 페이지 번호. 범위를 벗어나면 마지막 페이지로 제한됩니다.
+     * @return 페이지 데이터. 조회에 실패하면 null
+     */
+    public PagedQuoteDto findByAuthorPrefix(String prefix, int page) {
+        if(prefix == null) throw new IllegalArgumentException("prefix is required");
+        try (Connection conn = ConnectionManager.getConnection()) {
+            return findPageBy(conn, AUTHOR_PREFIX_COUNT_SQL, AUTHOR_PREFIX_PAGE_SQL, prefixPattern(prefix), page);
+        } catch (SQLException ignore) {
+        }
+        return null;
+    }
+
+    // 첫 번째 파라미터(key)만 다른 COUNT / 페이지 쿼리로 번호 페이지를 조회
+    private static PagedQuoteDto findPageBy(Connection conn, String countSql, String pageSql, Object key, int page) throws SQLException {
+        long total = 0;
+        try (PreparedStatement ps = prepare(conn, QueryType.COUNT, countSql)) {
+            ps.setObject(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if(rs.next()) total = rs.getLong(1);
+            }
+        }
+
+        int maxPage = maxPage(total);
+        int currentPage = clampPage(page, maxPage);
+        try (PreparedStatement ps = prepare(conn, QueryType.SEARCH, pageSql)) {
+            ps.setObject(1, key);
+            ps.setInt(2, PAGE_CNT);
+            ps.setLong(3, (long) PAGE_CNT * (currentPage - 1));
+            return new PagedQuoteDto(maxPage, currentPage, readQuotes(ps));
+        }
+    }
 
-        int maxPage = 0;
+    // LIKE 접두어 패턴. 검색어의 \ % _ 는 이스케이프하여 문자 그대로 비교한다
+    private static String prefixPattern(String prefix) {
+        return escapeLike(prefix) + "%";
+    }
+
+    // 부분 일치 검색의 LIKE 패턴. 검색 색인과 같게 소문자로 바꾸고 \ % _ 는 문자 그대로 비교한다
+    private static String containsPattern(String keyword) {
+        return "%" + escapeLike(keyword == null ? "" : keyword.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // 자동 커밋 상태에서 작가 id 를 구한다. 새로 찾거나 등록한 작가는 바로 캐시한다
+    private static long authorId(Connection conn, String name) throws SQLException {
+        Map<String, Long> resolved = new HashMap<>(2);
+        long id = authorId(conn, name, resolved);
+        resolved.forEach(AUTHOR_IDS::put);
+        return id;
+    }
+
+    /**
+     * 작가 이름을 author_id 로 바꾼다. 캐시에 없으면 uk_author_name 으로 찾고, 그래도 없으면 등록한다.
+     * 캐시에 없던 작가는 resolved 에 담기며, 트랜잭션이 커밋된 뒤 호출자가 캐시에 넣는다.
+     */
+    private static long authorId(Connection conn, String name, Map<String, Long> resolved) throws SQLException {
+        if(name == null) throw new SQLException("author must not be null");
+        Long id = resolved.get(name);
+        if(id == null) id = AUTHOR_IDS.get(name);
+        if(id != null) return id;
+
+        id = findAuthorId(conn, name, FIND_AUTHOR_SQL);
+        if(id == null) {
+            try (PreparedStatement ps = prepare(conn, QueryType.WRITE, INSERT_AUTHOR_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, name);
+                if(ps.executeUpdate() == 1) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if(rs.next()) id = rs.getLong(1);
+                    }
+                }
+            }
+            // 다른 커넥션이 먼저 등록했다면 INSERT IGNORE 는 아무 행도 넣지 않는다
+            if(id == null) id = findAuthorId(conn, name, FIND_AUTHOR_LATEST_SQL);
+            if(id == null) throw new SQLException("author id is missing : " + name);
+        }
+        resolved.put(name, id);
+        return id;
+    }
+
+    // 작가 id. 없으면 null
+    private static Long findAuthorId(Connection conn, String name, String sql) throws SQLException {
+        try (PreparedStatement ps = prepare(conn, QueryType.FIND, sql)) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    // 역색인으로 일치하는 id 를 구한 뒤, 요청한 페이지의 행만 기본키로 조회
+    private PagedQuoteDto searchByIndex(QuoteSearchIndex index, SearchQuoteRequest.SearchType type, String keyword, int page) {
+        QuoteSearchIndex.Hits hits = index.search(type, keyword);
+
+        int maxPage = maxPage(hits.total());
+        int currentPage = clampPage(page, maxPage);
+        List<Long> ids = hits.page((long) PAGE_CNT * (currentPage - 1), PAGE_CNT);
+        if(ids.isEmpty()) return new PagedQuoteDto(maxPage, currentPage, List.of());
+
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.SEARCH, FIND_IN_SQL[ids.size()])) {
+            for(int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 1, ids.get(i));
+            }
+            return new PagedQuoteDto(maxPage, currentPage, readQuotes(ps));
+        } catch (SQLException ignore) {
+        }
+        return null;
+    }
+
+    // 색인이 준비되기 전에 사용하는 LIKE '%keyword%' 검색
+    private PagedQuoteDto searchByLike(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        if(pageQuery == PageQuery.COMBINED) return searchByLikeCombined(type, keyword, page);
+
+        //페이지 처리를 위한 레코드 수 확인 (같은 검색어는 쓰기 전까지 캐시된 값을 사용)
+        long total = COUNT_CACHE.search(type, keyword, () -> countSearch(type, keyword));
+
+        int maxPage = maxPage(total);
+        int currentPage = clampPage(page, maxPage);
 
-        //페이지 처리를 위한 레코드 수 확인
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(cntSql)) {
-            ps.setString(1, "%" + keyword + "%");
-            ResultSet rs = ps.executeQuery();
+             PreparedStatement ps = prepare(conn, QueryType.SEARCH, SEARCH_SQL.get(type))) {
+            ps.setString(1, containsPattern(keyword));
+            ps.setInt(2, PAGE_CNT);
+            ps.setLong(3, (long) PAGE_CNT * (currentPage - 1));
 
-            if(rs.next()) {
-                maxPage = rs.getInt(1);
+            return new PagedQuoteDto(maxPage, currentPage, readQuotes(ps));
+        } catch (SQLException ignore) {
+        }
+        return null;
+
+    }
+
+    // 검색 결과 수와 페이지를 한 쿼리로 읽는다
+    private PagedQuoteDto searchByLikeCombined(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        String pattern = containsPattern(keyword);
+        int currentPage = Math.max(page, 1);
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.SEARCH, SEARCH_COMBINED_SQL.get(type))) {
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+            PageRows rows = readPage(ps, 3, currentPage);
+            int maxPage = maxPage(rows.total());
+            if(currentPage > maxPage) {
+                currentPage = maxPage;
+                rows = readPage(ps, 3, currentPage);
+                maxPage = maxPage(rows.total());
             }
+            return new PagedQuoteDto(maxPage, currentPage, rows.quotes());
         } catch (SQLException ignore) {
         }
+        return null;
+    }
 
-        List<Quote> quotes = new ArrayList<>();
+    /**
+     * 검색 색인을 버리고 다음 검색부터 새로 만들게 합니다. 다른 프로세스가 테이블을 바꾼 뒤 호출합니다.
+     * 새 색인이 준비될 때까지는 LIKE 검색으로 대신합니다.
+     */
+    public static void invalidateSearchIndex() {
+        searchIndex = new QuoteSearchIndex();
+    }
 
-        String sql = String.format("""
-                SELECT *
-                FROM quote
-                WHERE %s LIKE ?
-                ORDER BY quote_id DESC
-                LIMIT ?
-                """, type.label());
+    /**
+     * @return 검색이 색인으로 처리되면 true, LIKE 검색으로 대신하는 중이면 false
+     */
+    public static boolean isSearchIndexReady() {
+        return searchIndex.isReady();
+    }
+
+    // 이 프로세스의 쓰기를 검색 중인 색인과 다시 만드는 중인 색인에 모두 반영.
+    // 다시 만드는 쪽을 먼저 읽어야 교체 직전에 들어온 쓰기도 새 색인에 남는다
+    private static void indexAdd(long id, String content, String author) {
+        QuoteSearchIndex rebuilding = rebuildingIndex;
+        if(rebuilding != null) rebuilding.add(id, content, author);
+        searchIndex.add(id, content, author);
+    }
 
+    private static void indexRemove(long id) {
+        QuoteSearchIndex rebuilding = rebuildingIndex;
+        if(rebuilding != null) rebuilding.remove(id);
+        searchIndex.remove(id);
+    }
+
+    // 전체 데이터를 읽어 새 역색인을 백그라운드에서 구축하고, 끝나면 검색 중인 색인과 바꾼다.
+    // 실패하면 이전 색인을 그대로 두고 다음 호출 때 다시 시도한다.
+    private static void buildSearchIndexAsync() {
+        if(!SEARCH_INDEX_BUILDING.compareAndSet(false, true)) return;
+
+        Thread builder = new Thread(() -> {
+            QuoteSearchIndex next = new QuoteSearchIndex();
+            try {
+                next.beginBuild();
+                rebuildingIndex = next;
+                next.completeBuild(loadAll());
+                searchIndexBuiltAt = System.nanoTime();
+                searchIndex = next;
+            } catch (SQLException e) {
+                next.abortBuild();
+            } finally {
+                rebuildingIndex = null;
+                SEARCH_INDEX_BUILDING.set(false);
+            }
+        }, "quote-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    // 검색 종류별 LIKE 조건. 작가는 중복 없이 저장된 author 의 이름만 훑은 뒤 idx_quote_author 로 명언을 찾는다.
+    // 검색 색인(QuoteSearchIndex)과 같은 결과가 나오도록, 콜레이션의 악센트 / 전각 무시 없이 소문자로 바꾼 값을 바이너리로 비교한다
+    private static String searchCondition(SearchQuoteRequest.SearchType type) {
+        return switch (type) {
+            case CONTENT -> "LOWER(CONVERT(q.content USING utf8mb4)) COLLATE utf8mb4_bin LIKE ?";
+            case AUTHOR -> "q.author_id IN (SELECT author_id FROM author WHERE LOWER(name) COLLATE utf8mb4_bin LIKE ?)";
+        };
+    }
+
+    // 전체 레코드 수. 실패 시 -1
+    private long countAll() {
         try (Connection conn = ConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int limit = PAGE_CNT * page;
-            ps.setString(1, "%" + keyword + "%");
-            ps.setInt(2, limit);
-            ResultSet rs = ps.executeQuery();
+             PreparedStatement ps = prepare(conn, QueryType.COUNT, COUNT_SQL);
+             ResultSet rs = ps.executeQuery()) {
+
+            if(rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException ignore) {
+        }
+        return -1;
+    }
 
+    // 검색 결과 레코드 수. 실패 시 -1
+    private long countSearch(SearchQuoteRequest.SearchType type, String keyword) {
+        try (Connection conn = ConnectionManager.getConnection();
+             PreparedStatement ps = prepare(conn, QueryType.COUNT, COUNT_SEARCH_SQL.get(type))) {
+            ps.setString(1, containsPattern(keyword));
+            try (ResultSet rs = ps.executeQuery()) {
+                if(rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException ignore) {
+        }
+        return -1;
+    }
+
+    // 전체 레코드 수로부터 페이지 수 계산 (레코드가 없어도 1페이지)
+    private static int maxPage(long total) {
+        return (int) Math.max(1, (total + PAGE_CNT - 1) / PAGE_CNT);
+    }
+
+    // 요청 페이지를 [1, maxPage] 범위로 제한
+    private static int clampPage(int page, int maxPage) {
+        return Math.min(Math.max(page, 1), maxPage);
+    }
+
+    /**
+     * 페이지 행과 전체 수(cnt 열)를 함께 돌려주는 쿼리를 실행한다.
+     * 페이지가 비어 있으면 quote_id 가 NULL 이고 전체 수만 담긴 행 하나가 나온다.
+     * @param limitIndex LIMIT 파라미터의 위치 (OFFSET 은 그 다음)
+     */
+    private static PageRows readPage(PreparedStatement ps, int limitIndex, int page) throws SQLException {
+        ps.setInt(limitIndex, PAGE_CNT);
+        ps.setLong(limitIndex + 1, (long) PAGE_CNT * (page - 1));
+
+        List<Quote> quotes = new ArrayList<>(PAGE_CNT);
+        long total = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while(rs.next()) {
+                total = rs.getLong("cnt");
+                long id = rs.getLong("quote_id");
+                if(rs.wasNull()) continue;
+                quotes.add(new Quote(id, rs.getString("content"), rs.getString("author")));
+            }
+        }
+        return new PageRows(quotes, total);
+    }
+
+    // 쿼리 종류별 fetch size / 타임아웃(datasource.properties 의 query.*)을 적용한 statement
+    private static PreparedStatement prepare(Connection conn, QueryType type, String sql) throws SQLException {
+        return ConnectionManager.config().query(type).applyTo(conn.prepareStatement(sql));
+    }
+
+    private static PreparedStatement prepare(Connection conn, QueryType type, String sql, int autoGeneratedKeys) throws SQLException {
+        return ConnectionManager.config().query(type).applyTo(conn.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    private static List<Quote> readQuotes(PreparedStatement ps) throws SQLException {
+        List<Quote> quotes = new ArrayList<>(PAGE_CNT + 1);
+        try (ResultSet rs = ps.executeQuery()) {
             while(rs.next()) {
                 quotes.add(new Quote(
                         rs.getLong("quote_id"),
@@ -245,10 +895,7 @@ public class RDBQuoteRepositoryImpl implements QuoteRepository {
                         rs.getString("author")
                 ));
             }
-            return new PagedQuoteDto(maxPage, page, quotes);
-        } catch (SQLException ignore) {
         }
-        return null;
-
+        return quotes;
     }
 }
@@ -10,7 +10,10 @@ public enum Command {
     LIST("목록"),
     DELETE("삭제"),
     UPDATE("수정"),
-    BUILD("빌드");
+    BUILD("빌드"),
+    IMPORT("가져오기"),
+    EXPORT("내보내기"),
+    STATS("통계");
 
     private final String label;
 
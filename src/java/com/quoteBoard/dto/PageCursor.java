@@ -0,0 +1,64 @@
+package com.quoteBoard.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징을 위한 커서. 마지막으로 본 quote_id 를 기준으로 다음/이전 페이지를 조회한다.
+ * 외부에는 {@link #encode()} 로 만든 불투명한 문자열로만 노출한다.
+ * @param direction 조회 방향
+ * @param id 기준이 되는 quote_id (해당 id 는 결과에 포함되지 않음)
+ */
+public record PageCursor(Direction direction, long id) {
+
+    public enum Direction {
+        NEXT('n'), PREV('p');
+
+        private final char code;
+
+        Direction(char code) {
+            this.code = code;
+        }
+
+        private static Direction of(char code) {
+            for(Direction direction : values()) {
+                if(direction.code == code) return direction;
+            }
+            throw new IllegalArgumentException("unknown cursor direction");
+        }
+    }
+
+    public static PageCursor next(long id) {
+        return new PageCursor(Direction.NEXT, id);
+    }
+
+    public static PageCursor prev(long id) {
+        return new PageCursor(Direction.PREV, id);
+    }
+
+    /**
+     * 커서를 URL/쿼리 파라미터에 그대로 쓸 수 있는 문자열로 인코딩한다.
+     * @return base64url(패딩 없음) 문자열
+     */
+    public String encode() {
+        String raw = direction.code + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link #encode()} 로 만든 문자열을 커서로 복원한다.
+     * @param token 인코딩된 커서
+     * @return 복원된 커서
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if(raw.length() < 3 || raw.charAt(1) != ':') throw new IllegalArgumentException("malformed cursor");
+            return new PageCursor(Direction.of(raw.charAt(0)), Long.parseLong(raw.substring(2)));
+        } catch (IllegalArgumentException e) {
+            // Base64 / 숫자 파싱 오류 모두 잘못된 커서로 취급
+            throw new IllegalArgumentException("malformed cursor", e);
+        }
+    }
+}
@@ -4,9 +4,22 @@ import com.quoteBoard.entity.Quote;
 
 import java.util.List;
 
+/**
+ * 페이징된 명언 목록
+ * @param maxPage 전체 페이지 수
+ * @param currentPage 현재 페이지. 커서로 조회한 경우 위치를 알 수 없으므로 0
+ * @param quotes 현재 페이지의 명언 (quote_id 내림차순)
+ * @param prevCursor 이전(더 최신) 페이지 커서, 없으면 null
+ * @param nextCursor 다음(더 오래된) 페이지 커서, 없으면 null
+ */
 public record PagedQuoteDto(
         int maxPage,
         int currentPage,
-        List<Quote> quotes
+        List<Quote> quotes,
+        String prevCursor,
+        String nextCursor
 ) {
+    public PagedQuoteDto(int maxPage, int currentPage, List<Quote> quotes) {
+        this(maxPage, currentPage, quotes, null, null);
+    }
 }
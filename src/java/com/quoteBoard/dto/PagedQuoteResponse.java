@@ -5,7 +5,9 @@ import java.util.List;
 public record PagedQuoteResponse (
         int maxPage,
         int currentPage,
-        List<QuoteResponse> quotes
+        List<QuoteResponse> quotes,
+        String prevCursor,
+        String nextCursor
 )
 {
     public static PagedQuoteResponse from(PagedQuoteDto dto) {
@@ -13,7 +15,9 @@ public record PagedQuoteResponse (
                 dto.maxPage(),
                 dto.currentPage(),
                 dto.quotes().stream().map(p -> new QuoteResponse(p.getId(), p.getAuthor(), p.getQuote()))
-                        .toList()
+                        .toList(),
+                dto.prevCursor(),
+                dto.nextCursor()
         );
     }
 }
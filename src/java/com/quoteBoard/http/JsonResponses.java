@@ -0,0 +1,57 @@
+package com.quoteBoard.http;
+
+import com.quoteBoard.dto.PagedQuoteResponse;
+import com.quoteBoard.dto.QuoteResponse;
+import com.quoteBoard.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 응답 DTO 를 JSON 으로 Writer 에 바로 기록한다. 필드 이름은 record 컴포넌트 이름을 그대로 쓴다.
+ */
+final class JsonResponses {
+
+    private JsonResponses() { }
+
+    static void write(PagedQuoteResponse response, Writer out) throws IOException {
+        out.write("{\"maxPage\":");
+        out.write(Integer.toString(response.maxPage()));
+        out.write(",\"currentPage\":");
+        out.write(Integer.toString(response.currentPage()));
+        out.write(",\"quotes\":[");
+        boolean first = true;
+        for(QuoteResponse quote : response.quotes()) {
+            if(!first) out.write(',');
+            write(quote, out);
+            first = false;
+        }
+        out.write("],\"prevCursor\":");
+        JsonUtils.writeString(response.prevCursor(), out);
+        out.write(",\"nextCursor\":");
+        JsonUtils.writeString(response.nextCursor(), out);
+        out.write('}');
+    }
+
+    static void write(QuoteResponse quote, Writer out) throws IOException {
+        out.write("{\"id\":");
+        out.write(Long.toString(quote.id()));
+        out.write(",\"author\":");
+        JsonUtils.writeString(quote.author(), out);
+        out.write(",\"word\":");
+        JsonUtils.writeString(quote.word(), out);
+        out.write('}');
+    }
+
+    static void writeId(long id, Writer out) throws IOException {
+        out.write("{\"id\":");
+        out.write(Long.toString(id));
+        out.write('}');
+    }
+
+    static void writeError(String message, Writer out) throws IOException {
+        out.write("{\"error\":");
+        JsonUtils.writeString(message, out);
+        out.write('}');
+    }
+}
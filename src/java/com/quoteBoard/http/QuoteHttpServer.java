@@ -0,0 +1,313 @@
+package com.quoteBoard.http;
+
+import com.quoteBoard.dto.*;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.service.AsyncQuoteService;
+import com.quoteBoard.utils.JsonUtils;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 명언 게시판의 HTTP 진입점. {@link com.quoteBoard.controller.SystemController} 의 명령을 REST 로 노출한다.
+ * <pre>
+ * GET    /quotes?page=N                              목록
+ * GET    /quotes?cursor=C                            커서 기반 목록
+ * GET    /quotes?keywordType=author&keyword=K&page=N 검색
+ * GET    /quotes/{id}                                단건 조회
+ * POST   /quotes        {"content":..,"author":..}   등록 → 201, {"id":N}
+ * PUT    /quotes/{id}   {"content":..,"author":..}   수정 → 204
+ * DELETE /quotes/{id}                                삭제 → 204
+ * POST   /build                                      빌드 → 204
+ * </pre>
+ * 요청은 연결마다가 아니라 요청마다 가상 스레드 하나에서 처리되며, 서비스 호출은 {@link AsyncQuoteService} 의
+ * 동시 실행 제한을 따른다. 응답은 chunked 로 바로 스트리밍하고, HTTP/1.1 keep-alive 연결을 재사용한다.
+ * 저장소가 이 프로세스 안에서만 바뀌는 경우(메모리 저장소), 목록/검색 응답에는 서비스 변경 횟수로 만든 ETag 를 붙이며,
+ * If-None-Match 가 같으면 304 를 돌려준다. 다른 프로세스도 쓰는 파일 / DB 저장소는 이 프로세스의 변경 횟수로
+ * 내용이 바뀌었는지 알 수 없으므로 ETag 를 붙이지 않는다.
+ */
+public class QuoteHttpServer implements AutoCloseable {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int RESPONSE_BUFFER_SIZE = 8 * 1024;
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AsyncQuoteService service;
+    // 재시작 후 이전 프로세스의 ETag 와 겹치지 않도록 붙이는 값
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    /**
+     * @param port 포트 (0 이면 임의의 빈 포트)
+     * @param service 요청을 처리할 서비스
+     * @throws IOException 포트를 열지 못한 경우
+     */
+    public QuoteHttpServer(int port, AsyncQuoteService service) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quote-http-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext("/quotes", this::handleQuotes);
+        server.createContext("/build", this::handleBuild);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return 실제로 열린 포트
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 새 연결을 받지 않고, 처리 중인 요청은 최대 1초 기다린 뒤 종료한다.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void handleQuotes(HttpExchange exchange) throws IOException {
+        // 오류 응답은 exchange 를 닫기 전에 보내야 하므로 안쪽에서 처리한다
+        try (exchange) {
+            try {
+                routeQuotes(exchange);
+            } catch (RuntimeException e) {
+                sendInternalError(exchange);
+            }
+        }
+    }
+
+    private void routeQuotes(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+        if(path.equals("/quotes") || path.equals("/quotes/")) {
+            switch (method) {
+                case "GET" -> list(exchange);
+                case "POST" -> create(exchange);
+                default -> methodNotAllowed(exchange, "GET, POST");
+            }
+            return;
+        }
+
+        Long id = parseId(path.substring("/quotes/".length()));
+        if(id == null) {
+            sendError(exchange, 404, "not found");
+            return;
+        }
+        switch (method) {
+            case "GET" -> get(exchange, id);
+            case "PUT" -> update(exchange, id);
+            case "DELETE" -> delete(exchange, id);
+            default -> methodNotAllowed(exchange, "GET, PUT, DELETE");
+        }
+    }
+
+    private void handleBuild(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                if(!exchange.getRequestMethod().equalsIgnoreCase("POST")) {
+                    methodNotAllowed(exchange, "POST");
+                    return;
+                }
+                service.build().join();
+                sendEmpty(exchange, 204);
+            } catch (RuntimeException e) {
+                sendInternalError(exchange);
+            }
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        // 조회 전에 읽어야 응답이 태그보다 오래된 내용이 되지 않는다
+        OptionalLong version = service.version();
+        String etag = version.isPresent() ? "\"" + epoch + "-" + version.getAsLong() + "\"" : null;
+        if(etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            sendEmpty(exchange, 304);
+            return;
+        }
+
+        PagedQuoteResponse response;
+        try {
+            int page = parsePage(query.get("page"));
+            if(query.containsKey("cursor")) {
+                response = service.getList(query.get("cursor")).join();
+            } else if(query.containsKey("keywordType") && query.containsKey("keyword")) {
+                SearchQuoteRequest.SearchType type = parseType(query.get("keywordType"));
+                if(type == null) {
+                    sendError(exchange, 400, "unsupported keywordType");
+                    return;
+                }
+                response = service.search(new SearchQuoteRequest(type, query.get("keyword"), page)).join();
+            } else {
+                response = service.getList(page).join();
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "invalid page or cursor");
+            return;
+        } catch (CompletionException e) {
+            if(!(e.getCause() instanceof IllegalArgumentException)) throw e;
+            sendError(exchange, 400, "invalid page or cursor");
+            return;
+        }
+
+        if(etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        try (Writer out = openJson(exchange, 200)) {
+            JsonResponses.write(response, out);
+        }
+    }
+
+    private void get(HttpExchange exchange, long id) throws IOException {
+        QuoteResponse quote = service.get(id).join();
+        if(quote.id() == -1L) {
+            sendError(exchange, 404, id + "번 명언은 존재하지 않습니다.");
+            return;
+        }
+        try (Writer out = openJson(exchange, 200)) {
+            JsonResponses.write(quote, out);
+        }
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Quote body = readBody(exchange);
+        if(body == null) {
+            sendError(exchange, 400, "content and author are required");
+            return;
+        }
+        long id = service.create(new CreateQuoteDto(body.getQuote(), body.getAuthor())).join();
+        exchange.getResponseHeaders().set("Location", "/quotes/" + id);
+        try (Writer out = openJson(exchange, 201)) {
+            JsonResponses.writeId(id, out);
+        }
+    }
+
+    private void update(HttpExchange exchange, long id) throws IOException {
+        Quote body = readBody(exchange);
+        if(body == null) {
+            sendError(exchange, 400, "content and author are required");
+            return;
+        }
+        try {
+            service.update(new UpdateQuoteDto(id, body.getQuote(), body.getAuthor())).join();
+            sendEmpty(exchange, 204);
+        } catch (CompletionException e) {
+            if(!(e.getCause() instanceof IllegalArgumentException)) throw e;
+            sendError(exchange, 404, id + "번 명언은 존재하지 않습니다.");
+        }
+    }
+
+    private void delete(HttpExchange exchange, long id) throws IOException {
+        try {
+            service.delete(id).join();
+            sendEmpty(exchange, 204);
+        } catch (CompletionException e) {
+            if(!(e.getCause() instanceof IllegalArgumentException)) throw e;
+            sendError(exchange, 404, id + "번 명언은 존재하지 않습니다.");
+        }
+    }
+
+    // {"content":..,"author":..} 형식의 본문. 형식이 잘못됐거나 값이 없으면 null
+    private static Quote readBody(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            Quote quote = JsonUtils.jsonToEntity(new String(body, StandardCharsets.UTF_8));
+            if(quote.getQuote() == null || quote.getAuthor() == null) return null;
+            return quote;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 응답 헤더를 보내고 본문을 chunked 로 스트리밍할 Writer 를 연다
+    private static Writer openJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), RESPONSE_BUFFER_SIZE);
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        drain(exchange);
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        drain(exchange);
+        try (Writer out = openJson(exchange, status)) {
+            JsonResponses.writeError(message, out);
+        }
+    }
+
+    // 응답 헤더를 아직 보내지 않았을 때만 500 을 보낸다. 이미 보냈다면 본문 도중 실패한 것이므로
+    // 헤더를 다시 보내지 않고(IOException 으로 원래 오류가 가려진다) 그대로 닫아 응답을 끝낸다
+    private static void sendInternalError(HttpExchange exchange) throws IOException {
+        if(exchange.getResponseCode() != -1) return;
+        sendError(exchange, 500, "internal error");
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allow) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Allow", allow);
+        sendError(exchange, 405, "method not allowed");
+    }
+
+    // 읽지 않은 요청 본문이 남아 있으면 연결을 재사용할 수 없으므로 비운다
+    private static void drain(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static Long parseId(String raw) {
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parsePage(String raw) {
+        return raw == null ? 1 : Integer.parseInt(raw);
+    }
+
+    private static SearchQuoteRequest.SearchType parseType(String raw) {
+        for(SearchQuoteRequest.SearchType type : SearchQuoteRequest.SearchType.values()) {
+            if(type.label().equalsIgnoreCase(raw)) return type;
+        }
+        return null;
+    }
+
+    // "a=b&c=d" 형식의 쿼리를 디코딩하여 Map 으로 파싱 (중복 키는 마지막 값)
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> map = new HashMap<>();
+        if(rawQuery == null || rawQuery.isEmpty()) return map;
+        for(String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if(eq <= 0) continue;
+            map.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return map;
+    }
+}
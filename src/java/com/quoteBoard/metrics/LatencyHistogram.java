@@ -0,0 +1,90 @@
+package com.quoteBoard.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간(나노초) 분포를 로그-선형 버킷에 기록하는 히스토그램 (HdrHistogram 방식).
+ * <p>
+ * 0 ~ 127 은 값 그대로, 그 이상은 2의 거듭제곱 구간마다 64개의 버킷으로 나눈다.
+ * 따라서 백분위 값의 상대 오차는 1/64(약 1.6%) 이내이고, 메모리는 기록 횟수와 무관하게 고정이다.
+ * 기록은 잠금 없이 여러 스레드에서 동시에 할 수 있다. 1시간을 넘는 값은 1시간으로 기록한다.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    /**
+     * 히스토그램 스냅샷 (나노초)
+     * @param count 기록 횟수
+     * @param mean 평균
+     * @param max 최댓값
+     * @param p50 중앙값
+     * @param p99 99 백분위
+     * @param p999 99.9 백분위
+     */
+    public record Snapshot(long count, double mean, long max, long p50, long p99, long p999) { }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long maxValue = max.get();
+        return new Snapshot(count, count == 0 ? 0 : (double) sum.sum() / count, maxValue,
+                percentile(copy, count, 0.50, maxValue),
+                percentile(copy, count, 0.99, maxValue),
+                percentile(copy, count, 0.999, maxValue));
+    }
+
+    // 누적 횟수가 q 를 넘는 첫 버킷의 상한 (최댓값을 넘지 않게)
+    private static long percentile(long[] counts, long count, double q, long maxValue) {
+        if(count == 0) return 0;
+        long target = (long) Math.ceil(q * count);
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if(seen >= target) return Math.min(highestEquivalent(i), maxValue);
+        }
+        return maxValue;
+    }
+
+    static int index(long value) {
+        if(value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long highestEquivalent(int index) {
+        if(index < 2 * SUB_BUCKETS) return index;
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
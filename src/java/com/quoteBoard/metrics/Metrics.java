@@ -0,0 +1,52 @@
+package com.quoteBoard.metrics;
+
+import dbConfig.ConnectionManager;
+import dbConfig.ConnectionPool;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * {@link MetricsRegistry#global()} 와 커넥션 풀 통계를 JMX 로 노출한다.
+ */
+public class Metrics implements MetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.quoteBoard:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    private Metrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 플랫폼 MBeanServer 에 등록한다. 이미 등록되어 있으면 아무것도 하지 않는다.
+     */
+    public static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if(!server.isRegistered(name)) {
+                server.registerMBean(new Metrics(MetricsRegistry.global()), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        return registry.snapshot();
+    }
+
+    @Override
+    public ConnectionPool.Stats getPool() {
+        return ConnectionManager.poolStats();
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,26 @@
+package com.quoteBoard.metrics;
+
+import dbConfig.ConnectionPool;
+
+import java.util.List;
+
+/**
+ * JMX(jconsole, VisualVM 등)로 노출하는 지표. {@code com.quoteBoard:type=Metrics} 이름으로 등록된다.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return 이름 순으로 정렬된 작업별 통계
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * @return 커넥션 풀 통계
+     */
+    ConnectionPool.Stats getPool();
+
+    /**
+     * 작업별 기록을 0 으로 되돌린다
+     */
+    void reset();
+}
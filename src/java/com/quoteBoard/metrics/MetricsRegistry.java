@@ -0,0 +1,48 @@
+package com.quoteBoard.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름별 {@link OperationMetrics} 를 모아두는 저장소.
+ * 저장소 데코레이터와 커넥션 풀이 같은 인스턴스({@link #global()})에 기록하고, 콘솔 명령과 JMX 가 이를 읽는다.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * @return 프로세스 전체에서 공유하는 레지스트리
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 이름에 해당하는 작업 지표를 반환한다. 없으면 만든다.
+     */
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * @return 이름 순으로 정렬된 모든 작업의 통계
+     */
+    public List<OperationStats> snapshot() {
+        return operations.values().stream()
+                .map(OperationMetrics::stats)
+                .sorted(Comparator.comparing(OperationStats::name))
+                .toList();
+    }
+
+    /**
+     * 모든 작업의 기록을 0 으로 되돌린다. 작업 목록은 그대로 둔다.
+     * 진행 중인 기록과 겹치면 일부는 지우기 전 / 후 어느 쪽에 반영될지 정해지지 않는다.
+     */
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+}
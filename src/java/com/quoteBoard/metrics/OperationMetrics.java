@@ -0,0 +1,51 @@
+package com.quoteBoard.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 작업 하나(저장소 메서드, SQL 문 등)의 지연 분포 / 실패 수 / 행 수.
+ */
+public class OperationMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @param elapsedNanos 걸린 시간
+     * @param rowCount 읽거나 쓴 행 수 (모르면 0)
+     * @param error 실패 여부
+     */
+    public void record(long elapsedNanos, long rowCount, boolean error) {
+        latency.record(elapsedNanos);
+        if(rowCount > 0) rows.add(rowCount);
+        if(error) errors.increment();
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+        rows.reset();
+    }
+
+    public OperationStats stats() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return new OperationStats(name, snapshot.count(), errors.sum(), rows.sum(),
+                snapshot.mean() / NANOS_PER_MILLI,
+                snapshot.p50() / NANOS_PER_MILLI,
+                snapshot.p99() / NANOS_PER_MILLI,
+                snapshot.p999() / NANOS_PER_MILLI,
+                snapshot.max() / NANOS_PER_MILLI);
+    }
+}
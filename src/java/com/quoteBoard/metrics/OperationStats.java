@@ -0,0 +1,18 @@
+package com.quoteBoard.metrics;
+
+/**
+ * 작업 하나의 누적 통계 스냅샷. JMX 로도 그대로 노출된다.
+ * @param name 작업 이름 (예: repository.find, sql SELECT ...)
+ * @param calls 호출 수
+ * @param errors 실패 수
+ * @param rows 읽거나 쓴 행 수의 합
+ * @param meanMillis 평균 지연 (ms)
+ * @param p50Millis 중앙값 (ms)
+ * @param p99Millis 99 백분위 (ms)
+ * @param p999Millis 99.9 백분위 (ms)
+ * @param maxMillis 최대 지연 (ms)
+ */
+public record OperationStats(
+        String name, long calls, long errors, long rows,
+        double meanMillis, double p50Millis, double p99Millis, double p999Millis, double maxMillis
+) { }
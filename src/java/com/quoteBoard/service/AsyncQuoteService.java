@@ -0,0 +1,168 @@
+package com.quoteBoard.service;
+
+import com.quoteBoard.dao.QuoteRepositoryRegistry;
+import com.quoteBoard.dto.*;
+import dbConfig.ConnectionManager;
+
+import java.util.OptionalLong;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * {@link QuoteService} 의 비동기 파사드. 모든 메서드는 즉시 {@link CompletableFuture} 를 반환한다.
+ * <p>
+ * 요청마다 가상 스레드 하나에서 동기 서비스를 호출하므로, JDBC I/O 로 막혀도 플랫폼 스레드를 점유하지 않는다.
+ * 동시에 실행되는 요청 수는 {@link Semaphore} 로 제한한다. rdb 저장소의 기본값은 커넥션 풀 크기와 같아서,
+ * 초과 요청은 풀의 대여 대기(타임아웃 가능) 대신 가상 스레드 위에서 순서대로 기다린다.
+ * 커넥션을 쓰지 않는 file / memory 저장소는 {@link #DEFAULT_MAX_CONCURRENCY} 를 쓴다.
+ * <p>
+ * 실패한 요청의 future 는 서비스가 던진 예외(예: {@link IllegalArgumentException})를 원인으로 하는
+ * {@link CompletionException} 으로 완료된다.
+ */
+public class AsyncQuoteService implements AutoCloseable {
+
+    /**
+     * 커넥션 풀이 없는 저장소(file / memory)에서 동시에 실행할 기본 요청 수
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+    private final QuoteService service;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    /**
+     * storage.properties 에 설정된 저장소를 사용한다. 동시 실행 수는 rdb 이면 커넥션 풀 크기, 그 밖에는 {@link #DEFAULT_MAX_CONCURRENCY} 이다.
+     */
+    public AsyncQuoteService() {
+        this(new QuoteService(), defaultMaxConcurrency());
+    }
+
+    /**
+     * @param service 실제 작업을 수행할 동기 서비스
+     * @param maxConcurrency 동시에 실행할 최대 요청 수
+     */
+    public AsyncQuoteService(QuoteService service, int maxConcurrency) {
+        if(maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency must be positive");
+        this.service = service;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quote-async-", 0).factory());
+    }
+
+    // rdb 가 아니면 커넥션 풀을 쓰지 않으므로 ConnectionManager(MySQL 드라이버, 풀 설정)를 불러오지 않는다
+    private static int defaultMaxConcurrency() {
+        if(!QuoteRepositoryRegistry.RDB.equals(QuoteRepositoryRegistry.configuredBackend())) return DEFAULT_MAX_CONCURRENCY;
+        return ConnectionManager.poolStats().maxSize();
+    }
+
+    /**
+     * @see QuoteService#create(CreateQuoteDto)
+     */
+    public CompletableFuture<Long> create(CreateQuoteDto dto) {
+        return submit(() -> service.create(dto));
+    }
+
+    /**
+     * @see QuoteService#get(Long)
+     */
+    public CompletableFuture<QuoteResponse> get(Long id) {
+        return submit(() -> service.get(id));
+    }
+
+    /**
+     * @see QuoteService#getList(int)
+     */
+    public CompletableFuture<PagedQuoteResponse> getList(int page) {
+        return submit(() -> service.getList(page));
+    }
+
+    /**
+     * @see QuoteService#getList(String)
+     */
+    public CompletableFuture<PagedQuoteResponse> getList(String cursor) {
+        return submit(() -> service.getList(cursor));
+    }
+
+    /**
+     * @see QuoteService#search(SearchQuoteRequest)
+     */
+    public CompletableFuture<PagedQuoteResponse> search(SearchQuoteRequest request) {
+        return submit(() -> service.search(request));
+    }
+
+    /**
+     * @see QuoteService#update(UpdateQuoteDto)
+     */
+    public CompletableFuture<Void> update(UpdateQuoteDto dto) {
+        return submit(() -> {
+            service.update(dto);
+            return null;
+        });
+    }
+
+    /**
+     * @see QuoteService#delete(Long)
+     */
+    public CompletableFuture<Void> delete(Long id) {
+        return submit(() -> {
+            service.delete(id);
+            return null;
+        });
+    }
+
+    /**
+     * @see QuoteService#build()
+     */
+    public CompletableFuture<Void> build() {
+        return submit(() -> {
+            service.build();
+            return null;
+        });
+    }
+
+    /**
+     * @see QuoteService#version()
+     */
+    public OptionalLong version() {
+        return service.version();
+    }
+
+    /**
+     * @return 동시에 실행할 최대 요청 수
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return 실행 자리를 기다리는 요청 수 (추정치)
+     */
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * 새 요청을 받지 않고, 이미 받은 요청이 끝날 때까지 기다린다.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("interrupted while waiting for a slot");
+            }
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+}
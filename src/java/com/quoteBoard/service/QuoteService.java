@@ -1,16 +1,40 @@
 package com.quoteBoard.service;
 
 
+import com.quoteBoard.dao.InstrumentedQuoteRepository;
 import com.quoteBoard.dao.QuoteRepository;
-import com.quoteBoard.dao.RDBQuoteRepositoryImpl;
+import com.quoteBoard.dao.QuoteRepositoryRegistry;
 import com.quoteBoard.dto.*;
 import com.quoteBoard.entity.Quote;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class QuoteService {
 
-    private final QuoteRepository quoteRepository = new RDBQuoteRepositoryImpl();
+    private final QuoteRepository quoteRepository;
+    private final QuoteTransfer transfer;
+    // 이 서비스를 거친 변경(등록/수정/삭제/가져오기) 횟수
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * storage.properties 에 설정된 저장소를 사용한다.
+     * @see QuoteRepositoryRegistry
+     */
+    public QuoteService() {
+        this(new InstrumentedQuoteRepository(QuoteRepositoryRegistry.fromConfig()));
+    }
+
+    /**
+     * @param quoteRepository 사용할 저장소
+     */
+    public QuoteService(QuoteRepository quoteRepository) {
+        this.quoteRepository = quoteRepository;
+        this.transfer = new QuoteTransfer(quoteRepository);
+    }
 
 
     /**
@@ -21,6 +45,7 @@ public class QuoteService {
     public Long create(CreateQuoteDto dto) {
         Quote quote = new Quote(dto.quote(), dto.author());
         quoteRepository.create(quote);
+        version.incrementAndGet();
 
         return quote.getId();
     }
@@ -35,6 +60,18 @@ public class QuoteService {
         return PagedQuoteResponse.from(dto);
     }
 
+    /**
+     * 커서 기반 명언 리스트 검색 및 반환
+     * @param cursor 이전 응답의 prev/next 커서
+     * @return 커서 위치의 명언 리스트
+     * @throws IllegalArgumentException 커서 형식이 올바르지 않은 경우
+     */
+    public PagedQuoteResponse getList(String cursor) {
+        PagedQuoteDto dto = quoteRepository.findPagedQuoteByCursor(cursor);
+
+        return PagedQuoteResponse.from(dto);
+    }
+
     /**
      * id에 대한 단건 조회 메서드
      * @param id 검색할 이이디
@@ -52,6 +89,7 @@ public class QuoteService {
      */
     public void delete(Long id) {
         quoteRepository.delete(id);
+        version.incrementAndGet();
     }
 
 
@@ -61,7 +99,7 @@ public class QuoteService {
      */
     public void update(UpdateQuoteDto dto) {
         quoteRepository.update(dto.id(), dto.word(), dto.author());
-
+        version.incrementAndGet();
     }
 
     /**
@@ -83,4 +121,42 @@ public class QuoteService {
 
         return PagedQuoteResponse.from(dto);
     }
+
+    /**
+     * 파일(.jsonl / .csv / .qsnap)의 명언을 대량으로 가져온다.
+     * @param file 읽을 파일
+     * @param listener 진행 상황을 받을 함수
+     * @return 처리 결과
+     * @throws IllegalArgumentException 지원하지 않는 확장자인 경우
+     * @throws IOException 파일을 읽지 못한 경우
+     */
+    public QuoteTransfer.Result importFrom(Path file, QuoteTransfer.ProgressListener listener) throws IOException {
+        try {
+            return transfer.importFrom(file, listener);
+        } finally {
+            version.incrementAndGet(); // 일부만 저장된 경우도 변경으로 본다
+        }
+    }
+
+    /**
+     * 모든 명언을 파일(.jsonl / .csv / .qsnap)로 내보낸다.
+     * @param file 기록할 파일
+     * @param listener 진행 상황을 받을 함수
+     * @return 처리 결과
+     * @throws IllegalArgumentException 지원하지 않는 확장자인 경우
+     * @throws IOException 쓰기 오류
+     */
+    public QuoteTransfer.Result exportTo(Path file, QuoteTransfer.ProgressListener listener) throws IOException {
+        return transfer.exportTo(file, listener);
+    }
+
+    /**
+     * 이 서비스를 거친 변경 횟수. 값이 같으면 그 사이 목록/검색 결과가 바뀌지 않았다고 볼 수 있다(ETag 용).
+     * 파일 / DB 저장소는 다른 프로세스가 바꿀 수 있어 이 값으로는 변경을 알 수 없으므로,
+     * {@link QuoteRepository#processLocal()} 인 저장소에서만 값을 반환한다.
+     * @return 변경 횟수, 저장소가 다른 프로세스와 공유될 수 있으면 빈 값
+     */
+    public OptionalLong version() {
+        return quoteRepository.processLocal() ? OptionalLong.of(version.get()) : OptionalLong.empty();
+    }
 }
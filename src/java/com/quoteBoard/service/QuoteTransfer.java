@@ -0,0 +1,364 @@
+package com.quoteBoard.service;
+
+import com.quoteBoard.dao.QuoteRepository;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.CsvUtils;
+import com.quoteBoard.utils.FileUtils;
+import com.quoteBoard.utils.JsonUtils;
+import com.quoteBoard.utils.QuoteSnapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * JSON Lines / CSV / 스냅샷({@link QuoteSnapshot}) 파일과 저장소 사이의 대량 가져오기 / 내보내기.
+ * <p>
+ * 가져오기는 세 단계가 크기가 제한된 큐로 연결된 파이프라인이다.
+ * <ol>
+ *     <li>읽기 스레드가 파일에서 레코드 원문을 {@link QuoteRepository#DEFAULT_BATCH_SIZE} 개씩 묶는다.</li>
+ *     <li>파싱 스레드들이 묶음을 병렬로 Quote 로 바꾼다. 형식이 잘못된 레코드는 건너뛰고 개수만 센다.</li>
+ *     <li>호출 스레드가 묶음을 파일 순서대로 다시 정렬해 {@link QuoteRepository#createAll} 로 저장한다.</li>
+ * </ol>
+ * 큐가 가득 차면 앞 단계가 기다리므로, 저장소가 느려도 메모리 사용량은 일정하다.
+ * 스냅샷은 문자열 파싱 없이 블록 단위로 압축만 풀면 되므로, 파싱 스레드들이 블록을 미리 풀어 두고 호출 스레드가 순서대로 저장한다.
+ * 파일의 id 는 무시하고 저장소가 새 id 를 할당한다.
+ */
+public class QuoteTransfer {
+
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    /**
+     * 파일 형식. 확장자로 구분한다.
+     */
+    public enum Format {
+        JSONL(".jsonl"),
+        CSV(".csv"),
+        SNAPSHOT(QuoteSnapshot.EXTENSION);
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @param file 파일 경로
+         * @return 확장자에 맞는 형식
+         * @throws IllegalArgumentException 지원하지 않는 확장자인 경우
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for(Format format : values()) {
+                if(name.endsWith(format.extension)) return format;
+            }
+            throw new IllegalArgumentException("unsupported file format: " + name);
+        }
+    }
+
+    /**
+     * 진행 상황을 받을 함수
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param rows 지금까지 처리한 건수
+         * @param rowsPerSecond 시작 이후 초당 처리 건수
+         */
+        void onProgress(long rows, double rowsPerSecond);
+    }
+
+    /**
+     * 처리 결과
+     * @param rows 처리한 건수
+     * @param skipped 형식이 올바르지 않아 건너뛴 건수
+     * @param elapsedNanos 걸린 시간
+     */
+    public record Result(long rows, long skipped, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    // 파이프라인 단계 사이를 오가는 묶음. seq 는 파일 순서, END 는 종료 신호
+    private record RawChunk(long seq, List<String> records) { }
+    private record ParsedChunk(long seq, List<Quote> quotes, int skipped) { }
+    private static final RawChunk RAW_END = new RawChunk(-1, List.of());
+    private static final ParsedChunk PARSED_END = new ParsedChunk(-1, List.of(), 0);
+
+    private final QuoteRepository repository;
+    private final int batchSize;
+    private final int parsers;
+
+    public QuoteTransfer(QuoteRepository repository) {
+        this(repository, QuoteRepository.DEFAULT_BATCH_SIZE, Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /**
+     * @param repository 대상 저장소
+     * @param batchSize 묶음 크기(= 저장소 배치 크기)
+     * @param parsers 파싱 스레드 수
+     */
+    public QuoteTransfer(QuoteRepository repository, int batchSize, int parsers) {
+        if(batchSize <= 0 || parsers <= 0) throw new IllegalArgumentException("batchSize and parsers must be positive");
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.parsers = parsers;
+    }
+
+    /**
+     * 파일의 명언을 모두 저장소에 추가한다.
+     * @param file 읽을 파일 (.jsonl / .csv / .qsnap)
+     * @param listener 진행 상황을 받을 함수 (약 1초 간격)
+     * @return 처리 결과
+     * @throws IllegalArgumentException 지원하지 않는 확장자인 경우
+     * @throws IOException 파일을 읽지 못한 경우 (스냅샷이 손상된 경우 포함)
+     */
+    public Result importFrom(Path file, ProgressListener listener) throws IOException {
+        Format format = Format.of(file);
+        if(format == Format.SNAPSHOT) return importSnapshot(file, listener);
+        BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+
+        BlockingQueue<RawChunk> raw = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ParsedChunk> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>(parsers + 1);
+
+        threads.add(start("quote-import-reader", () -> {
+            try (in) {
+                read(in, format, raw);
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                for(int i = 0; i < parsers; i++) putEnd(raw, RAW_END);
+            }
+        }));
+        for(int i = 0; i < parsers; i++) {
+            threads.add(start("quote-import-parser-" + i, () -> {
+                try {
+                    parse(format, raw, parsed);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    putEnd(parsed, PARSED_END);
+                }
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        try {
+            // 파싱은 병렬이므로 묶음이 순서 없이 도착한다. 다음 순번이 올 때까지 잠시 보관한다.
+            Map<Long, ParsedChunk> pending = new HashMap<>();
+            long nextSeq = 0;
+            long lastReport = startedAt;
+            int finished = 0;
+            while(finished < parsers) {
+                ParsedChunk chunk = parsed.take();
+                if(chunk == PARSED_END) {
+                    finished++;
+                    continue;
+                }
+                pending.put(chunk.seq(), chunk);
+                for(ParsedChunk ready; (ready = pending.remove(nextSeq)) != null; nextSeq++) {
+                    if(!ready.quotes().isEmpty()) rows += repository.createAll(ready.quotes(), batchSize);
+                    skipped += ready.skipped();
+                }
+                long now = System.nanoTime();
+                if(now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    listener.onProgress(rows, rows * 1_000_000_000.0 / (now - startedAt));
+                    lastReport = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("import interrupted", e);
+        } finally {
+            // 저장 실패 등으로 먼저 끝난 경우 앞 단계가 큐에서 기다리지 않도록 중단
+            threads.forEach(Thread::interrupt);
+        }
+
+        Throwable error = failure.get();
+        if(error instanceof IOException e) throw e;
+        if(error instanceof RuntimeException e) throw e;
+        return new Result(rows, skipped, System.nanoTime() - startedAt);
+    }
+
+    // 블록을 파싱 스레드들이 최대 QUEUE_CAPACITY 개 앞서 풀어 두고, 파일 순서대로 저장한다
+    private Result importSnapshot(Path file, ProgressListener listener) throws IOException {
+        long startedAt = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        ExecutorService decoders = Executors.newFixedThreadPool(parsers, task -> {
+            Thread thread = new Thread(task, "quote-import-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (QuoteSnapshot.SnapshotReader reader = QuoteSnapshot.open(file)) {
+            Deque<Future<List<Quote>>> pending = new ArrayDeque<>();
+            int next = 0;
+            long lastReport = startedAt;
+            while(next < reader.blockCount() || !pending.isEmpty()) {
+                while(next < reader.blockCount() && pending.size() < QUEUE_CAPACITY) {
+                    int block = next++;
+                    pending.add(decoders.submit(() -> reader.readBlock(block)));
+                }
+                List<Quote> quotes = pending.remove().get();
+                int before = quotes.size();
+                quotes.removeIf(quote -> quote.getQuote() == null || quote.getAuthor() == null);
+                skipped += before - quotes.size();
+                if(!quotes.isEmpty()) rows += repository.createAll(quotes, batchSize); // id 는 저장소가 새로 할당
+
+                long now = System.nanoTime();
+                if(now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    listener.onProgress(rows, rows * 1_000_000_000.0 / (now - startedAt));
+                    lastReport = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("import interrupted", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException cause) throw cause;
+            if(e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IOException(e.getCause());
+        } finally {
+            decoders.shutdownNow();
+        }
+        return new Result(rows, skipped, System.nanoTime() - startedAt);
+    }
+
+    /**
+     * 저장소의 모든 명언을 파일로 내보낸다. 임시 파일에 기록한 뒤 원자적으로 교체한다.
+     * @param file 기록할 파일 (.jsonl / .csv / .qsnap)
+     * @param listener 진행 상황을 받을 함수 (약 1초 간격)
+     * @return 처리 결과
+     * @throws IllegalArgumentException 지원하지 않는 확장자인 경우
+     * @throws IOException 쓰기 오류
+     */
+    public Result exportTo(Path file, ProgressListener listener) throws IOException {
+        Format format = Format.of(file);
+        long startedAt = System.nanoTime();
+        long[] rows = new long[1];
+        long[] lastReport = { startedAt };
+
+        Consumer<Quote> progress = quote -> {
+            rows[0]++;
+            long now = System.nanoTime();
+            if(now - lastReport[0] >= PROGRESS_INTERVAL_NANOS) {
+                listener.onProgress(rows[0], rows[0] * 1_000_000_000.0 / (now - startedAt));
+                lastReport[0] = now;
+            }
+        };
+
+        Path parent = file.toAbsolutePath().getParent();
+        if(parent != null) Files.createDirectories(parent);
+        try {
+            if(format == Format.SNAPSHOT) {
+                QuoteSnapshot.write(file, consumer -> repository.scanAll(consumer.andThen(progress)));
+                return new Result(rows[0], 0, System.nanoTime() - startedAt);
+            }
+            FileUtils.writeAtomically(file, writer -> {
+                if(format == Format.CSV) writer.write(CsvUtils.HEADER + "\n");
+                repository.scanAll(quote -> {
+                    try {
+                        if(format == Format.CSV) CsvUtils.writeRow(quote, writer);
+                        else JsonUtils.writeLine(quote, writer);
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    progress.accept(quote);
+                });
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Result(rows[0], 0, System.nanoTime() - startedAt);
+    }
+
+    // 레코드 원문을 묶음 단위로 큐에 넣는다
+    private void read(BufferedReader in, Format format, BlockingQueue<RawChunk> raw) throws IOException {
+        long seq = 0;
+        List<String> records = new ArrayList<>(batchSize);
+        boolean first = true;
+        String record;
+        while((record = format == Format.CSV ? CsvUtils.readRecord(in) : in.readLine()) != null) {
+            if(first) {
+                first = false;
+                if(record.startsWith("\uFEFF")) record = record.substring(1); // BOM
+                if(format == Format.CSV && record.equals(CsvUtils.HEADER)) continue;
+            }
+            if(record.isBlank()) continue;
+            records.add(record);
+            if(records.size() == batchSize) {
+                if(!offer(raw, new RawChunk(seq++, records))) return;
+                records = new ArrayList<>(batchSize);
+            }
+        }
+        if(!records.isEmpty()) offer(raw, new RawChunk(seq, records));
+    }
+
+    private static void parse(Format format, BlockingQueue<RawChunk> raw, BlockingQueue<ParsedChunk> parsed) {
+        while(true) {
+            RawChunk chunk;
+            try {
+                chunk = raw.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if(chunk == RAW_END) return;
+
+            List<Quote> quotes = new ArrayList<>(chunk.records().size());
+            int skipped = 0;
+            for(String record : chunk.records()) {
+                try {
+                    Quote quote = format == Format.CSV ? CsvUtils.parseRow(record) : JsonUtils.jsonToEntity(record);
+                    if(quote.getQuote() == null || quote.getAuthor() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    quotes.add(new Quote(quote.getQuote(), quote.getAuthor())); // id 는 저장소가 새로 할당
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+            if(!offer(parsed, new ParsedChunk(chunk.seq(), quotes, skipped))) return;
+        }
+    }
+
+    // 중단되면 false
+    private static <T> boolean offer(BlockingQueue<T> queue, T item) {
+        try {
+            queue.put(item);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    // 종료 신호를 넣는다. 중단된 경우 남은 묶음은 어차피 버려지므로 자리를 비워서라도 넣는다
+    private static <T> void putEnd(BlockingQueue<T> queue, T end) {
+        try {
+            queue.put(end);
+        } catch (InterruptedException e) {
+            while(!queue.offer(end)) queue.poll();
+        }
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
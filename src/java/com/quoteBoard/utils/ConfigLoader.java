@@ -0,0 +1,126 @@
+package com.quoteBoard.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 여러 출처의 설정 값을 합쳐 읽는 유틸리티. 뒤의 출처가 앞의 값을 덮어쓴다.
+ * <ol>
+ *     <li>코드의 기본값</li>
+ *     <li>properties 파일 (없으면 건너뛴다)</li>
+ *     <li>환경 변수 : 키를 대문자로, '.' 을 '_' 로 바꾸고 접두사를 붙인 이름 (db.host → QUOTEBOARD_DB_HOST).
+ *     대소문자 정보가 사라지므로 기본값이나 파일에 이미 있는 키만 덮어쓴다.</li>
+ *     <li>시스템 프로퍼티 : 접두사를 붙인 키 그대로 (-Dquoteboard.db.host=...). 새 키도 추가할 수 있다.</li>
+ * </ol>
+ */
+public class ConfigLoader {
+
+    private final String source;
+    private final Map<String, String> values;
+
+    private ConfigLoader(String source, Map<String, String> values) {
+        this.source = source;
+        this.values = values;
+    }
+
+    /**
+     * 기본값, 파일, 환경 변수, 시스템 프로퍼티 순서로 설정을 읽는다.
+     * @param file properties 파일 (UTF-8)
+     * @param prefix 환경 변수 / 시스템 프로퍼티 접두사 (예: "quoteboard")
+     * @param defaults 기본값
+     * @return 합쳐진 설정
+     * @throws IllegalArgumentException 파일을 읽을 수 없는 경우
+     */
+    public static ConfigLoader load(Path file, String prefix, Map<String, String> defaults) {
+        return load(file, prefix, defaults, System.getenv(), System.getProperties());
+    }
+
+    static ConfigLoader load(Path file, String prefix, Map<String, String> defaults,
+                             Map<String, String> env, Properties system) {
+        Map<String, String> values = new TreeMap<>(defaults);
+
+        Properties fromFile = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            fromFile.load(reader);
+        } catch (NoSuchFileException ignore) {
+            // 파일 없이 기본값 / 환경 변수만으로도 동작한다
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cannot read config file: " + file, e);
+        }
+        fromFile.stringPropertyNames().forEach(key -> values.put(key, fromFile.getProperty(key).trim()));
+
+        String envPrefix = prefix.toUpperCase(Locale.ROOT) + "_";
+        for(String key : List.copyOf(values.keySet())) {
+            String value = env.get(envPrefix + key.toUpperCase(Locale.ROOT).replace('.', '_'));
+            if(value != null) values.put(key, value.trim());
+        }
+
+        String systemPrefix = prefix + ".";
+        for(String name : system.stringPropertyNames()) {
+            if(name.startsWith(systemPrefix)) {
+                values.put(name.substring(systemPrefix.length()), system.getProperty(name).trim());
+            }
+        }
+        return new ConfigLoader(file.toString(), values);
+    }
+
+    /**
+     * @return 값. 없으면 {@link IllegalArgumentException}
+     */
+    public String get(String key) {
+        String value = values.get(key);
+        if(value == null) throw new IllegalArgumentException("missing config '" + key + "' (" + source + ")");
+        return value;
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key) {
+        String value = get(key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value);
+        }
+    }
+
+    public long getLong(String key) {
+        String value = get(key);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value);
+        }
+    }
+
+    public boolean getBoolean(String key) {
+        String value = get(key);
+        if(value.equalsIgnoreCase("true")) return true;
+        if(value.equalsIgnoreCase("false")) return false;
+        throw invalid(key, value);
+    }
+
+    /**
+     * prefix 로 시작하는 키들을 prefix 를 뗀 이름으로 반환한다.
+     * @param prefix 예: "db.property."
+     * @return 키 순서로 정렬된 Map
+     */
+    public Map<String, String> withPrefix(String prefix) {
+        Map<String, String> result = new TreeMap<>();
+        values.forEach((key, value) -> {
+            if(key.startsWith(prefix)) result.put(key.substring(prefix.length()), value);
+        });
+        return result;
+    }
+
+    private IllegalArgumentException invalid(String key, String value) {
+        return new IllegalArgumentException("invalid config '" + key + "' = '" + value + "' (" + source + ")");
+    }
+}
@@ -0,0 +1,141 @@
+package com.quoteBoard.utils;
+
+import com.quoteBoard.entity.Quote;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quote 의 CSV(RFC 4180) 직렬화/역직렬화 유틸리티.
+ * 열 순서는 {@code id,content,author} 이며, 쉼표 / 따옴표 / 줄바꿈이 있는 값만 따옴표로 감싼다.
+ * 따옴표 안의 줄바꿈을 허용하므로 한 레코드가 여러 줄에 걸칠 수 있으며, 그 안의 \r\n / \r 도 그대로 보존한다.
+ * null 과 빈 문자열을 구분하기 위해 null 은 따옴표 없는 빈 열, 빈 문자열은 {@code ""} 로 기록한다.
+ */
+public class CsvUtils {
+
+    public static final String HEADER = "id,content,author";
+
+    /**
+     * Quote 를 CSV 한 레코드로 기록한다. 줄바꿈은 붙이지 않는다.
+     * @param quote 직렬화할 엔티티
+     * @param out 기록할 대상
+     */
+    public static void writeRow(Quote quote, Appendable out) {
+        try {
+            if(quote.getId() != null) out.append(Long.toString(quote.getId()));
+            out.append(',');
+            writeField(quote.getQuote(), out);
+            out.append(',');
+            writeField(quote.getAuthor(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeField(String value, Appendable out) throws IOException {
+        if(value == null) return;
+        boolean quote = value.isEmpty();
+        for(int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if(!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        int start = 0;
+        for(int i = 0; i < value.length(); i++) {
+            if(value.charAt(i) != '"') continue;
+            out.append(value, start, i + 1).append('"'); // 따옴표는 두 번 기록
+            start = i + 1;
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+
+    /**
+     * 레코드 하나를 한 글자씩 읽는다. 따옴표 밖의 \n / \r\n / \r 에서 레코드가 끝나며, 따옴표 안의 줄바꿈은 원문 그대로 둔다.
+     * @param in 입력 (\r 다음 글자를 확인하기 위해 mark / reset 을 사용한다)
+     * @return 줄바꿈을 뺀 레코드 원문, 입력 끝이면 null
+     * @throws IOException 읽기 오류
+     */
+    public static String readRecord(BufferedReader in) throws IOException {
+        int c = in.read();
+        if(c == -1) return null;
+        StringBuilder sb = new StringBuilder(128);
+        boolean quoted = false;
+        for(; c != -1; c = in.read()) {
+            // 따옴표 안의 "" 는 두 번 뒤집히므로 따옴표 상태가 유지된다
+            if(c == '"') {
+                quoted = !quoted;
+            } else if(!quoted && (c == '\n' || c == '\r')) {
+                if(c == '\r') {
+                    in.mark(1);
+                    if(in.read() != '\n') in.reset();
+                }
+                return sb.toString();
+            }
+            sb.append((char) c);
+        }
+        return sb.toString(); // 닫히지 않은 따옴표는 파싱 단계에서 걸러진다
+    }
+
+    /**
+     * 레코드 원문을 Quote 로 읽는다. id 열이 비어 있으면 id 는 null 이다.
+     * 따옴표 없는 빈 열은 null, {@code ""} 는 빈 문자열로 읽는다.
+     * @param record {@link #readRecord(BufferedReader)} 가 반환한 레코드
+     * @return 역직렬화된 Quote
+     * @throws IllegalArgumentException 열 개수나 형식이 올바르지 않은 경우
+     */
+    public static Quote parseRow(String record) {
+        List<String> fields = parseFields(record);
+        if(fields.size() != 3) throw new IllegalArgumentException("expected 3 columns but was " + fields.size());
+        String id = fields.get(0) == null ? "" : fields.get(0).trim();
+        try {
+            return new Quote(id.isEmpty() ? null : Long.parseLong(id), fields.get(1), fields.get(2));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid id: " + id);
+        }
+    }
+
+    // 따옴표 없는 빈 열은 null
+    private static List<String> parseFields(String record) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while(true) {
+            field.setLength(0);
+            String value;
+            if(i < record.length() && record.charAt(i) == '"') {
+                i++;
+                while(true) {
+                    if(i >= record.length()) throw new IllegalArgumentException("unterminated quoted field");
+                    char c = record.charAt(i++);
+                    if(c != '"') {
+                        field.append(c);
+                    } else if(i < record.length() && record.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if(i < record.length() && record.charAt(i) != ',') {
+                    throw new IllegalArgumentException("unexpected character after quoted field at " + i);
+                }
+                value = field.toString();
+            } else {
+                int end = record.indexOf(',', i);
+                if(end < 0) end = record.length();
+                value = end == i ? null : record.substring(i, end);
+                i = end;
+            }
+            fields.add(value);
+            if(i >= record.length()) return fields;
+            i++; // ','
+        }
+    }
+}
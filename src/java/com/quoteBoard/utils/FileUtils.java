@@ -1,142 +1,170 @@
 package com.quoteBoard.utils;
 
+import com.quoteBoard.entity.Quote;
+
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * 파일 시스템을 이용해 명언 데이터를 저장/조회/삭제/빌드하는 유틸리티.
+ * 파일 저장소의 보조 파일을 다루는 유틸리티.
+ * 빌드 결과를 원자적으로 기록하고, lastId.txt 를 관리하며, 이전 저장 방식({id}.json) 파일을 가져올 때 읽는다.
+ * 명언 자체의 저장 / 조회 / 삭제는 {@link com.quoteBoard.dao.QuoteLogStore} 가 맡는다.
  * <p>
  * 기본 디렉터리 구조:
  * <pre>
  * db/
  *  └─ wiseSaying/
- *      ├─ {id}.json      // 단건 데이터
+ *      ├─ {id}.json      // 단건 데이터 (이전 저장 방식, 최초 실행 시 quotes.log 로 가져온다)
+ *      ├─ quotes.log     // 단일 append-only 저장 파일 (QuoteLogStore)
  *      ├─ data.json      // build 결과(배치/목록 파일)
+ *      ├─ data.qsnap     // build 결과와 같은 내용의 바이너리 스냅샷 (QuoteSnapshot)
+ *      ├─ data.manifest  // 변경분 빌드 정보와 data.delta-*.jsonl 목록 (IncrementalBuildRepository)
  *      └─ lastId.txt     // 다음에 부여할 ID 관리
  * </pre>
  */
 public class FileUtils {
 
-    /**
-     * 주어진 ID에 대응하는 JSON 파일 경로를 반환한다.
-     * @param id 엔티티 ID
-     * @return db/wiseSaying/{id}.json
-     */
-    private static Path getPath(Long id) {
-        return Path.of("db", "wiseSaying", id + ".json");
-    }
-
-    /**
-     * 명언 저장 디렉터리 경로를 반환한다.
-     * @return db/wiseSaying
-     */
-    private static Path getPath() {
-        return Path.of("db", "wiseSaying");
-    }
+    private static final int BUILD_BUFFER_SIZE = 64 * 1024;
 
     /**
-     * 다음에 부여할 ID(lastId)를 읽어 반환한다.
-     * 읽기에 실패하면 1L을 기록하고 1L을 반환한다.
+     * 주어진 디렉터리의 lastId.txt 에서 다음에 부여할 ID 를 읽어 반환한다.
+     * 파일이 없으면 1L 을 반환한다. 파일이 있는데 읽을 수 없으면 1 로 되돌리지 않고 예외를 던진다.
+     * (되돌리면 이미 발급한 id 를 다시 발급하게 된다)
+     * @param dir 데이터 디렉터리
      * @return 마지막 ID(다음에 부여할 값)
+     * @throws IOException 파일이 있지만 읽거나 해석할 수 없는 경우
      */
-    public static Long getMaxNumber() {
-        Path path = Path.of("db", "wiseSaying", "lastId.txt");
+    public static Long getMaxNumber(Path dir) throws IOException {
+        Path path = dir.resolve("lastId.txt");
+        String content;
         try {
-            return Long.parseLong(Files.readString(path));
-        } catch (Exception e) {
-            // 초기화: 파일이 없거나 파싱 실패 시 1로 세팅
-            putMaxNumber(1L);
+            content = Files.readString(path);
+        } catch (NoSuchFileException e) {
+            return 1L;
+        }
+        try {
+            long number = Long.parseLong(content.trim());
+            if(number < 1) throw new IOException("invalid lastId in " + path + ": " + number);
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IOException("corrupted lastId file: " + path, e);
         }
-        return 1L;
     }
 
     /**
-     * 다음에 부여할 ID(lastId)를 기록한다.
+     * 주어진 디렉터리의 lastId.txt 에 다음에 부여할 ID 를 기록한다.
+     * 같은 디렉터리의 임시 파일에 기록하고 디스크에 반영한 뒤 원자적으로 교체하므로,
+     * 쓰는 도중 종료되어도 비어 있거나 잘린 lastId.txt 가 남지 않는다.
+     * @param dir 데이터 디렉터리
      * @param number 기록할 값
+     * @throws IOException 쓰기 오류
      */
-    public static void putMaxNumber(Long number) {
-        Path path = Path.of("db", "wiseSaying", "lastId.txt");
+    public static void putMaxNumber(Path dir, Long number) throws IOException {
+        Path path = dir.resolve("lastId.txt");
+        Path tmp = Files.createTempFile(dir, "lastId.", ".tmp");
         try {
-            Files.writeString(path, number.toString());
-        } catch (Exception ignore) { }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(number.toString().getBytes(StandardCharsets.UTF_8));
+                while(buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
     }
 
     /**
-     * 단건 JSON 파일을 저장한다. 경로가 없으면 디렉터리를 생성한다.
-     * @param id 파일명에 사용할 ID
-     * @param content JSON 문자열
-     * @throws IOException 쓰기 오류
+     * data.json 등 파일에 내용을 기록하는 함수
      */
-    public static void save(Long id, String content) throws IOException {
-        Path path = getPath(id);
-        try {
-            Files.writeString(path, content);
-        } catch (NoSuchFileException e) {
-            // 상위 디렉터리 없으면 생성 후 재시도
-            Files.createDirectories(path.getParent());
-            Files.writeString(path, content);
-        }
+    @FunctionalInterface
+    public interface BuildWriter {
+        void writeTo(Writer writer) throws IOException;
     }
 
     /**
-     * 빌드 결과(data.json)를 저장한다.
-     * @param content 집계/빌드된 JSON 문자열
+     * 빌드 결과(data.json)를 스트리밍으로 기록한다.
+     * 같은 디렉터리의 임시 파일에 버퍼링된 채널 writer 로 기록한 뒤, 디스크에 반영하고 data.json 위로 원자적으로 이동한다.
+     * 기록 도중 실패하면 임시 파일을 지우고 기존 data.json 은 그대로 둔다.
+     * @param dir 데이터 디렉터리
+     * @param content 내용을 기록할 함수
+     * @throws IOException 쓰기 오류
      */
-    public static void saveBuild(String content) {
-        Path path = Path.of("db", "wiseSaying", "data.json");
-        try {
-            Files.writeString(path, content);
-        } catch (Exception ignore) {
-        }
+    public static void writeBuild(Path dir, BuildWriter content) throws IOException {
+        Files.createDirectories(dir);
+        writeAtomically(dir.resolve("data.json"), content);
     }
 
     /**
-     * 단건 파일({id}.json)을 삭제한다.
-     * 존재하지 않으면 {@link IllegalArgumentException}을 던진다.
-     * @param id 삭제할 ID
-     * @throws IllegalArgumentException 파일이 존재하지 않는 경우
+     * 빌드 결과(data.json)와 바이너리 스냅샷({@value QuoteSnapshot#BUILD_FILE_NAME})을 저장소 한 번의 순회로 함께 기록한다.
+     * 둘 다 임시 파일에 기록한 뒤 교체하며, data.json 기록이 실패하면 스냅샷도 교체하지 않는다.
+     * @param dir 데이터 디렉터리
+     * @param source 명언을 하나씩 전달하는 함수 (예: {@code repository::scanAll})
+     * @throws IOException 쓰기 오류
      */
-    public static void delete(Long id) {
-        try {
-            Files.delete(getPath(id));
-        } catch (NoSuchFileException e) {
-            // 존재하지 않는 ID
-            throw new IllegalArgumentException();
-        } catch (IOException ignore) {}
+    public static void writeBuildFiles(Path dir, Consumer<Consumer<Quote>> source) throws IOException {
+        Files.createDirectories(dir);
+        try (QuoteSnapshot.SnapshotWriter snapshot = QuoteSnapshot.writer(dir.resolve(QuoteSnapshot.BUILD_FILE_NAME))) {
+            writeBuild(dir, writer -> JsonUtils.writeArray(writer, consumer -> source.accept(quote -> {
+                consumer.accept(quote);
+                try {
+                    snapshot.add(quote);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })));
+            snapshot.commit();
+        }
     }
 
     /**
-     * 단건 파일({id}.json)을 읽어 문자열로 반환한다.
-     *  파일이 없으면 {@link IllegalArgumentException}을 던진다.</li>
-     *  기타 I/O 오류는 null 반환.</li>
-     * @param id 조회할 ID
-     * @return JSON 문자열, 실패 시 null
-     * @throws IllegalArgumentException 파일이 존재하지 않는 경우
+     * 파일을 같은 디렉터리의 임시 파일에 먼저 기록한 뒤 원자적으로 교체한다.
+     * 임시 파일 이름은 호출마다 새로 만들므로, 같은 파일을 동시에 기록하는 스레드 / 프로세스가 서로의 임시 파일을 덮어쓰지 않는다.
+     * 기록 도중 실패하면 임시 파일을 지우고 기존 파일은 그대로 둔다.
+     * @param target 최종 파일 경로
+     * @param content 내용을 기록할 함수
+     * @throws IOException 쓰기 오류
      */
-    public static String readOne(Long id) {
-        Path path = getPath(id);
+    public static void writeAtomically(Path target, BuildWriter content) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, target.getFileName() + ".", ".tmp");
         try {
-            return Files.readString(path);
-        } catch (NoSuchFileException e) {
-            throw new IllegalArgumentException();
-        } catch (IOException ignore) {
-            return null;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUILD_BUFFER_SIZE)) {
+                content.writeTo(writer);
+                writer.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
         }
     }
 
     /**
-     * 디렉터리 내 모든 단건 JSON({id}.json) 파일을 읽어 리스트로 반환한다.
-     * data.json은 제외한다.
-     * 디렉터리가 없거나 파일이 없으면 빈 리스트 반환.
+     * 주어진 디렉터리 내 모든 단건 JSON({id}.json) 파일을 읽어 리스트로 반환한다.
+     * data.json은 제외한다. 이전 저장 방식 파일을 quotes.log 로 가져올 때만 사용한다.
+     * 디렉터리가 없으면 빈 리스트를 반환한다.
+     * @param path 데이터 디렉터리
      * @return JSON 문자열 리스트
      */
-    public static List<String> readAll() {
-        File dir = new File("db/wiseSaying");
+    public static List<String> readAll(Path path) {
+        File dir = path.toFile();
         List<String> result = new ArrayList<>();
         if(!dir.exists()) return result;
 
@@ -0,0 +1,77 @@
+package com.quoteBoard.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 같은 데이터 디렉터리를 여러 스레드와 여러 프로세스가 함께 쓸 때 사용하는 배타 잠금.
+ * <p>
+ * 잠금 파일에 대한 {@link FileLock} 으로 프로세스 사이를 제어한다. FileLock 은 프로세스 단위라서
+ * 한 JVM 안의 두 스레드가 동시에 잡으면 {@link java.nio.channels.OverlappingFileLockException} 이 나므로,
+ * 경로마다 하나뿐인 인스턴스가 {@link ReentrantLock} 을 먼저 잡아 JVM 안의 스레드를 직렬화한다.
+ * 같은 스레드가 다시 잡는 것은 허용한다.
+ */
+public final class InterProcessLock {
+
+    /**
+     * 잠금 구간에서 실행할 작업
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws IOException;
+    }
+
+    private static final Map<Path, InterProcessLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final ReentrantLock local = new ReentrantLock();
+    private FileChannel channel;
+
+    private InterProcessLock(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @param lockFile 잠금 파일 경로. 없으면 만든다.
+     * @return 경로에 대한 JVM 내 유일한 잠금
+     */
+    public static InterProcessLock of(Path lockFile) {
+        return LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), InterProcessLock::new);
+    }
+
+    /**
+     * 잠금을 잡고 작업을 실행한다. 다른 프로세스가 잡고 있으면 풀릴 때까지 기다린다.
+     * @param action 실행할 작업
+     * @return 작업 결과
+     * @throws IOException 잠금 파일을 열 수 없거나 작업이 실패한 경우
+     */
+    public <T> T call(Action<T> action) throws IOException {
+        local.lock();
+        try {
+            if(local.getHoldCount() > 1) return action.run(); // 이미 잡고 있음
+            FileLock fileLock = channel().lock();
+            try {
+                return action.run();
+            } finally {
+                if(fileLock.isValid()) fileLock.release();
+            }
+        } finally {
+            local.unlock();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if(channel == null || !channel.isOpen()) {
+            Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+}
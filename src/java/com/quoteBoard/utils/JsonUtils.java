@@ -2,34 +2,114 @@ package com.quoteBoard.utils;
 
 import com.quoteBoard.entity.Quote;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * JSON 직렬화/역직렬화를 아주 단순한 포맷으로 수행하는 유틸리티.
- * 외부 라이브러리 없이 문자열 연산만 사용한다.
- * 간단한 학습/과제용으로 적합하며, 이스케이프 처리 등은 최소한으로만 수행한다.
+ * Quote 의 JSON 직렬화/역직렬화 유틸리티.
+ * 외부 라이브러리 없이 동작한다.
+ * 쓰기는 {@link Appendable} 에 필드를 바로 기록하며(String.format 미사용), 문자열 값은 JSON 규칙에 맞게 이스케이프한다.
+ * 읽기는 {@link QuoteJsonReader} 가 한 번의 순회로 처리한다.
  */
 public class JsonUtils {
 
+    // 객체 내부 필드 들여쓰기 / 닫는 괄호 들여쓰기 (기존 {id}.json 포맷 유지)
+    private static final String FIELD_INDENT = "        ";
+    private static final String OBJECT_INDENT = "    ";
+
     /**
      * Quote 엔티티를 고정된 JSON 포맷의 문자열로 직렬화한다.
-     * 내부 동작:
-     * 1) String.format 템플릿에 id, content, author 값을 순서대로 대입한다.
-     * 2) 들여쓰기/개행을 포함한 멀티라인 문자열을 그대로 반환한다.
-     * 주의: content/author에 따옴표, 개행 등 특수문자가 포함되면 별도 이스케이프를 하지 않는다.
+     * 들여쓰기/개행을 포함한 멀티라인 문자열을 반환한다.
      *
      * @param quote 직렬화할 엔티티
      * @return JSON 형태의 문자열
      */
     public static String entityToJson(Quote quote) {
-        // 템플릿 문자열에 필드값을 그대로 삽입
-        return String.format("""
-                {
-                    "id": %d,
-                    "content": "%s",
-                    "author": "%s"
+        StringBuilder sb = new StringBuilder(96 + quote.getQuote().length() + quote.getAuthor().length());
+        sb.append(OBJECT_INDENT);
+        writeEntity(quote, sb);
+        sb.append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Quote 엔티티를 JSON 객체로 out 에 바로 기록한다. 앞뒤 공백 없이 '{' 로 시작해 '}' 로 끝난다.
+     * @param quote 직렬화할 엔티티
+     * @param out 기록할 대상 (StringBuilder, Writer 등)
+     */
+    public static void writeEntity(Quote quote, Appendable out) {
+        try {
+            out.append("{\n").append(FIELD_INDENT).append("\"id\": ");
+            if(quote.getId() == null) out.append("null");
+            else out.append(Long.toString(quote.getId()));
+            out.append(",\n").append(FIELD_INDENT).append("\"content\": ");
+            writeString(quote.getQuote(), out);
+            out.append(",\n").append(FIELD_INDENT).append("\"author\": ");
+            writeString(quote.getAuthor(), out);
+            out.append('\n').append(OBJECT_INDENT).append('}');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quote 엔티티를 공백 없는 한 줄 JSON 으로 기록한다(JSON Lines 용). 줄바꿈은 붙이지 않는다.
+     * @param quote 직렬화할 엔티티
+     * @param out 기록할 대상
+     */
+    public static void writeLine(Quote quote, Appendable out) {
+        try {
+            out.append("{\"id\":");
+            if(quote.getId() == null) out.append("null");
+            else out.append(Long.toString(quote.getId()));
+            out.append(",\"content\":");
+            writeString(quote.getQuote(), out);
+            out.append(",\"author\":");
+            writeString(quote.getAuthor(), out);
+            out.append('}');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 문자열을 따옴표로 감싸고 이스케이프하여 기록한다. 이스케이프가 필요 없는 구간은 한 번에 기록한다.
+     * @param value 기록할 문자열 (null 이면 null 리터럴)
+     * @param out 기록할 대상
+     */
+    public static void writeString(String value, Appendable out) throws IOException {
+        if(value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int start = 0;
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c >= 0x20 && c != '"' && c != '\\') continue;
+
+            out.append(value, start, i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    out.append("\\u00");
+                    out.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
                 }
-            """, quote.getId(), quote.getQuote(), quote.getAuthor());
+            }
+            start = i + 1;
+        }
+        out.append(value, start, value.length());
+        out.append('"');
     }
 
     /**
@@ -60,43 +140,79 @@ public class JsonUtils {
         return sb.toString();
     }
 
+    /**
+     * {@link #build(List)} 와 같은 형식의 JSON 배열을 요소 하나씩 바로 Writer 에 기록한다.
+     * 전체 결과를 메모리에 모으지 않으므로 데이터 크기와 무관하게 메모리 사용량이 일정하다.
+     * 마지막 쉼표를 지우는 대신, 두 번째 요소부터 앞에 구분자를 붙인다.
+     * close 는 배열을 닫을 뿐 전달받은 Writer 는 닫지 않는다.
+     *
+     * @param out 기록할 대상
+     * @return 배열 writer
+     * @throws IOException 쓰기 오류
+     */
+    public static ArrayWriter arrayWriter(Writer out) throws IOException {
+        return new ArrayWriter(out);
+    }
+
+    /**
+     * source 가 전달하는 모든 엔티티를 하나의 JSON 배열로 기록한다.
+     * @param out 기록할 대상
+     * @param source 엔티티를 하나씩 전달하는 함수 (예: {@code repository::scanAll})
+     * @throws IOException 쓰기 오류
+     */
+    public static void writeArray(Writer out, Consumer<Consumer<Quote>> source) throws IOException {
+        try (ArrayWriter array = arrayWriter(out)) {
+            source.accept(quote -> {
+                try {
+                    array.write(quote);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static final class ArrayWriter implements Closeable {
+
+        private final Writer out;
+        private boolean empty = true;
+
+        private ArrayWriter(Writer out) throws IOException {
+            this.out = out;
+            out.write("[\n");
+        }
+
+        /**
+         * 배열에 요소 하나를 추가한다.
+         * @param quote 기록할 엔티티
+         * @throws IOException 쓰기 오류
+         */
+        public void write(Quote quote) throws IOException {
+            if(!empty) out.write(",\n");
+            out.write("\t");
+            writeEntity(quote, out);
+            empty = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(!empty) out.write("\n");
+            out.write("\n]");
+            out.flush();
+        }
+    }
+
     /**
      * 단일 객체 JSON 문자열을 Quote 엔티티로 역직렬화한다.
-     * 내부 동작:
-     * 1) lines()로 줄 단위 분해 후 순회한다.
-     * 2) 각 줄을 trim한 뒤, 키에 해당하는 접두어로 시작하는지 확인한다.
-     * 3) "id": 라인은 콜론 기준 분리 후 숫자만 남기도록 쉼표 제거, 공백 제거 → long 파싱.
-     * 4) "content", "author" 라인은 콜론 기준 분리 후 쉼표/따옴표를 제거해 문자열 값만 추출한다.
-     * 5) 추출된 값들로 Quote를 생성해 반환한다.
-     * 주의: 포맷이 어긋나거나 중첩 객체, 이스케이프된 문자 등은 처리하지 않는다.
+     * 이스케이프된 문자와 ':' ',' 등이 포함된 값도 그대로 복원한다.
      *
      * @param json 단일 객체 JSON 문자열
      * @return 역직렬화된 Quote 엔티티
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
      */
     public static Quote jsonToEntity(String json) {
-        List<String> lines = json.lines().toList();
-        long id = -1L; String content = null; String author = null;
-
-        for (String line : lines) {
-            line = line.trim();
-            if (line.startsWith("\"id\"")) {
-                // "id": 123, 형태 → 콜론 기준 분리 후 숫자 부분만 추출
-                String value = line.split(":")[1].replace(",", "").trim();
-                id = Long.parseLong(value);
-            } else if (line.startsWith("\"content\"")) {
-                // "content": "문자열", 형태 → 콜론 기준 분리 후 쉼표/따옴표 제거
-                content = line.split(":")[1]
-                        .replace(",", "")
-                        .replace("\"", "")
-                        .trim();
-            } else if (line.startsWith("\"author\"")) {
-                // "author": "문자열", 형태 → 콜론 기준 분리 후 쉼표/따옴표 제거
-                author = line.split(":")[1]
-                        .replace(",", "")
-                        .replace("\"", "")
-                        .trim();
-            }
-        }
-        return new Quote(id, content, author);
+        return QuoteJsonReader.parse(json);
     }
-}
\ No newline at end of file
+}
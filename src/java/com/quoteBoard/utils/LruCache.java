@@ -0,0 +1,180 @@
+package com.quoteBoard.utils;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 크기가 제한된 동시성 LRU 캐시.
+ * <p>
+ * 키의 해시로 나눈 여러 세그먼트가 각각 접근 순서 {@link LinkedHashMap} 을 가지며,
+ * 세그먼트 단위로만 잠그므로 서로 다른 세그먼트의 조회는 경합하지 않는다.
+ * 용량은 세그먼트별로 균등하게 나누며, 가득 찬 세그먼트에서 가장 오래 쓰이지 않은 항목을 제거한다.
+ *
+ * @param <K> 키
+ * @param <V> 값
+ */
+public class LruCache<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    /**
+     * 캐시 통계
+     * @param hits 적중 횟수
+     * @param misses 미적중 횟수
+     * @param evictions 용량 초과로 제거된 항목 수
+     * @param size 현재 항목 수
+     * @param capacity 최대 항목 수
+     */
+    public record Stats(long hits, long misses, long evictions, long size, long capacity) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<K, V> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        // 쓰기(put / remove)마다 증가. 읽기 중 로드한 값이 그 사이 쓰기보다 오래된 것인지 판별한다.
+        private long version;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if(size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final List<Segment> segments;
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity 최대 항목 수
+     */
+    public LruCache(int capacity) {
+        if(capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int count = Math.min(DEFAULT_SEGMENTS, capacity);
+        this.capacity = capacity;
+        List<Segment> segments = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            // 나머지 용량은 앞쪽 세그먼트에 하나씩 분배
+            segments.add(new Segment(capacity / count + (i < capacity % count ? 1 : 0)));
+        }
+        this.segments = List.copyOf(segments);
+    }
+
+    /**
+     * 캐시된 값을 반환한다.
+     * @param key 키
+     * @return 캐시된 값, 없으면 null
+     */
+    public V get(K key) {
+        Segment segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if(value == null) misses.increment();
+        else hits.increment();
+        return value;
+    }
+
+    /**
+     * 캐시된 값을 반환하고, 없으면 loader 로 읽어와 캐시한다(read-through).
+     * loader 실행 도중 같은 세그먼트에 쓰기가 있었다면 읽어온 값은 캐시하지 않는다.
+     * loader 는 잠금 밖에서 실행되므로 느린 I/O 를 수행해도 된다.
+     * @param key 키
+     * @param loader 캐시 미스 시 값을 읽어올 함수. null 을 반환하면 캐시하지 않는다.
+     * @return 캐시된 값 혹은 읽어온 값
+     */
+    public V get(K key, Function<K, V> loader) {
+        Segment segment = segmentFor(key);
+        long version;
+        synchronized (segment) {
+            V value = segment.get(key);
+            if(value != null) {
+                hits.increment();
+                return value;
+            }
+            version = segment.version;
+        }
+        misses.increment();
+
+        V loaded = loader.apply(key);
+        if(loaded != null) {
+            synchronized (segment) {
+                if(segment.version == version) segment.putIfAbsent(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 값을 저장한다(write-through).
+     */
+    public void put(K key, V value) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.version++;
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * 값을 제거한다.
+     */
+    public void invalidate(K key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.version++;
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * 모든 값을 제거한다.
+     */
+    public void invalidateAll() {
+        for(Segment segment : segments) {
+            synchronized (segment) {
+                segment.version++;
+                segment.clear();
+            }
+        }
+    }
+
+    public Stats stats() {
+        long size = 0;
+        for(Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, capacity);
+    }
+
+    private Segment segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments.get((h & 0x7fffffff) % segments.size());
+    }
+}
@@ -0,0 +1,280 @@
+package com.quoteBoard.utils;
+
+import com.quoteBoard.entity.Quote;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Quote JSON 을 한 번의 순회로 읽는 스트리밍 파서.
+ * <p>
+ * 정규식이나 줄 분리 없이 char[] 버퍼를 앞에서부터 한 글자씩 읽는다.
+ * 문자열 이스케이프(\" \\ \/ \b \f \n \r \t \\uXXXX)를 처리하며, 알 수 없는 키는 값의 종류와 무관하게 건너뛴다.
+ * 문자열 전체(char[]) 혹은 {@link Reader} 를 입력으로 받을 수 있으며, Reader 는 버퍼 단위로 채워 읽는다.
+ */
+public class QuoteJsonReader {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Reader in;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    // 현재 버퍼 앞까지 읽은 글자 수 (오류 위치 표시용)
+    private long consumed;
+
+    // 문자열 값 조립용. 객체마다 새로 만들지 않고 재사용한다.
+    private final StringBuilder text = new StringBuilder(64);
+
+    /**
+     * 메모리에 있는 JSON 을 읽는다.
+     * @param json JSON 문자열
+     */
+    public QuoteJsonReader(char[] json) {
+        this.in = null;
+        this.buf = json;
+        this.limit = json.length;
+    }
+
+    /**
+     * 스트림에서 JSON 을 읽는다. 전체를 메모리에 올리지 않는다.
+     * @param in 입력
+     */
+    public QuoteJsonReader(Reader in) {
+        this.in = in;
+        this.buf = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * 단일 객체 JSON 문자열을 Quote 로 읽는다.
+     * @param json JSON 문자열
+     * @return 역직렬화된 Quote
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public static Quote parse(String json) {
+        QuoteJsonReader reader = new QuoteJsonReader(json.toCharArray());
+        Quote quote = reader.readObject();
+        if(reader.peek() != -1) throw reader.error("unexpected trailing content");
+        return quote;
+    }
+
+    /**
+     * 다음 객체 하나를 읽는다.
+     * @return 역직렬화된 Quote (id 가 없거나 null 이면 null)
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public Quote readObject() {
+        expect('{');
+        Long id = null;
+        String content = null;
+        String author = null;
+
+        if(peek() == '}') {
+            pos++;
+            return new Quote(id, content, author);
+        }
+        while(true) {
+            String key = readString();
+            expect(':');
+            switch (key) {
+                case "id" -> id = readLong();
+                case "content" -> content = readNullableString();
+                case "author" -> author = readNullableString();
+                default -> skipValue();
+            }
+            int c = next();
+            if(c == '}') break;
+            if(c != ',') throw error("expected ',' or '}'");
+        }
+        return new Quote(id, content, author);
+    }
+
+    /**
+     * JSON 배열의 객체를 하나씩 읽어 전달한다. 배열 전체를 메모리에 모으지 않는다.
+     * @param consumer 읽은 Quote 를 받을 함수
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public void readArray(Consumer<Quote> consumer) {
+        expect('[');
+        if(peek() == ']') {
+            pos++;
+            return;
+        }
+        while(true) {
+            consumer.accept(readObject());
+            int c = next();
+            if(c == ']') return;
+            if(c != ',') throw error("expected ',' or ']'");
+        }
+    }
+
+    /**
+     * 공백을 건너뛴 뒤 다음 글자를 소비하지 않고 반환한다.
+     * @return 다음 글자, 입력 끝이면 -1
+     */
+    public int peek() {
+        skipWhitespace();
+        return pos < limit ? buf[pos] : -1;
+    }
+
+    private String readNullableString() {
+        if(peek() == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        return readString();
+    }
+
+    private String readString() {
+        expect('"');
+        text.setLength(0);
+        while(true) {
+            if(pos >= limit && !fill()) throw error("unterminated string");
+            // 이스케이프가 없는 구간은 한 번에 복사
+            int start = pos;
+            while(pos < limit && buf[pos] != '"' && buf[pos] != '\\') pos++;
+            text.append(buf, start, pos - start);
+            if(pos >= limit) continue;
+
+            char c = buf[pos++];
+            if(c == '"') return text.toString();
+            text.append(readEscape());
+        }
+    }
+
+    private char readEscape() {
+        int c = read();
+        return switch (c) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int code = 0;
+                for(int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if(digit < 0) throw error("invalid unicode escape");
+                    code = (code << 4) | digit;
+                }
+                yield (char) code;
+            }
+            default -> throw error("invalid escape");
+        };
+    }
+
+    // long 범위를 넘는 값은 감싸지 않고 오류로 처리한다
+    private Long readLong() {
+        if(peek() == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        boolean negative = false;
+        if(peek() == '-') {
+            negative = true;
+            pos++;
+        }
+        // Long.MIN_VALUE 까지 표현하도록 음수로 누적한다
+        long value = 0;
+        int digits = 0;
+        try {
+            while(true) {
+                if(pos >= limit && !fill()) break;
+                char c = buf[pos];
+                if(c < '0' || c > '9') break;
+                value = Math.subtractExact(Math.multiplyExact(value, 10), c - '0');
+                digits++;
+                pos++;
+            }
+            if(digits == 0) throw error("expected number");
+            return negative ? value : Math.negateExact(value);
+        } catch (ArithmeticException e) {
+            throw error("number out of range");
+        }
+    }
+
+    // 알 수 없는 키의 값(문자열/숫자/리터럴/객체/배열)을 건너뛴다
+    private void skipValue() {
+        int c = peek();
+        switch (c) {
+            case '"' -> readString();
+            case '{', '[' -> {
+                int depth = 0;
+                do {
+                    int ch = peek();
+                    if(ch == '"') {
+                        readString();
+                        continue;
+                    }
+                    ch = read();
+                    if(ch == '{' || ch == '[') depth++;
+                    else if(ch == '}' || ch == ']') depth--;
+                } while(depth > 0);
+            }
+            case -1 -> throw error("unexpected end of input");
+            default -> {
+                // 숫자, true / false / null
+                while(true) {
+                    if(pos >= limit && !fill()) return;
+                    char ch = buf[pos];
+                    if(ch == ',' || ch == '}' || ch == ']' || Character.isWhitespace(ch)) return;
+                    pos++;
+                }
+            }
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for(int i = 0; i < literal.length(); i++) {
+            if(read() != literal.charAt(i)) throw error("expected " + literal);
+        }
+    }
+
+    private void expect(char expected) {
+        if(next() != expected) throw error("expected '" + expected + "'");
+    }
+
+    // 공백을 건너뛴 다음 글자 소비
+    private int next() {
+        int c = peek();
+        if(c != -1) pos++;
+        return c;
+    }
+
+    // 공백을 건너뛰지 않고 다음 글자 소비
+    private int read() {
+        if(pos >= limit && !fill()) throw error("unexpected end of input");
+        return buf[pos++];
+    }
+
+    private void skipWhitespace() {
+        while(true) {
+            if(pos >= limit && !fill()) return;
+            char c = buf[pos];
+            if(c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private boolean fill() {
+        if(in == null) return false;
+        try {
+            consumed += limit;
+            int read = in.read(buf, 0, buf.length);
+            pos = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("malformed json at " + (consumed + pos) + ": " + message);
+    }
+}
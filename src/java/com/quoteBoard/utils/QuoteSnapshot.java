@@ -0,0 +1,581 @@
+package com.quoteBoard.utils;
+
+import com.quoteBoard.entity.Quote;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 명언 전체를 열 단위로 압축해 저장하는 바이너리 스냅샷(.qsnap).
+ * data.json 보다 작고, 블록을 서로 독립적으로 풀 수 있으므로 여러 스레드로 나눠 읽을 수 있다.
+ * <pre>
+ * "QSNP"(4) | version(int)
+ * 블록*                  -- Deflate 압축. 블록 안은 열 단위로 저장한다
+ *     count | id(첫 값, 이후 차이)* | 작가 코드* | 명언 길이* | 명언 UTF-8 바이트
+ * 작가 사전              -- Deflate 압축. count | (길이, UTF-8)*
+ * 블록 색인              -- 블록마다 offset | 압축 크기 | 원래 크기 | 건수 | 첫 id | 마지막 id | crc32
+ * 꼬리말                 -- 사전 / 색인 위치, 블록 / 작가 / 명언 수, 색인 crc32, "QSNP"
+ * </pre>
+ * 블록 안의 정수는 가변 길이(LEB128)로 기록한다. 작가는 같은 이름이 많이 반복되므로 사전 번호로 바꿔 저장하며,
+ * 작가 코드 / 명언 길이의 0 은 null 을 뜻한다. 블록 색인과 꼬리말은 고정 길이 big-endian 이다.
+ */
+public final class QuoteSnapshot {
+
+    public static final String EXTENSION = ".qsnap";
+    public static final String BUILD_FILE_NAME = "data" + EXTENSION;
+
+    /**
+     * 블록 하나에 담는 기본 명언 수
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4_096;
+
+    private static final byte[] MAGIC = {'Q', 'S', 'N', 'P'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + Integer.BYTES;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES * 3 + Long.BYTES * 2 + Integer.BYTES;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES * 3 + Long.BYTES + Integer.BYTES * 2 + Long.BYTES
+            + Integer.BYTES + MAGIC.length;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private QuoteSnapshot() { }
+
+    /**
+     * source 가 전달하는 모든 명언을 스냅샷으로 기록한다. 임시 파일에 기록한 뒤 원자적으로 교체한다.
+     * @param file 기록할 파일
+     * @param source 명언을 하나씩 전달하는 함수 (예: {@code repository::scanAll})
+     * @return 기록한 명언 수
+     * @throws IOException 쓰기 오류
+     */
+    public static long write(Path file, Consumer<Consumer<Quote>> source) throws IOException {
+        try (SnapshotWriter writer = writer(file)) {
+            source.accept(quote -> {
+                try {
+                    writer.add(quote);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.commit();
+            return writer.count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 명언을 하나씩 추가하는 writer 를 연다. {@link SnapshotWriter#commit()} 전에 닫으면 기존 파일은 그대로 남는다.
+     * @param file 기록할 파일
+     * @return writer
+     * @throws IOException 임시 파일을 만들지 못한 경우
+     */
+    public static SnapshotWriter writer(Path file) throws IOException {
+        return new SnapshotWriter(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * 스냅샷을 연다. 꼬리말 / 블록 색인 / 작가 사전을 읽고 검증하며, 블록은 {@link SnapshotReader#readBlock} 에서 읽는다.
+     * @param file 읽을 파일
+     * @return reader
+     * @throws IOException 파일을 읽지 못했거나 스냅샷 형식이 아닌 경우
+     */
+    public static SnapshotReader open(Path file) throws IOException {
+        return new SnapshotReader(file);
+    }
+
+    /**
+     * 스냅샷의 모든 명언을 파일 순서대로 하나씩 전달한다.
+     * @param file 읽을 파일
+     * @param consumer 명언을 받을 함수
+     * @return 읽은 명언 수
+     * @throws IOException 파일을 읽지 못했거나 손상된 경우
+     */
+    public static long read(Path file, Consumer<Quote> consumer) throws IOException {
+        try (SnapshotReader reader = open(file)) {
+            for(int i = 0; i < reader.blockCount(); i++) {
+                reader.readBlock(i).forEach(consumer);
+            }
+            return reader.quoteCount();
+        }
+    }
+
+    /**
+     * 블록 색인의 한 항목
+     * @param offset 파일 안의 위치
+     * @param compressedLength 압축된 크기
+     * @param rawLength 압축을 푼 크기
+     * @param count 명언 수
+     * @param firstId 첫 명언의 id
+     * @param lastId 마지막 명언의 id
+     * @param crc 압축된 바이트의 crc32
+     */
+    public record Block(long offset, int compressedLength, int rawLength, int count, long firstId, long lastId, int crc) { }
+
+    public static final class SnapshotWriter implements Closeable {
+
+        private final Path target;
+        private final Path tmp;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final int blockSize;
+        private final Deflater deflater = new Deflater();
+        private final Map<String, Integer> authorCodes = new HashMap<>();
+        private final List<String> authors = new ArrayList<>();
+        private final List<Block> blocks = new ArrayList<>();
+        private long position;
+        private long count;
+        private boolean committed;
+
+        // 블록 하나의 열. 가득 차면 압축해 기록한다
+        private final ByteArray ids = new ByteArray();
+        private final ByteArray authorColumn = new ByteArray();
+        private final ByteArray lengths = new ByteArray();
+        private final ByteArray contents = new ByteArray();
+        private int blockCount;
+        private long firstId;
+        private long lastId;
+
+        private SnapshotWriter(Path target, int blockSize) throws IOException {
+            Path parent = target.toAbsolutePath().getParent();
+            if(parent != null) Files.createDirectories(parent);
+            this.target = target;
+            this.tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.blockSize = blockSize;
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            position = HEADER_SIZE;
+        }
+
+        /**
+         * 명언 하나를 추가한다.
+         * @param quote 기록할 명언 (id 가 없으면 0 으로 기록)
+         * @throws IOException 쓰기 오류
+         */
+        public void add(Quote quote) throws IOException {
+            long id = quote.getId() == null ? 0 : quote.getId();
+            if(blockCount == 0) {
+                firstId = id;
+                ids.writeVarLong(id);
+            } else {
+                ids.writeVarLong(zigZag(id - lastId));
+            }
+            lastId = id;
+
+            String author = quote.getAuthor();
+            int code = 0;
+            if(author != null) {
+                code = authorCodes.computeIfAbsent(author, a -> {
+                    authors.add(a);
+                    return authors.size();
+                });
+            }
+            authorColumn.writeVarLong(code);
+
+            String content = quote.getQuote();
+            if(content == null) {
+                lengths.writeVarLong(0);
+            } else {
+                byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                lengths.writeVarLong(bytes.length + 1L);
+                contents.write(bytes, 0, bytes.length);
+            }
+
+            blockCount++;
+            count++;
+            if(blockCount == blockSize) flushBlock();
+        }
+
+        /**
+         * @return 지금까지 추가한 명언 수
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * 남은 블록과 사전 / 색인 / 꼬리말을 기록하고, 디스크에 반영한 뒤 대상 파일 위로 원자적으로 이동한다.
+         * @throws IOException 쓰기 오류
+         */
+        public void commit() throws IOException {
+            if(blockCount > 0) flushBlock();
+
+            ByteArray dictionary = new ByteArray();
+            dictionary.writeVarLong(authors.size());
+            for(String author : authors) {
+                byte[] bytes = author.getBytes(StandardCharsets.UTF_8);
+                dictionary.writeVarLong(bytes.length);
+                dictionary.write(bytes, 0, bytes.length);
+            }
+            byte[] compressedDictionary = deflate(dictionary);
+            long dictionaryOffset = position;
+            writeRaw(compressedDictionary);
+
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(blocks.size() * INDEX_ENTRY_SIZE);
+            DataOutputStream index = new DataOutputStream(indexBytes);
+            for(Block block : blocks) {
+                index.writeLong(block.offset());
+                index.writeInt(block.compressedLength());
+                index.writeInt(block.rawLength());
+                index.writeInt(block.count());
+                index.writeLong(block.firstId());
+                index.writeLong(block.lastId());
+                index.writeInt(block.crc());
+            }
+            long indexOffset = position;
+            writeRaw(indexBytes.toByteArray());
+
+            out.writeLong(dictionaryOffset);
+            out.writeInt(compressedDictionary.length);
+            out.writeInt(dictionary.size());
+            out.writeInt(crc(compressedDictionary, compressedDictionary.length));
+            out.writeLong(indexOffset);
+            out.writeInt(blocks.size());
+            out.writeInt(authors.size());
+            out.writeLong(count);
+            out.writeInt(crc(indexBytes.toByteArray(), indexBytes.size()));
+            out.write(MAGIC);
+            out.flush();
+            channel.force(true);
+            channel.close();
+
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        /**
+         * 커밋하지 않았으면 임시 파일을 지운다.
+         */
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if(committed) return;
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            ByteArray raw = new ByteArray(ids.size() + authorColumn.size() + lengths.size() + contents.size() + 5);
+            raw.writeVarLong(blockCount);
+            raw.write(ids);
+            raw.write(authorColumn);
+            raw.write(lengths);
+            raw.write(contents);
+
+            byte[] compressed = deflate(raw);
+            blocks.add(new Block(position, compressed.length, raw.size(), blockCount, firstId, lastId, crc(compressed, compressed.length)));
+            writeRaw(compressed);
+
+            ids.reset();
+            authorColumn.reset();
+            lengths.reset();
+            contents.reset();
+            blockCount = 0;
+        }
+
+        private byte[] deflate(ByteArray raw) {
+            deflater.reset();
+            deflater.setInput(raw.buffer(), 0, raw.size());
+            deflater.finish();
+            ByteArray compressed = new ByteArray(Math.max(64, raw.size() / 2));
+            byte[] chunk = new byte[BUFFER_SIZE];
+            while(!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.write(chunk, 0, n);
+            }
+            return Arrays.copyOf(compressed.buffer(), compressed.size());
+        }
+
+        private void writeRaw(byte[] bytes) throws IOException {
+            out.write(bytes);
+            position += bytes.length;
+        }
+    }
+
+    /**
+     * 열린 스냅샷. {@link #readBlock} 은 위치를 지정해 읽으므로 여러 스레드에서 동시에 호출할 수 있다.
+     */
+    public static final class SnapshotReader implements Closeable {
+
+        private final FileChannel channel;
+        private final List<Block> blocks;
+        private final String[] authors;
+        private final long quoteCount;
+
+        private SnapshotReader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if(size < HEADER_SIZE + FOOTER_SIZE) throw corrupt("file too small");
+                ByteBuffer header = readAt(0, HEADER_SIZE);
+                if(!hasMagic(header) || header.getInt() != VERSION) throw corrupt("not a snapshot");
+
+                ByteBuffer footer = readAt(size - FOOTER_SIZE, FOOTER_SIZE);
+                long dictionaryOffset = footer.getLong();
+                int dictionaryLength = footer.getInt();
+                int dictionaryRawLength = footer.getInt();
+                int dictionaryCrc = footer.getInt();
+                long indexOffset = footer.getLong();
+                int blockCount = footer.getInt();
+                int authorCount = footer.getInt();
+                quoteCount = footer.getLong();
+                int indexCrc = footer.getInt();
+                if(!hasMagic(footer)) throw corrupt("missing footer");
+                if(indexOffset + (long) blockCount * INDEX_ENTRY_SIZE != size - FOOTER_SIZE
+                        || dictionaryOffset + dictionaryLength != indexOffset || dictionaryOffset < HEADER_SIZE) {
+                    throw corrupt("inconsistent footer");
+                }
+
+                ByteBuffer index = readAt(indexOffset, blockCount * INDEX_ENTRY_SIZE);
+                if(crc(index.array(), index.capacity()) != indexCrc) throw corrupt("block index checksum mismatch");
+                List<Block> entries = new ArrayList<>(blockCount);
+                long total = 0;
+                for(int i = 0; i < blockCount; i++) {
+                    Block block = new Block(index.getLong(), index.getInt(), index.getInt(), index.getInt(),
+                            index.getLong(), index.getLong(), index.getInt());
+                    if(block.offset() < HEADER_SIZE || block.offset() + block.compressedLength() > dictionaryOffset) {
+                        throw corrupt("block " + i + " out of range");
+                    }
+                    entries.add(block);
+                    total += block.count();
+                }
+                if(total != quoteCount) throw corrupt("quote count mismatch");
+                blocks = List.copyOf(entries);
+
+                ByteBuffer compressedDictionary = readAt(dictionaryOffset, dictionaryLength);
+                if(crc(compressedDictionary.array(), dictionaryLength) != dictionaryCrc) throw corrupt("dictionary checksum mismatch");
+                Cursor dictionary = new Cursor(inflate(compressedDictionary.array(), dictionaryLength, dictionaryRawLength));
+                if(dictionary.readVarInt() != authorCount) throw corrupt("author count mismatch");
+                authors = new String[authorCount];
+                for(int i = 0; i < authorCount; i++) {
+                    authors[i] = dictionary.readString(dictionary.readVarInt());
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e instanceof IOException io ? io : corrupt(e.toString());
+            }
+        }
+
+        public long quoteCount() {
+            return quoteCount;
+        }
+
+        public int blockCount() {
+            return blocks.size();
+        }
+
+        public int authorCount() {
+            return authors.length;
+        }
+
+        /**
+         * @return 블록 색인 (id 범위로 필요한 블록만 골라 읽을 수 있다)
+         */
+        public List<Block> blocks() {
+            return blocks;
+        }
+
+        /**
+         * 블록 하나를 읽어 압축을 풀고 명언으로 복원한다.
+         * @param i 블록 번호 (0 부터)
+         * @return 블록의 명언, 파일 순서대로
+         * @throws IOException 읽기 오류 혹은 블록이 손상된 경우
+         */
+        public List<Quote> readBlock(int i) throws IOException {
+            Block block = blocks.get(i);
+            ByteBuffer compressed = readAt(block.offset(), block.compressedLength());
+            if(crc(compressed.array(), block.compressedLength()) != block.crc()) throw corrupt("block " + i + " checksum mismatch");
+            try {
+                Cursor raw = new Cursor(inflate(compressed.array(), block.compressedLength(), block.rawLength()));
+                int count = raw.readVarInt();
+                if(count != block.count()) throw corrupt("block " + i + " count mismatch");
+
+                long[] ids = new long[count];
+                for(int k = 0; k < count; k++) {
+                    ids[k] = k == 0 ? raw.readVarLong() : ids[k - 1] + unZigZag(raw.readVarLong());
+                }
+                String[] authorColumn = new String[count];
+                for(int k = 0; k < count; k++) {
+                    int code = raw.readVarInt();
+                    authorColumn[k] = code == 0 ? null : authors[code - 1];
+                }
+                int[] lengths = new int[count];
+                for(int k = 0; k < count; k++) {
+                    lengths[k] = raw.readVarInt();
+                }
+                List<Quote> quotes = new ArrayList<>(count);
+                for(int k = 0; k < count; k++) {
+                    String content = lengths[k] == 0 ? null : raw.readString(lengths[k] - 1);
+                    quotes.add(new Quote(ids[k], content, authorColumn[k]));
+                }
+                return quotes;
+            } catch (RuntimeException e) {
+                throw corrupt("block " + i + " : " + e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private ByteBuffer readAt(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+            while(buffer.hasRemaining()) {
+                int n = channel.read(buffer, offset + buffer.position());
+                if(n < 0) throw new EOFException("unexpected end of snapshot");
+            }
+            return buffer.flip();
+        }
+
+        private static boolean hasMagic(ByteBuffer buffer) {
+            for(byte b : MAGIC) {
+                if(buffer.get() != b) return false;
+            }
+            return true;
+        }
+
+        private static byte[] inflate(byte[] compressed, int length, int rawLength) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed, 0, length);
+                byte[] raw = new byte[rawLength];
+                int filled = 0;
+                while(filled < rawLength && !inflater.finished()) {
+                    int n = inflater.inflate(raw, filled, rawLength - filled);
+                    if(n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                    filled += n;
+                }
+                if(filled != rawLength || !inflater.finished()) throw corrupt("unexpected compressed length");
+                return raw;
+            } catch (DataFormatException e) {
+                throw corrupt(e.getMessage());
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private static IOException corrupt(String reason) {
+            return new IOException("corrupt snapshot: " + reason);
+        }
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    // 차이가 음수여도 짧게 기록되도록 부호를 최하위 비트로 옮긴다
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // 가변 길이 정수를 기록하는 바이트 버퍼. ByteArrayOutputStream 과 달리 동기화하지 않고, 내부 버퍼를 복사하지 않고 넘긴다
+    private static final class ByteArray {
+
+        private byte[] buf;
+        private int count;
+
+        ByteArray() {
+            this(1024);
+        }
+
+        ByteArray(int size) {
+            buf = new byte[size];
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[count++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buf, count, length);
+            count += length;
+        }
+
+        void write(ByteArray other) {
+            write(other.buf, 0, other.count);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while((value & ~0x7FL) != 0) {
+                buf[count++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[count++] = (byte) value;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        private void ensure(int extra) {
+            if(count + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+    }
+
+    // 압축을 푼 바이트를 앞에서부터 읽는다
+    private static final class Cursor {
+
+        private final byte[] bytes;
+        private int pos;
+
+        Cursor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for(int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("varint too long");
+        }
+
+        int readVarInt() {
+            return Math.toIntExact(readVarLong());
+        }
+
+        String readString(int length) {
+            if(length < 0 || pos + length > bytes.length) throw new IllegalArgumentException("string out of range");
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
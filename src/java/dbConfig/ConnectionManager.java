@@ -1,16 +1,33 @@
 package dbConfig;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import com.quoteBoard.metrics.MetricsRegistry;
+import com.quoteBoard.metrics.OperationMetrics;
+
+import java.io.IOException;
 import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class ConnectionManager {
 
-    private static final String SERVER_HOST = "localhost";
-    private static final String SERVER_PORT = "3306";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
-    private static final String DATABASE = "quoteDB";
+    // 접속 정보 / 드라이버 속성 / 풀 크기 등은 src/resources/datasource.properties 와 환경 변수로 설정한다
+    private static final DataSourceConfig CONFIG = DataSourceConfig.load();
+
+    // SQL 별 실행 시간 / 실패 수와 커넥션 대여 시간을 기록하고, 느린 쿼리와 실패한 쿼리를 로그로 남긴다
+    private static final Logger SQL_LOG = Logger.getLogger("quoteBoard.sql");
+    private static final MetricsRegistry METRICS = MetricsRegistry.global();
+    private static final OperationMetrics BORROW = METRICS.operation("pool.borrow");
+    private static final Map<String, OperationMetrics> SQL_METRICS = new ConcurrentHashMap<>();
+    private static final int SQL_NAME_LENGTH = 80;
+
+    private static final ConnectionPool POOL = new ConnectionPool(
+            () -> DriverManager.getConnection(CONFIG.url(), CONFIG.connectionProperties()),
+            CONFIG.pool().maxSize(), CONFIG.pool().maxWaitMillis(), CONFIG.pool().maxIdleMillis(),
+            CONFIG.pool().validationTimeoutSeconds(), CONFIG.pool().statementCacheSize(),
+            ConnectionManager::onExecuted
+    );
 
     //드라이버를 jvm에 붙이기
     static {
@@ -21,14 +38,61 @@ public class ConnectionManager {
         }
     }
 
-    private static String makeUrl() {
-        return "jdbc:mysql://" + SERVER_HOST + ":" + SERVER_PORT + "/" + DATABASE;
+    /**
+     * Connection 에 대한 정적 팩토리 메서드. 커넥션 풀에서 대여하며, close 시 풀로 반납된다.
+     * @return 풀에서 대여한 connection
+     * @throws SQLException 풀 대기 시간 초과 혹은 커넥션 생성 실패 시
+     */
+    public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection conn = POOL.borrow();
+            BORROW.record(System.nanoTime() - start, 1, false);
+            return conn;
+        } catch (SQLException e) {
+            BORROW.record(System.nanoTime() - start, 0, true);
+            SQL_LOG.warning(() -> "connection borrow failed : " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static void onExecuted(String sql, long elapsedNanos, SQLException error) {
+        OperationMetrics metrics = SQL_METRICS.computeIfAbsent(sql, s -> METRICS.operation("sql " + sqlName(s)));
+        metrics.record(elapsedNanos, 0, error != null);
+        if(error != null) {
+            SQL_LOG.warning(() -> "query failed : " + metrics.name() + " : " + error.getMessage());
+        } else if(elapsedNanos > TimeUnit.MILLISECONDS.toNanos(CONFIG.slowQueryMillis())) {
+            SQL_LOG.warning(() -> String.format("slow query %.1fms : %s", elapsedNanos / 1_000_000.0, metrics.name()));
+        }
     }
 
-    //Connection 에 대한 정적 팩토리 메서드
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(makeUrl(), USER, PASSWORD);
+    // 지표 / 로그에 쓸 SQL 이름. 공백을 하나로 줄이고 길면 자른다
+    private static String sqlName(String sql) {
+        String name = sql.strip().replaceAll("\\s+", " ");
+        return name.length() <= SQL_NAME_LENGTH ? name : name.substring(0, SQL_NAME_LENGTH) + "...";
+    }
+
+    /**
+     * 현재 적용된 데이터소스 설정을 반환합니다. 쿼리 종류별 fetch size / 타임아웃 적용에 사용합니다.
+     * @return 설정
+     */
+    public static DataSourceConfig config() {
+        return CONFIG;
+    }
+
+    /**
+     * 커넥션 풀의 현재 상태(대기/타임아웃 카운터 포함)를 반환합니다.
+     * @return 풀 상태 스냅샷
+     */
+    public static ConnectionPool.Stats poolStats() {
+        return POOL.stats();
+    }
 
+    /**
+     * 풀에 남아있는 유휴 커넥션을 모두 닫습니다.
+     */
+    public static void shutdown() {
+        POOL.closeIdle();
     }
 
     /**
@@ -44,22 +108,22 @@ public class ConnectionManager {
     }
 
     /**
-     * 테이블을 생성합니다. src/resources/create_table.sql 에 명시된 단일 sql 쿼리문을 실행합니다.
+     * 스키마를 최신 버전으로 맞춥니다. src/resources/migration 의 마이그레이션 중 아직 적용되지 않은 것을 순서대로 실행합니다.
+     * 반쯤 적용된 스키마로 계속 실행되지 않도록, 실패하면 예외를 던져 시작을 멈춥니다.
+     * @throws IllegalStateException 마이그레이션 파일을 읽지 못했거나 적용에 실패한 경우
+     * @see SchemaMigrator
      */
     public static void createTable() {
-        try {
-            String sql = Files.readString(Path.of("src", "resources", "create_table.sql"));
-            try (Connection conn = ConnectionManager.getConnection();
-                 Statement stmt = conn.createStatement()) {
-                stmt.execute(sql);
-            }
-        } catch (Exception e) {
-            System.out.println("sql file not found");
+        try (Connection conn = ConnectionManager.getConnection()) {
+            SchemaMigrator.migrate(conn, SchemaMigrator.MIGRATION_DIR);
+        } catch (IOException | SQLException e) {
+            SQL_LOG.severe(() -> "schema migration failed : " + e.getMessage());
+            throw new IllegalStateException("schema migration failed : " + e.getMessage(), e);
         }
     }
 
     /**
-     * 예제용 레코드를 삽입합니다.
+     * 예제용 레코드를 삽입합니다. 테이블이 비어있을 때만 삽입합니다.
      * @param n 삽입할 레코드 개수
      */
     public static void insertExample(int n) {
@@ -71,27 +135,38 @@ public class ConnectionManager {
              PreparedStatement ps = conn.prepareStatement(cntSql);
              ResultSet rs = ps.executeQuery()) {
 
-            if(rs.next()) {
+            if(rs.next() && rs.getLong(1) > 0) {
                 return;
             }
         } catch (SQLException ignore) {
+            return;
         }
 
-        StringBuilder sb = new StringBuilder("""
-                INSERT INTO quote(content, author) values
-                """);
-        for(int i = 1; i <= n; i++) {
-            sb.append(String.format("('명언 %d', '작자미상 %d'),\n", i, i));
-        }
-        sb.deleteCharAt(sb.length() - 1);
-        sb.deleteCharAt(sb.length() - 1);
-
+        String authorSql = """
+                INSERT IGNORE INTO author(name)
+                VALUES (?)
+                """;
+        String sql = """
+                INSERT INTO quote(content, author_id)
+                SELECT ?, author_id FROM author WHERE name = ?
+                """;
 
+        //작가를 먼저 등록한 뒤 명언을 배치로 쌓아 전송한다.
+        //rewriteBatchedStatements 는 INSERT ... VALUES 만 multi-row INSERT 로 합치므로 작가 등록은 한 번에 전송되지만,
+        //INSERT ... SELECT 인 명언 등록은 합쳐지지 않고 문장마다 따로 실행된다. (처음 한 번만 넣는 초기 데이터라 그대로 둔다)
         try (Connection conn = ConnectionManager.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.executeQuery(sb.toString());
-
-        } catch (Exception ignore) {
+             PreparedStatement authors = conn.prepareStatement(authorSql);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for(int i = 1; i <= n; i++) {
+                authors.setString(1, "작자미상 " + i);
+                authors.addBatch();
+                ps.setString(1, "명언 " + i);
+                ps.setString(2, "작자미상 " + i);
+                ps.addBatch();
+            }
+            authors.executeBatch();
+            ps.executeBatch();
+        } catch (SQLException ignore) {
         }
 
     }
@@ -0,0 +1,498 @@
+package dbConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 크기가 제한된 JDBC 커넥션 풀.
+ * <p>
+ * 물리 커넥션을 재사용하여 매 쿼리마다 발생하던 핸드셰이크/인증 비용을 제거한다.
+ * 대여한 커넥션은 프록시로 감싸서 반환하며, {@link Connection#close()} 호출 시 실제로 닫지 않고 풀에 돌려놓는다.
+ * 따라서 기존의 try-with-resources 사용처는 수정 없이 재사용의 이점을 얻는다.
+ * <ul>
+ *     <li>대여 시 유효성 검사({@link Connection#isValid(int)})를 수행한다.</li>
+ *     <li>유휴 시간이 상한을 넘긴 커넥션은 대여/반납 시점에 폐기한다.</li>
+ *     <li>물리 커넥션마다 {@link PreparedStatement} 를 SQL 별로 보관하여, 같은 SQL 을 다시 준비하지 않고 재사용한다.
+ *     논리 statement 를 close 하면 파라미터만 비우고 캐시로 돌려놓는다. 보관 중에 닫힌 statement 는 다시 준비하고,
+ *     물리 커넥션을 폐기하면 보관 중인 statement 도 함께 닫는다.</li>
+ *     <li>대기 횟수, 타임아웃 횟수, statement 준비 횟수 등의 카운터를 {@link Stats}로 제공한다.</li>
+ *     <li>{@link StatementListener} 를 주면 statement 실행마다 SQL, 걸린 시간, 실패 여부를 알린다.</li>
+ * </ul>
+ */
+public class ConnectionPool {
+
+    /**
+     * 물리 커넥션 생성기
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * statement 실행 관찰자. 실행한 스레드에서 호출되므로 가볍게 처리해야 한다.
+     * prepareStatement(String) / prepareStatement(String, int) 로 준비한 statement 만 관찰한다.
+     */
+    @FunctionalInterface
+    public interface StatementListener {
+        /**
+         * @param sql 실행한 SQL
+         * @param elapsedNanos 걸린 시간
+         * @param error 실패했으면 그 예외, 성공이면 null
+         */
+        void executed(String sql, long elapsedNanos, SQLException error);
+    }
+
+    /**
+     * 풀 상태에 대한 스냅샷
+     * @param maxSize 최대 커넥션 수
+     * @param total 현재 열려 있는 물리 커넥션 수
+     * @param idle 유휴 커넥션 수
+     * @param borrowed 누적 대여 횟수
+     * @param created 누적 물리 커넥션 생성 횟수
+     * @param waits 즉시 대여하지 못하고 대기한 횟수
+     * @param timeouts 대기 시간 초과로 대여에 실패한 횟수
+     * @param validationFailures 유효성 검사에 실패하여 폐기된 횟수
+     * @param idleEvictions 유휴 시간 초과로 폐기된 횟수
+     * @param statementsPrepared 물리 커넥션에서 실제로 statement 를 준비한 횟수
+     * @param statementCacheHits 캐시된 statement 를 재사용한 횟수
+     */
+    public record Stats(
+            int maxSize, int total, int idle,
+            long borrowed, long created, long waits, long timeouts,
+            long validationFailures, long idleEvictions,
+            long statementsPrepared, long statementCacheHits
+    ) {
+        public int active() {
+            return total - idle;
+        }
+    }
+
+    // 유휴 커넥션과 마지막 반납 시각
+    private record IdleConnection(Connection physical, long returnedAt) { }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long maxIdleMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final StatementListener listener;
+
+    // 대여 가능한 슬롯 수. 열린 커넥션 수가 maxSize 를 넘지 않도록 보장한다.
+    private final Semaphore permits;
+    // 가장 최근에 반납된 커넥션을 먼저 꺼내도록 앞쪽을 스택처럼 사용한다.
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    // 물리 커넥션별 statement 캐시. 커넥션을 폐기할 때 함께 제거한다.
+    private final Map<Connection, StatementCache> statementCaches = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder statementsPrepared = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+
+    /**
+     * @param factory 물리 커넥션 생성기
+     * @param maxSize 최대 커넥션 수
+     * @param maxWaitMillis 커넥션을 얻기 위해 대기할 최대 시간
+     * @param maxIdleMillis 유휴 커넥션을 유지할 최대 시간
+     * @param validationTimeoutSeconds 대여 시 유효성 검사 타임아웃(초)
+     * @param statementCacheSize 커넥션마다 보관할 PreparedStatement 수 (0 이면 보관하지 않음)
+     * @param listener statement 실행 관찰자 (없으면 null)
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long maxWaitMillis,
+                          long maxIdleMillis, int validationTimeoutSeconds, int statementCacheSize,
+                          StatementListener listener) {
+        if(maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        if(statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must not be negative");
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.listener = listener;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * 풀에서 커넥션을 대여한다. 반환된 커넥션을 close 하면 풀로 반납된다.
+     * @return 풀에 연결된 논리 커넥션
+     * @throws SQLException 대기 시간 초과 혹은 물리 커넥션 생성 실패 시
+     */
+    public Connection borrow() throws SQLException {
+        acquirePermit();
+        try {
+            Connection physical = takeIdle();
+            if(physical == null) {
+                physical = factory.create();
+                total.incrementAndGet();
+                created.increment();
+            }
+            borrowed.increment();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 유휴 커넥션을 모두 닫는다. 대여 중인 커넥션은 반납 시점에 다시 풀에 들어간다.
+     */
+    public void closeIdle() {
+        IdleConnection entry;
+        while((entry = idle.pollFirst()) != null) {
+            discard(entry.physical());
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+                maxSize, total.get(), idle.size(),
+                borrowed.sum(), created.sum(), waits.sum(), timeouts.sum(),
+                validationFailures.sum(), idleEvictions.sum(),
+                statementsPrepared.sum(), statementCacheHits.sum()
+        );
+    }
+
+    private void acquirePermit() throws SQLException {
+        if(permits.tryAcquire()) return;
+
+        // 모든 커넥션이 사용 중이면 반납될 때까지 대기
+        waits.increment();
+        try {
+            if(permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection", e);
+        }
+        timeouts.increment();
+        throw new SQLException("connection pool timeout after " + maxWaitMillis + "ms");
+    }
+
+    // 유효한 유휴 커넥션을 꺼낸다. 없으면 null
+    private Connection takeIdle() {
+        IdleConnection entry;
+        while((entry = idle.pollFirst()) != null) {
+            if(isExpired(entry)) {
+                idleEvictions.increment();
+                discard(entry.physical());
+                continue;
+            }
+            if(!isValid(entry.physical())) {
+                validationFailures.increment();
+                discard(entry.physical());
+                continue;
+            }
+            return entry.physical();
+        }
+        return null;
+    }
+
+    private void giveBack(Connection physical) {
+        try {
+            if(physical.isClosed()) {
+                total.decrementAndGet();
+                statementCaches.remove(physical);
+                return;
+            }
+            // 트랜잭션을 열어둔 채 반납한 경우 상태를 초기화
+            if(!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idle.offerFirst(new IdleConnection(physical, System.currentTimeMillis()));
+        } catch (SQLException e) {
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+        evictExpiredTail();
+    }
+
+    // 가장 오래 쉬고 있는 커넥션부터 유휴 시간 상한을 넘긴 것을 정리
+    private void evictExpiredTail() {
+        IdleConnection oldest;
+        while((oldest = idle.peekLast()) != null && isExpired(oldest)) {
+            if(idle.removeLastOccurrence(oldest)) {
+                idleEvictions.increment();
+                discard(oldest.physical());
+            }
+        }
+    }
+
+    private boolean isExpired(IdleConnection entry) {
+        return System.currentTimeMillis() - entry.returnedAt() > maxIdleMillis;
+    }
+
+    private boolean isValid(Connection physical) {
+        try {
+            return physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(Connection physical) {
+        total.decrementAndGet();
+        StatementCache statements = statementCaches.remove(physical);
+        if(statements != null) statements.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException ignore) {}
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical, statementCacheSize == 0 ? null
+                        : statementCaches.computeIfAbsent(physical, c -> new StatementCache()))
+        );
+    }
+
+    /**
+     * 논리 커넥션 프록시. close 를 가로채어 풀에 반납하고, 반납 이후의 호출은 막는다.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection physical;
+        private final StatementCache statements;
+        // 이 논리 커넥션에서 꺼낸 뒤 아직 닫지 않은 statement. 커넥션 반납 시 캐시로 돌려놓는다.
+        private final List<PooledStatementHandler> open = new ArrayList<>();
+        private boolean closed;
+
+        private PooledConnectionHandler(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if(!closed) {
+                        closed = true;
+                        for(PooledStatementHandler statement : List.copyOf(open)) {
+                            statement.close();
+                        }
+                        giveBack(physical);
+                    }
+                    return null;
+                }
+                case "prepareStatement" -> {
+                    if(closed) throw new SQLException("connection already returned to the pool");
+                    StatementKey key = statements == null && listener == null ? null : StatementKey.of(method, args);
+                    if(key != null) return prepare((Connection) proxy, key);
+                }
+                case "isClosed" -> {
+                    return closed || physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + physical + "]";
+                }
+                default -> {
+                    if(closed) throw new SQLException("connection already returned to the pool");
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // 캐시에 있으면 꺼내 쓰고, 없으면 물리 커넥션에서 준비한다
+        private PreparedStatement prepare(Connection proxy, StatementKey key) throws SQLException {
+            PreparedStatement physicalStatement = statements == null ? null : statements.take(key);
+            if(physicalStatement != null) {
+                statementCacheHits.increment();
+            } else {
+                physicalStatement = physical.prepareStatement(key.sql(), key.autoGeneratedKeys());
+                statementsPrepared.increment();
+            }
+            PooledStatementHandler handler = new PooledStatementHandler(this, proxy, key, physicalStatement);
+            open.add(handler);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    handler
+            );
+        }
+    }
+
+    /**
+     * 캐시 가능한 statement 의 키. 결과 집합 형식 등을 지정한 호출은 캐시하지 않는다.
+     */
+    private record StatementKey(String sql, int autoGeneratedKeys) {
+        // prepareStatement(String) 과 prepareStatement(String, int autoGeneratedKeys) 만 키를 만든다
+        static StatementKey of(Method method, Object[] args) {
+            Class<?>[] types = method.getParameterTypes();
+            if(types.length == 1) return new StatementKey((String) args[0], Statement.NO_GENERATED_KEYS);
+            if(types.length == 2 && types[1] == int.class) return new StatementKey((String) args[0], (Integer) args[1]);
+            return null;
+        }
+    }
+
+    /**
+     * 물리 커넥션 하나의 statement LRU 캐시. 커넥션은 한 번에 한 스레드만 대여하므로 동기화하지 않는다.
+     */
+    private final class StatementCache {
+
+        private final LinkedHashMap<StatementKey, PreparedStatement> cached = new LinkedHashMap<>(16, 0.75f, true);
+
+        // 캐시에서 꺼낸다. 같은 SQL 을 동시에 두 번 쓰는 경우에는 두 번째가 새로 준비된다
+        // 보관 중에 닫힌 statement(드라이버가 오류로 닫은 경우 등)는 버리고 null 을 반환해 다시 준비하게 한다
+        PreparedStatement take(StatementKey key) {
+            PreparedStatement statement = cached.remove(key);
+            if(statement == null) return null;
+            try {
+                if(!statement.isClosed()) return statement;
+            } catch (SQLException ignore) { }
+            return null;
+        }
+
+        // 다시 쓸 수 있도록 돌려놓는다. 자리가 없으면 가장 오래 쓰지 않은 것을 닫는다
+        void offer(StatementKey key, PreparedStatement statement) {
+            try {
+                if(statement.isClosed()) return;
+                statement.clearParameters();
+                statement.clearBatch();
+                if(cached.putIfAbsent(key, statement) != null) {
+                    statement.close();
+                    return;
+                }
+                if(cached.size() > statementCacheSize) {
+                    Iterator<PreparedStatement> eldest = cached.values().iterator();
+                    PreparedStatement evicted = eldest.next();
+                    eldest.remove();
+                    evicted.close();
+                }
+            } catch (SQLException e) {
+                try {
+                    statement.close();
+                } catch (SQLException ignore) {}
+            }
+        }
+
+        // 물리 커넥션을 폐기할 때 보관 중인 statement 를 모두 닫는다
+        void closeAll() {
+            for(PreparedStatement statement : cached.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignore) {}
+            }
+            cached.clear();
+        }
+    }
+
+    /**
+     * 논리 statement 프록시. close 를 가로채어 물리 statement 를 캐시로 돌려놓고, 실행 시간을 관찰자에게 알린다.
+     */
+    private final class PooledStatementHandler implements InvocationHandler {
+
+        private final PooledConnectionHandler owner;
+        private final Connection connection;
+        private final StatementKey key;
+        private final PreparedStatement physical;
+        private boolean closed;
+
+        private PooledStatementHandler(PooledConnectionHandler owner, Connection connection,
+                                       StatementKey key, PreparedStatement physical) {
+            this.owner = owner;
+            this.connection = connection;
+            this.key = key;
+            this.physical = physical;
+        }
+
+        void close() {
+            if(closed) return;
+            closed = true;
+            owner.open.remove(this);
+            if(owner.statements != null) {
+                owner.statements.offer(key, physical);
+                return;
+            }
+            try {
+                physical.close();
+            } catch (SQLException ignore) {}
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || physical.isClosed();
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + physical + "]";
+                }
+                default -> {
+                    if(closed) throw new SQLException("statement already closed");
+                }
+            }
+            if(listener == null || !method.getName().startsWith("execute")) {
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(physical, args);
+                listener.executed(key.sql(), System.nanoTime() - start, null);
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                listener.executed(key.sql(), System.nanoTime() - start,
+                        cause instanceof SQLException sqlException ? sqlException : new SQLException(cause));
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dbConfig;
+
+import com.quoteBoard.utils.ConfigLoader;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * 데이터소스 / 커넥션 풀 / 쿼리 종류별 설정.
+ * <p>
+ * {@code src/resources/datasource.properties} 를 읽고 환경 변수(QUOTEBOARD_*)와 시스템 프로퍼티(-Dquoteboard.*)로 덮어쓴다.
+ * <pre>
+ * db.host / db.port / db.name / db.user / db.password
+ * db.property.{이름}                  드라이버 연결 속성 (rewriteBatchedStatements, useCompression, socketTimeout ...)
+ * pool.maxSize / pool.maxWaitMillis / pool.maxIdleMillis / pool.validationTimeoutSeconds / pool.statementCacheSize
+ * query.{종류}.fetchSize              0 이면 드라이버 기본값, "stream" 이면 한 행씩 스트리밍
+ * query.{종류}.timeoutSeconds         0 이면 제한 없음
+ * query.slowMillis                   이보다 오래 걸린 SQL 은 느린 쿼리 로그에 남긴다
+ * </pre>
+ */
+public record DataSourceConfig(
+        String host, int port, String database, String user, String password,
+        Map<String, String> driverProperties,
+        Pool pool,
+        Map<QueryType, Query> queries,
+        long slowQueryMillis
+) {
+
+    public static final Path DEFAULT_FILE = Path.of("src", "resources", "datasource.properties");
+    private static final String ENV_PREFIX = "quoteboard";
+    // MySQL Connector/J 에서 Integer.MIN_VALUE 는 행 단위 스트리밍을 의미한다
+    private static final String STREAM = "stream";
+
+    /**
+     * 쿼리 종류. 종류마다 fetch size 와 타임아웃을 따로 둔다.
+     */
+    public enum QueryType {
+        FIND, PAGE, SEARCH, COUNT, SCAN, WRITE, BATCH;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 커넥션 풀 설정
+     */
+    public record Pool(int maxSize, long maxWaitMillis, long maxIdleMillis,
+                       int validationTimeoutSeconds, int statementCacheSize) { }
+
+    /**
+     * 쿼리 종류별 설정
+     * @param fetchSize 0 이면 드라이버 기본값, {@link Integer#MIN_VALUE} 이면 스트리밍
+     * @param timeoutSeconds 0 이면 제한 없음
+     */
+    public record Query(int fetchSize, int timeoutSeconds) {
+        /**
+         * statement 에 설정을 적용한다. 풀에서 재사용되는 statement 이므로 기본값이어도 매번 설정한다.
+         */
+        public <T extends Statement> T applyTo(T statement) throws SQLException {
+            statement.setFetchSize(fetchSize);
+            statement.setQueryTimeout(timeoutSeconds);
+            return statement;
+        }
+    }
+
+    // 파일이 없어도 이 값으로 동작한다. 환경 변수는 여기나 파일에 있는 키만 덮어쓸 수 있다
+    private static final Map<String, String> DEFAULTS = defaults();
+
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("db.host", "localhost");
+        defaults.put("db.port", "3306");
+        defaults.put("db.name", "quoteDB");
+        defaults.put("db.user", "root");
+        defaults.put("db.password", "root");
+
+        //rewriteBatchedStatements : addBatch 로 쌓은 INSERT 를 multi-row INSERT 하나로 전송
+        //useServerPrepStmts : 서버에서 한 번 파싱한 statement 를 실행마다 재사용 (풀이 statement 를 보관하므로 재준비가 없다)
+        //cachePrepStmts : 풀 캐시에서 밀려나 닫힌 statement 도 드라이버가 보관하여 다시 준비할 때 재사용
+        defaults.put("db.property.rewriteBatchedStatements", "true");
+        defaults.put("db.property.useServerPrepStmts", "true");
+        defaults.put("db.property.cachePrepStmts", "true");
+        defaults.put("db.property.prepStmtCacheSize", "64");
+        defaults.put("db.property.prepStmtCacheSqlLimit", "2048");
+        defaults.put("db.property.useCompression", "false");
+        defaults.put("db.property.useCursorFetch", "false");
+        defaults.put("db.property.defaultFetchSize", "0");
+        defaults.put("db.property.connectTimeout", "10000");
+        defaults.put("db.property.socketTimeout", "0");
+
+        defaults.put("pool.maxSize", "10");
+        defaults.put("pool.maxWaitMillis", "5000");
+        defaults.put("pool.maxIdleMillis", "600000");
+        defaults.put("pool.validationTimeoutSeconds", "2");
+        // 저장소의 고정 쿼리(검색 종류별, IN 목록 크기별 포함)가 모두 들어가는 크기
+        defaults.put("pool.statementCacheSize", "64");
+
+        for(QueryType type : QueryType.values()) {
+            defaults.put("query." + type.key() + ".fetchSize", type == QueryType.SCAN ? STREAM : "0");
+            defaults.put("query." + type.key() + ".timeoutSeconds", "0");
+        }
+        defaults.put("query.slowMillis", "200");
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    /**
+     * {@link #DEFAULT_FILE} 과 환경 변수 / 시스템 프로퍼티로 설정을 읽는다.
+     * @throws IllegalArgumentException 값의 형식이 잘못된 경우
+     */
+    public static DataSourceConfig load() {
+        return load(ConfigLoader.load(DEFAULT_FILE, ENV_PREFIX, DEFAULTS));
+    }
+
+    static DataSourceConfig load(ConfigLoader config) {
+        Pool pool = new Pool(
+                config.getInt("pool.maxSize"),
+                config.getLong("pool.maxWaitMillis"),
+                config.getLong("pool.maxIdleMillis"),
+                config.getInt("pool.validationTimeoutSeconds"),
+                config.getInt("pool.statementCacheSize")
+        );
+
+        Map<QueryType, Query> queries = new EnumMap<>(QueryType.class);
+        for(QueryType type : QueryType.values()) {
+            String prefix = "query." + type.key() + ".";
+            String fetchSize = config.get(prefix + "fetchSize");
+            queries.put(type, new Query(
+                    fetchSize.equalsIgnoreCase(STREAM) ? Integer.MIN_VALUE : config.getInt(prefix + "fetchSize"),
+                    config.getInt(prefix + "timeoutSeconds")
+            ));
+        }
+
+        return new DataSourceConfig(
+                config.get("db.host"), config.getInt("db.port"), config.get("db.name"),
+                config.get("db.user"), config.get("db.password"),
+                Collections.unmodifiableMap(config.withPrefix("db.property.")),
+                pool, Collections.unmodifiableMap(queries),
+                config.getLong("query.slowMillis")
+        );
+    }
+
+    /**
+     * @return 연결 속성을 붙이지 않은 JDBC URL
+     */
+    public String url() {
+        return "jdbc:mysql://" + host + ":" + port + "/" + database;
+    }
+
+    /**
+     * 커넥션을 만들 때 드라이버에 넘길 속성 (계정 포함)
+     */
+    public Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.putAll(driverProperties);
+        properties.setProperty("user", user);
+        properties.setProperty("password", password);
+        return properties;
+    }
+
+    public Query query(QueryType type) {
+        return queries.get(type);
+    }
+
+    // 비밀번호는 로그에 남지 않도록 가린다
+    @Override
+    public String toString() {
+        return "DataSourceConfig[url=" + url() + ", user=" + user + ", password=****"
+                + ", driverProperties=" + driverProperties + ", pool=" + pool + ", queries=" + queries + ", slowQueryMillis=" + slowQueryMillis + "]";
+    }
+}
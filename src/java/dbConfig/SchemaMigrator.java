@@ -0,0 +1,186 @@
+package dbConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 스키마 마이그레이션. {@code V{번호}__{설명}.sql} 파일을 번호 순서대로 한 번씩 적용한다.
+ * <ul>
+ *     <li>적용한 번호는 {@value #VERSION_TABLE} 테이블에 남기며, 다음 실행에서는 그 이후의 파일만 적용한다.</li>
+ *     <li>여러 프로세스가 동시에 시작해도 {@code GET_LOCK} 으로 한 곳에서만 적용한다.</li>
+ *     <li>파일은 {@code ;} 로 끝나는 줄에서 문장을 나누고, {@code --} 로 시작하는 줄은 건너뛴다.</li>
+ * </ul>
+ * MySQL 의 DDL 은 트랜잭션으로 묶이지 않으므로 도중에 실패하면 번호를 남기지 않고 예외를 던지며, 다음 실행에서 그 파일을 처음부터 다시 적용한다.
+ * 따라서 마이그레이션 파일은 일부만 적용된 상태에서 다시 실행해도 되도록 작성한다. (예: 열이 이미 있는지 information_schema 로 확인)
+ */
+public final class SchemaMigrator {
+
+    /**
+     * 마이그레이션 파일 디렉터리
+     */
+    public static final Path MIGRATION_DIR = Path.of("src", "resources", "migration");
+
+    static final String VERSION_TABLE = "schema_version";
+
+    private static final Logger LOG = Logger.getLogger("quoteBoard.sql");
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "quoteBoard.schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String CREATE_VERSION_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INT NOT NULL PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+    private static final String CURRENT_VERSION_SQL = """
+            SELECT COALESCE(MAX(version), 0) FROM schema_version
+            """;
+    private static final String RECORD_VERSION_SQL = """
+            INSERT INTO schema_version(version, description)
+            VALUES (?, ?)
+            """;
+
+    /**
+     * 하나의 마이그레이션 파일
+     * @param version 파일 이름의 번호
+     * @param description 파일 이름의 설명
+     * @param statements 실행할 SQL 문
+     */
+    public record Migration(int version, String description, List<String> statements) { }
+
+    private SchemaMigrator() { }
+
+    /**
+     * 적용되지 않은 마이그레이션을 순서대로 적용한다.
+     * @param conn 사용할 커넥션 (자동 커밋)
+     * @param dir 마이그레이션 파일 디렉터리
+     * @return 이번에 적용한 마이그레이션 수
+     * @throws IOException 마이그레이션 파일을 읽지 못한 경우
+     * @throws SQLException 잠금을 얻지 못했거나 적용 도중 실패한 경우
+     */
+    public static int migrate(Connection conn, Path dir) throws IOException, SQLException {
+        List<Migration> migrations = load(dir);
+
+        lock(conn);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE_SQL);
+            }
+            int current = currentVersion(conn);
+            int applied = 0;
+            for(Migration migration : migrations) {
+                if(migration.version() <= current) continue;
+                apply(conn, migration);
+                applied++;
+            }
+            return applied;
+        } finally {
+            unlock(conn);
+        }
+    }
+
+    /**
+     * 디렉터리의 마이그레이션 파일을 번호 순서대로 읽는다. 이름 형식이 다른 파일은 무시한다.
+     * @param dir 마이그레이션 파일 디렉터리
+     * @return 번호 오름차순 마이그레이션
+     * @throws IOException 읽기 오류
+     * @throws IllegalStateException 같은 번호의 파일이 둘 이상인 경우
+     */
+    public static List<Migration> load(Path dir) throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for(Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if(!matcher.matches()) continue;
+                migrations.add(new Migration(
+                        Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '),
+                        statements(Files.readString(file))
+                ));
+            }
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for(int i = 1; i < migrations.size(); i++) {
+            if(migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("duplicate migration version: " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    // ';' 로 끝나는 줄에서 문장을 나눈다. 마지막 문장은 ';' 가 없어도 된다
+    private static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for(String line : script.split("\\R")) {
+            String trimmed = line.strip();
+            if(trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+            boolean end = trimmed.endsWith(";");
+            current.append(end ? line.substring(0, line.lastIndexOf(';')) : line).append('\n');
+            if(end) {
+                statements.add(current.toString().strip());
+                current.setLength(0);
+            }
+        }
+        if(!current.toString().isBlank()) statements.add(current.toString().strip());
+        return statements;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        List<String> statements = migration.statements();
+        try (Statement stmt = conn.createStatement()) {
+            for(int i = 0; i < statements.size(); i++) {
+                try {
+                    stmt.execute(statements.get(i));
+                } catch (SQLException e) {
+                    throw new SQLException(String.format("migration V%d failed at statement %d/%d : %s",
+                            migration.version(), i + 1, statements.size(), e.getMessage()), e.getSQLState(), e);
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(RECORD_VERSION_SQL)) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.executeUpdate();
+        }
+        LOG.info(() -> String.format("schema migrated to V%d (%s) in %.1fms",
+                migration.version(), migration.description(), (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(CURRENT_VERSION_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if(!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("schema lock timed out after " + LOCK_TIMEOUT_SECONDS + "s");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException ignore) {
+        }
+    }
+}
@@ -0,0 +1,45 @@
+-- 작가를 author 테이블로 분리한다. 명언 행에는 author_id 만 남기고, 작가 이름은 한 번만 저장한다.
+-- 이름은 대소문자 / 끝 공백까지 구분하는 utf8mb4_0900_bin 으로 두어 원래 값이 그대로 보존되도록 한다.
+-- 도중에 실패한 뒤 다시 실행해도 되도록, 시작할 때 quote 의 열을 보고 이미 끝난 단계는 건너뛴다.
+-- (MySQL 에는 ADD COLUMN IF NOT EXISTS 가 없으므로 조건에 따라 문장을 골라 PREPARE 로 실행한다)
+SET @has_author = (
+    SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'quote' AND column_name = 'author'
+);
+SET @has_author_id = (
+    SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'quote' AND column_name = 'author_id'
+);
+
+CREATE TABLE IF NOT EXISTS author (
+    author_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_bin NOT NULL,
+    UNIQUE KEY uk_author_name (name)
+);
+
+SET @step = IF(@has_author = 1,
+    'INSERT IGNORE INTO author(name) SELECT DISTINCT CONVERT(author USING utf8mb4) COLLATE utf8mb4_0900_bin FROM quote',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+
+SET @step = IF(@has_author_id = 0,
+    'ALTER TABLE quote ADD COLUMN author_id BIGINT NULL',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+
+SET @step = IF(@has_author = 1,
+    'UPDATE quote q JOIN author a ON a.name = CONVERT(q.author USING utf8mb4) COLLATE utf8mb4_0900_bin SET q.author_id = a.author_id WHERE q.author_id IS NULL',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+
+-- 보조 인덱스에는 기본키(quote_id)가 붙으므로 작가별 quote_id 내림차순 조회를 정렬 없이 읽는다
+-- 하나의 ALTER 이므로 모두 적용되거나 하나도 적용되지 않는다
+SET @step = IF(@has_author = 1,
+    'ALTER TABLE quote MODIFY author_id BIGINT NOT NULL, DROP COLUMN author, ADD INDEX idx_quote_author (author_id), ADD CONSTRAINT fk_quote_author FOREIGN KEY (author_id) REFERENCES author (author_id)',
+    'DO 0');
+PREPARE step FROM @step;
+EXECUTE step;
+DEALLOCATE PREPARE step;
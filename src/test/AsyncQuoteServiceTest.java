@@ -0,0 +1,102 @@
+import com.quoteBoard.dto.*;
+import com.quoteBoard.service.AsyncQuoteService;
+import com.quoteBoard.service.QuoteService;
+import org.junit.jupiter.api.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class AsyncQuoteServiceTest {
+
+    private static final int LIMIT = 10;
+    private static final int REQUESTS = 10_000;
+
+    private StubQuoteRepository repository;
+    private AsyncQuoteService service;
+
+    @BeforeEach
+    void before() {
+        repository = new StubQuoteRepository(2);
+        service = new AsyncQuoteService(new QuoteService(repository), LIMIT);
+    }
+
+    @AfterEach
+    void after() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("동시 요청 수천 건 처리 - 동시 실행 수 제한, 플랫폼 스레드 미증가")
+    void concurrentCreateTest() {
+        //given
+        int platformThreadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        //when
+        List<CompletableFuture<Long>> futures = new ArrayList<>(REQUESTS);
+        for(int i = 0; i < REQUESTS; i++) {
+            futures.add(service.create(new CreateQuoteDto("명언 " + i, "작가 " + i)));
+        }
+        int platformThreadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        //then
+        Set<Long> ids = new HashSet<>();
+        futures.forEach(f -> ids.add(f.join()));
+        Assertions.assertEquals(REQUESTS, ids.size());
+        Assertions.assertEquals(REQUESTS, repository.size());
+        Assertions.assertTrue(repository.maxConcurrent() <= LIMIT, "동시 실행 수 초과 : " + repository.maxConcurrent());
+        // 가상 스레드는 캐리어(CPU 수 만큼)만 사용하므로 요청 수에 비례해 늘지 않는다
+        Assertions.assertTrue(platformThreadsDuring - platformThreadsBefore < Runtime.getRuntime().availableProcessors() + 16,
+                "플랫폼 스레드 증가 : " + platformThreadsBefore + " -> " + platformThreadsDuring);
+    }
+
+    @Test
+    @DisplayName("조회 / 수정 / 삭제")
+    void crudTest() {
+        //given
+        Long id = service.create(new CreateQuoteDto("나의 죽음을 적들에게 알리지 말라!", "이순신")).join();
+
+        //when
+        service.update(new UpdateQuoteDto(id, "수정된 명언", "수정된 작가")).join();
+        QuoteResponse updated = service.get(id).join();
+        service.delete(id).join();
+        QuoteResponse deleted = service.get(id).join();
+
+        //then
+        Assertions.assertEquals("수정된 명언", updated.word());
+        Assertions.assertEquals("수정된 작가", updated.author());
+        Assertions.assertEquals(-1L, deleted.id());
+    }
+
+    @Test
+    @DisplayName("서비스 예외는 future 의 원인으로 전달")
+    void failureTest() {
+        //when
+        CompletableFuture<Void> future = service.delete(12345L);
+
+        //then
+        CompletionException e = Assertions.assertThrows(CompletionException.class, future::join);
+        Assertions.assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("기본 생성자 - 커넥션 풀이 없는 저장소는 고정된 동시 실행 수")
+    void defaultConcurrencyTest() {
+        //given
+        String property = "quoteboard.storage.backend";
+        String previous = System.getProperty(property);
+        System.setProperty(property, "memory");
+
+        //when
+        try (AsyncQuoteService memory = new AsyncQuoteService()) {
+            //then
+            Assertions.assertEquals(AsyncQuoteService.DEFAULT_MAX_CONCURRENCY, memory.maxConcurrency());
+            Long id = memory.create(new CreateQuoteDto("명언", "작가")).join();
+            Assertions.assertEquals("명언", memory.get(id).join().word());
+        } finally {
+            if(previous == null) System.clearProperty(property);
+            else System.setProperty(property, previous);
+        }
+    }
+}
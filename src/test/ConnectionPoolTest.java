@@ -0,0 +1,326 @@
+import dbConfig.ConnectionPool;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 커넥션 풀의 대여 / 반납 / 폐기 규칙과 statement 캐시를 가짜 물리 커넥션으로 확인한다. (MySQL 없이 확인 가능한 부분)
+ */
+public class ConnectionPoolTest {
+
+    private static final long MAX_WAIT_MILLIS = 50;
+    private static final long MAX_IDLE_MILLIS = 60_000;
+
+    // 풀이 만든 물리 커넥션을 만든 순서대로 보관
+    private final List<StubConnection> created = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("대여 대기 시간 초과 - SQLException, 대기 / 타임아웃 횟수 증가, 반납 후에는 대여 가능")
+    void borrowTimeoutTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(1, MAX_IDLE_MILLIS);
+        Connection first = pool.borrow();
+
+        //when
+        long start = System.nanoTime();
+        SQLException timeout = Assertions.assertThrows(SQLException.class, pool::borrow);
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        //then
+        Assertions.assertTrue(timeout.getMessage().contains("timeout"), timeout.getMessage());
+        Assertions.assertTrue(waitedMillis >= MAX_WAIT_MILLIS - 5, "waited " + waitedMillis + "ms");
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(1, stats.waits());
+        Assertions.assertEquals(1, stats.timeouts());
+        Assertions.assertEquals(1, stats.active());
+
+        first.close();
+        try (Connection again = pool.borrow()) {
+            Assertions.assertFalse(again.isClosed());
+        }
+        Assertions.assertEquals(1, created.size());
+    }
+
+    @Test
+    @DisplayName("유효하지 않은 유휴 커넥션 - 닫고 새 물리 커넥션으로 대체")
+    void invalidConnectionTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(2, MAX_IDLE_MILLIS);
+        pool.borrow().close();
+        created.get(0).valid = false;
+
+        //when
+        try (Connection connection = pool.borrow()) {
+            //then
+            Assertions.assertEquals(2, created.size());
+            Assertions.assertTrue(created.get(0).closed);
+            Assertions.assertFalse(connection.isClosed());
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(1, stats.validationFailures());
+        Assertions.assertEquals(1, stats.total());
+        Assertions.assertEquals(1, stats.idle());
+    }
+
+    @Test
+    @DisplayName("같은 논리 커넥션을 두 번 close - 슬롯은 한 번만 돌려주고, 반납 뒤의 호출은 실패")
+    void doubleCloseTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(1, MAX_IDLE_MILLIS);
+        Connection connection = pool.borrow();
+
+        //when
+        connection.close();
+        connection.close();
+
+        //then
+        Assertions.assertTrue(connection.isClosed());
+        Assertions.assertThrows(SQLException.class, connection::getAutoCommit);
+        Connection second = pool.borrow();
+        // 슬롯이 두 번 반납되었다면 최대 1개인 풀에서 두 번째 대여가 성공한다
+        Assertions.assertThrows(SQLException.class, pool::borrow);
+        second.close();
+        Assertions.assertEquals(1, pool.stats().timeouts());
+        Assertions.assertEquals(1, created.size());
+        Assertions.assertFalse(created.get(0).closed);
+    }
+
+    @Test
+    @DisplayName("유휴 시간을 넘긴 커넥션 - 대여 / 반납 시점에 닫고 새로 만든다")
+    void idleExpiredTest() throws Exception {
+        //given
+        long maxIdleMillis = 50;
+        ConnectionPool pool = pool(2, maxIdleMillis);
+        pool.borrow().close();
+        Thread.sleep(maxIdleMillis * 3);
+
+        //when - 대여 시점
+        Connection connection = pool.borrow();
+
+        //then
+        Assertions.assertTrue(created.get(0).closed);
+        Assertions.assertEquals(2, created.size());
+        Assertions.assertEquals(1, pool.stats().idleEvictions());
+
+        //given - 다른 커넥션이 쉬는 동안 시간이 지난다
+        Connection other = pool.borrow();
+        other.close();
+        Thread.sleep(maxIdleMillis * 3);
+
+        //when - 반납 시점
+        connection.close();
+
+        //then
+        Assertions.assertTrue(created.get(2).closed);
+        Assertions.assertFalse(created.get(1).closed);
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(2, stats.idleEvictions());
+        Assertions.assertEquals(1, stats.total());
+        Assertions.assertEquals(1, stats.idle());
+    }
+
+    @Test
+    @DisplayName("statement 캐시 LRU - 자리가 없으면 가장 오래 쓰지 않은 statement 를 닫고, 남은 것은 다시 쓴다")
+    void statementCacheEvictionTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(1, MAX_IDLE_MILLIS, 2);
+
+        //when
+        try (Connection connection = pool.borrow()) {
+            for(String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3")) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.executeUpdate();
+                }
+            }
+        }
+
+        //then
+        StubConnection physical = created.get(0);
+        Assertions.assertEquals(List.of("SELECT 1", "SELECT 2", "SELECT 3"), physical.preparedSql());
+        Assertions.assertTrue(physical.statement("SELECT 1").closed);
+        Assertions.assertFalse(physical.statement("SELECT 2").closed);
+        Assertions.assertFalse(physical.statement("SELECT 3").closed);
+
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 3").close();
+            connection.prepareStatement("SELECT 1").close();
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(2, stats.statementCacheHits());
+        Assertions.assertEquals(4, stats.statementsPrepared());
+        // 다시 준비한 SELECT 1 이 들어오면서 가장 오래 쓰지 않은 SELECT 2 가 밀려난다
+        Assertions.assertEquals(2, physical.statements.stream().filter(statement -> statement.closed).count());
+        Assertions.assertTrue(physical.statements.get(1).closed);
+    }
+
+    @Test
+    @DisplayName("캐시에 있는 동안 닫힌 statement - 꺼내 쓰지 않고 새로 준비")
+    void closedCachedStatementTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(1, MAX_IDLE_MILLIS, 4);
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+        }
+        // 드라이버가 오류 등으로 물리 statement 를 닫은 경우
+        created.get(0).statement("SELECT 1").closed = true;
+
+        //when
+        try (Connection connection = pool.borrow();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            //then
+            Assertions.assertEquals(1, statement.executeUpdate());
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(0, stats.statementCacheHits());
+        Assertions.assertEquals(2, stats.statementsPrepared());
+        Assertions.assertEquals(2, created.get(0).statements.size());
+    }
+
+    @Test
+    @DisplayName("물리 커넥션 폐기 - 캐시한 statement 를 닫고 비워, 새 커넥션에서는 다시 준비")
+    void discardClearsStatementCacheTest() throws SQLException {
+        //given
+        ConnectionPool pool = pool(1, MAX_IDLE_MILLIS, 4);
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+        }
+        StubConnection first = created.get(0);
+
+        //when
+        pool.closeIdle();
+
+        //then
+        Assertions.assertTrue(first.closed);
+        Assertions.assertTrue(first.statements.stream().allMatch(statement -> statement.closed));
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+        }
+        Assertions.assertEquals(2, created.size());
+        Assertions.assertEquals(0, pool.stats().statementCacheHits());
+        Assertions.assertEquals(List.of("SELECT 1"), created.get(1).preparedSql());
+
+        //when - 대여 중에 물리 커넥션이 닫힌 채 반납되는 경우
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+            created.get(1).close();
+        }
+
+        //then
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+        }
+        Assertions.assertEquals(3, created.size());
+        Assertions.assertEquals(List.of("SELECT 1"), created.get(2).preparedSql());
+        Assertions.assertEquals(1, pool.stats().statementCacheHits());
+    }
+
+    private ConnectionPool pool(int maxSize, long maxIdleMillis) {
+        return pool(maxSize, maxIdleMillis, 0);
+    }
+
+    private ConnectionPool pool(int maxSize, long maxIdleMillis, int statementCacheSize) {
+        return new ConnectionPool(() -> {
+            StubConnection connection = new StubConnection();
+            created.add(connection);
+            return connection.proxy;
+        }, maxSize, MAX_WAIT_MILLIS, maxIdleMillis, 1, statementCacheSize, null);
+    }
+
+    /**
+     * 물리 커넥션 흉내. 유효 여부, 닫힘 여부와 준비한 statement 만 기억하며, 풀이 쓰지 않는 메서드는 지원하지 않는다.
+     * 실제 드라이버와 달리 닫힐 때 statement 를 함께 닫지 않으므로, 풀이 직접 닫았는지 확인할 수 있다.
+     */
+    private static final class StubConnection implements InvocationHandler {
+
+        final Connection proxy = (Connection) Proxy.newProxyInstance(
+                ConnectionPoolTest.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        final List<StubStatement> statements = new CopyOnWriteArrayList<>();
+        volatile boolean valid = true;
+        volatile boolean closed;
+
+        void close() {
+            closed = true;
+        }
+
+        List<String> preparedSql() {
+            return statements.stream().map(statement -> statement.sql).toList();
+        }
+
+        // 가장 최근에 준비한 statement
+        StubStatement statement(String sql) {
+            for(int i = statements.size() - 1; i >= 0; i--) {
+                if(statements.get(i).sql.equals(sql)) return statements.get(i);
+            }
+            throw new AssertionError("not prepared: " + sql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "isValid" -> valid && !closed;
+                case "isClosed" -> closed;
+                case "close" -> {
+                    close();
+                    yield null;
+                }
+                case "getAutoCommit" -> true;
+                case "prepareStatement" -> {
+                    StubStatement statement = new StubStatement((String) args[0]);
+                    statements.add(statement);
+                    yield statement.proxy;
+                }
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "StubConnection";
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+    }
+
+    /**
+     * 물리 statement 흉내. 닫힘 여부만 기억하고, 실행하면 1 을 반환한다.
+     */
+    private static final class StubStatement implements InvocationHandler {
+
+        final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(
+                ConnectionPoolTest.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        final String sql;
+        volatile boolean closed;
+
+        StubStatement(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            return switch (method.getName()) {
+                case "isClosed" -> closed;
+                case "close" -> {
+                    closed = true;
+                    yield null;
+                }
+                case "clearParameters", "clearBatch" -> {
+                    if(closed) throw new SQLException("statement closed");
+                    yield null;
+                }
+                case "executeUpdate" -> {
+                    if(closed) throw new SQLException("statement closed");
+                    yield 1;
+                }
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "StubStatement[" + sql + "]";
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+    }
+}
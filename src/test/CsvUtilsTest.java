@@ -0,0 +1,105 @@
+import com.quoteBoard.dao.MemoryQuoteRepository;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.service.QuoteTransfer;
+import com.quoteBoard.utils.CsvUtils;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * CSV 기록 / 읽기가 줄바꿈(\n, \r\n, \r)과 null / 빈 문자열을 구분해 그대로 복원하는지 확인한다.
+ */
+public class CsvUtilsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("기록 후 읽기 - 값 안의 \\r\\n / \\r / \\n, 쉼표, 따옴표, null, 빈 문자열 그대로 복원")
+    void roundTripTest() throws IOException {
+        //given
+        List<Quote> quotes = List.of(
+                new Quote(1L, "윈도우\r\n줄바꿈", "맥\r줄바꿈"),
+                new Quote(2L, "유닉스\n줄바꿈\n", "\r\n"),
+                new Quote(3L, "쉼표, \"따옴표\"", "\"\""),
+                new Quote(4L, "", null),
+                new Quote(null, null, ""),
+                new Quote(5L, " 앞뒤 공백 ", "작가"));
+
+        // 레코드 구분자는 \n, \r\n, \r 어느 것이든 읽을 수 있어야 한다
+        for(String separator : List.of("\n", "\r\n", "\r")) {
+            StringBuilder csv = new StringBuilder(CsvUtils.HEADER).append(separator);
+            for(Quote quote : quotes) {
+                CsvUtils.writeRow(quote, csv);
+                csv.append(separator);
+            }
+
+            //when
+            List<Quote> read = new ArrayList<>();
+            try (BufferedReader in = new BufferedReader(new StringReader(csv.toString()))) {
+                Assertions.assertEquals(CsvUtils.HEADER, CsvUtils.readRecord(in));
+                String record;
+                while((record = CsvUtils.readRecord(in)) != null) read.add(CsvUtils.parseRow(record));
+            }
+
+            //then
+            Assertions.assertEquals(quotes.size(), read.size(), "구분자 " + separator.replace("\r", "\\r").replace("\n", "\\n"));
+            for(int i = 0; i < quotes.size(); i++) {
+                Assertions.assertEquals(quotes.get(i).getId(), read.get(i).getId());
+                Assertions.assertEquals(quotes.get(i).getQuote(), read.get(i).getQuote());
+                Assertions.assertEquals(quotes.get(i).getAuthor(), read.get(i).getAuthor());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("null 과 빈 문자열 - null 은 따옴표 없는 빈 열, 빈 문자열은 \"\"")
+    void nullAndEmptyTest() {
+        //given
+        StringBuilder row = new StringBuilder();
+
+        //when
+        CsvUtils.writeRow(new Quote(1L, "", null), row);
+
+        //then
+        Assertions.assertEquals("1,\"\",", row.toString());
+        Quote quote = CsvUtils.parseRow("1,,\"\"");
+        Assertions.assertNull(quote.getQuote());
+        Assertions.assertEquals("", quote.getAuthor());
+        Assertions.assertNull(CsvUtils.parseRow(",a,b").getId());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CsvUtils.parseRow("1,\"닫히지 않음,b"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CsvUtils.parseRow("1,a"));
+    }
+
+    @Test
+    @DisplayName("내보내기 후 가져오기 - 여러 줄 값은 그대로, 명언 / 작가가 null 인 행은 건너뜀")
+    void exportImportTest() throws IOException {
+        //given
+        MemoryQuoteRepository source = new MemoryQuoteRepository();
+        source.create(new Quote("첫 줄\r\n둘째 줄", "작가, 이름"));
+        source.create(new Quote("", "빈 명언"));
+        Path file = dir.resolve("quotes.csv");
+        new QuoteTransfer(source).exportTo(file, (rows, rate) -> { });
+        Files.writeString(file, Files.readString(file) + ",작가 없음,\r\n,,작가\r\n");
+
+        //when
+        MemoryQuoteRepository target = new MemoryQuoteRepository();
+        QuoteTransfer.Result result = new QuoteTransfer(target, 1_000, 2).importFrom(file, (rows, rate) -> { });
+
+        //then
+        Assertions.assertEquals(2, result.rows());
+        Assertions.assertEquals(2, result.skipped());
+        List<Quote> imported = target.findAll();
+        Assertions.assertEquals(2, imported.size());
+        Map<String, String> byAuthor = new HashMap<>();
+        for(Quote quote : imported) byAuthor.put(quote.getAuthor(), quote.getQuote());
+        Assertions.assertEquals("첫 줄\r\n둘째 줄", byAuthor.get("작가, 이름"));
+        Assertions.assertEquals("", byAuthor.get("빈 명언"));
+    }
+}
@@ -0,0 +1,257 @@
+import com.quoteBoard.dao.QuoteRepositoryImpl;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.JsonUtils;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 파일 저장소의 페이징 / 커서 / 검색이 RDB 저장소와 같은 의미를 갖는지, 색인 파일로 다시 열어도 같은 결과인지 확인한다.
+ */
+public class FileQuoteRepositoryTest {
+
+    private static final int PAGE_CNT = 20;
+    private static final String INDEX_FILE = "quotes.idx";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("번호 페이지 / 커서 - id 내림차순 20건씩, 범위 밖은 마지막 페이지")
+    void pagedQuoteTest() {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Long> expected = createAndDeleteSome(repository, 1_500);
+
+        //when & then
+        assertPages(repository, expected);
+        PagedQuoteDto beyond = repository.findPagedQuote(Integer.MAX_VALUE);
+        Assertions.assertEquals(slice(expected, maxPage(expected)), ids(beyond));
+        Assertions.assertNull(beyond.nextCursor());
+        Assertions.assertEquals(1, repository.findPagedQuote(-3).currentPage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repository.findPagedQuoteByCursor("not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("검색 - 대소문자 무시 부분 일치, 수정 / 삭제 반영")
+    void searchTest() {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        Long first = repository.create(new Quote("Stay Hungry, stay foolish", "Steve Jobs")).getId();
+        Long second = repository.create(new Quote("나의 죽음을 적들에게 알리지 말라", "이순신")).getId();
+        Long third = repository.create(new Quote("죽느냐 사느냐", "셰익스피어")).getId();
+        // 바뀌기 전 결과를 캐시에 올려 둔다
+        Assertions.assertEquals(List.of(third, second), ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "죽", 1)));
+
+        //when
+        repository.update(first, "hungry", "jobs");
+        repository.delete(third);
+
+        //then
+        Assertions.assertEquals(List.of(first), ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "HUNG", 1)));
+        Assertions.assertEquals(List.of(), ids(repository.search(SearchQuoteRequest.SearchType.AUTHOR, "Steve", 1)));
+        Assertions.assertEquals(List.of(second), ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "죽", 1)));
+        Assertions.assertEquals(List.of(second, first), ids(repository.search(SearchQuoteRequest.SearchType.AUTHOR, "", 1)));
+    }
+
+    @Test
+    @DisplayName("색인 파일로 다시 열기 - 저장 이후의 쓰기만 반영해도 같은 결과")
+    void reopenWithIndexFileTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Long> expected = new ArrayList<>(createAndDeleteSome(repository, 500));
+        repository.build();
+        Assertions.assertTrue(Files.exists(dir.resolve(INDEX_FILE)));
+        // 저장 이후의 쓰기
+        Long added = repository.create(new Quote("저장 이후", "작가")).getId();
+        repository.delete(expected.remove(expected.size() - 1));
+        repository.update(expected.get(0), "수정됨", "작가");
+        expected.add(0, added);
+
+        //when
+        QuoteRepositoryImpl reopened = new QuoteRepositoryImpl(dir);
+
+        //then
+        assertPages(reopened, expected);
+        Assertions.assertEquals(List.of(added), ids(reopened.search(SearchQuoteRequest.SearchType.CONTENT, "저장 이후", 1)));
+        Assertions.assertEquals(List.of(expected.get(1)), ids(reopened.search(SearchQuoteRequest.SearchType.CONTENT, "수정됨", 1)));
+    }
+
+    @Test
+    @DisplayName("손상된 색인 파일 - 무시하고 로그에서 다시 만든다")
+    void corruptIndexFileTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Long> expected = createAndDeleteSome(repository, 300);
+        repository.build();
+        byte[] bytes = Files.readAllBytes(dir.resolve(INDEX_FILE));
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(dir.resolve(INDEX_FILE), bytes);
+
+        //when
+        QuoteRepositoryImpl reopened = new QuoteRepositoryImpl(dir);
+
+        //then
+        assertPages(reopened, expected);
+        // 다시 만든 색인은 백그라운드에서 저장된다. 저장이 끝나기 전에 임시 디렉터리를 지우지 않도록 기다린다
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while(Arrays.equals(bytes, Files.readAllBytes(dir.resolve(INDEX_FILE)))) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "index file was not rewritten");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 디렉터리를 연 다른 저장소의 쓰기 - 다음 조회에 반영")
+    void otherInstanceWriteTest() throws Exception {
+        //given
+        QuoteRepositoryImpl first = new QuoteRepositoryImpl(dir);
+        QuoteRepositoryImpl second = new QuoteRepositoryImpl(dir);
+        Long id = first.create(new Quote("첫 번째", "작가")).getId();
+        // 다른 인스턴스의 쓰기는 로그 확인 간격만큼 늦게 보일 수 있다
+        Thread.sleep(150);
+        Assertions.assertEquals(List.of(id), ids(second.findPagedQuote(1)));
+
+        //when
+        Long other = first.create(new Quote("두 번째", "작가")).getId();
+        first.delete(id);
+        Thread.sleep(150);
+
+        //then
+        Assertions.assertEquals(List.of(other), ids(second.findPagedQuote(1)));
+        Assertions.assertEquals(List.of(other), ids(second.search(SearchQuoteRequest.SearchType.AUTHOR, "작가", 1)));
+    }
+
+    @Test
+    @DisplayName("이전 방식({id}.json) 파일 - 묶음 크기를 넘어도 모두 옮기고, 손상된 파일은 건너뛴다")
+    void importLegacyFilesTest() throws Exception {
+        //given
+        int n = 2_500;
+        for(long id = 1; id <= n; id++) {
+            Files.writeString(dir.resolve(id + ".json"), JsonUtils.entityToJson(new Quote(id, "명언 " + id, "작가")));
+        }
+        Files.writeString(dir.resolve((n + 1) + ".json"), "{\"id\": " + (n + 1) + ", \"content\": \"잘린");
+
+        //when
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+
+        //then
+        long[] count = {0};
+        repository.scanAll(quote -> count[0]++);
+        Assertions.assertEquals(n, count[0]);
+        Assertions.assertEquals("명언 1", repository.find(1L).orElseThrow().getQuote());
+        Assertions.assertEquals("명언 " + n, repository.find((long) n).orElseThrow().getQuote());
+        Assertions.assertTrue(repository.find(n + 1L).isEmpty());
+        Assertions.assertEquals(n + 1L, repository.create(new Quote("새 명언", "작가")).getId());
+    }
+
+    @Test
+    @DisplayName("순위 색인 범위(2^30)를 넘는 id - 발급 / 이전 파일 옮기기 모두 기록하지 않고 실패")
+    void idOutOfRangeTest() throws Exception {
+        //given
+        long maxId = 1L << 30;
+        Files.writeString(dir.resolve("lastId.txt"), Long.toString(maxId + 1));
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+
+        //when & then - 발급
+        Assertions.assertThrows(IllegalStateException.class, () -> repository.create(new Quote("명언", "작가")));
+        long[] count = {0};
+        repository.scanAll(quote -> count[0]++);
+        Assertions.assertEquals(0, count[0]);
+
+        //given - 이전 방식 파일
+        Path legacy = dir.resolve("legacy");
+        Files.createDirectories(legacy);
+        Files.writeString(legacy.resolve("1.json"), JsonUtils.entityToJson(new Quote(1L, "명언", "작가")));
+        Files.writeString(legacy.resolve((maxId + 1) + ".json"), JsonUtils.entityToJson(new Quote(maxId + 1, "명언", "작가")));
+
+        //when & then - 옮기기는 실패하고 새 로그를 남기지 않아, 고친 뒤 다시 열면 처음부터 옮긴다
+        Assertions.assertThrows(IllegalStateException.class, () -> new QuoteRepositoryImpl(legacy));
+        Assertions.assertFalse(Files.exists(legacy.resolve("quotes.log")));
+        Files.delete(legacy.resolve((maxId + 1) + ".json"));
+        Assertions.assertEquals("명언", new QuoteRepositoryImpl(legacy).find(1L).orElseThrow().getQuote());
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 lastId.txt - 1 로 되돌리지 않고 발급 실패, 고친 뒤에는 그 값부터 발급")
+    void corruptLastIdTest() throws Exception {
+        //given
+        QuoteRepositoryImpl first = new QuoteRepositoryImpl(dir);
+        first.create(new Quote("명언", "작가"));
+        Path lastId = dir.resolve("lastId.txt");
+        Files.writeString(lastId, "12#4");
+
+        //when & then
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        Assertions.assertThrows(UncheckedIOException.class, () -> repository.create(new Quote("명언", "작가")));
+        Assertions.assertEquals("12#4", Files.readString(lastId));
+
+        //when & then - 고친 뒤
+        Files.writeString(lastId, "5000");
+        Assertions.assertEquals(5000L, new QuoteRepositoryImpl(dir).create(new Quote("명언", "작가")).getId());
+        Assertions.assertEquals("6000", Files.readString(lastId));
+        try (var files = Files.list(dir)) {
+            Assertions.assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    // 모든 번호 페이지와, 커서로 끝까지 갔다가 되돌아온 결과를 기대값과 비교
+    private static void assertPages(QuoteRepositoryImpl repository, List<Long> expected) {
+        int maxPage = maxPage(expected);
+        for(int page = 1; page <= maxPage; page++) {
+            PagedQuoteDto dto = repository.findPagedQuote(page);
+            Assertions.assertEquals(maxPage, dto.maxPage());
+            Assertions.assertEquals(page, dto.currentPage());
+            Assertions.assertEquals(slice(expected, page), ids(dto));
+        }
+
+        List<Long> forward = new ArrayList<>();
+        PagedQuoteDto dto = repository.findPagedQuoteByCursor(null);
+        forward.addAll(ids(dto));
+        while(dto.nextCursor() != null) {
+            dto = repository.findPagedQuoteByCursor(dto.nextCursor());
+            forward.addAll(ids(dto));
+        }
+        List<Long> backward = new ArrayList<>(ids(dto));
+        while(dto.prevCursor() != null) {
+            dto = repository.findPagedQuoteByCursor(dto.prevCursor());
+            backward.addAll(0, ids(dto));
+        }
+        Assertions.assertEquals(expected, forward);
+        Assertions.assertEquals(expected, backward);
+    }
+
+    // n 건을 등록하고 7 의 배수 번째를 지운 뒤 남은 id 를 내림차순으로 반환
+    private static List<Long> createAndDeleteSome(QuoteRepositoryImpl repository, int n) {
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < n; i++) quotes.add(new Quote("명언 " + i, "작가 " + i));
+        repository.createAll(quotes, 256);
+
+        List<Long> remaining = new ArrayList<>();
+        for(Quote quote : quotes) {
+            if(quote.getId() % 7 == 0) repository.delete(quote.getId());
+            else remaining.add(quote.getId());
+        }
+        remaining.sort(Comparator.reverseOrder());
+        return remaining;
+    }
+
+    private static int maxPage(List<Long> ids) {
+        return Math.max(1, (ids.size() + PAGE_CNT - 1) / PAGE_CNT);
+    }
+
+    private static List<Long> slice(List<Long> ids, int page) {
+        int from = (page - 1) * PAGE_CNT;
+        return ids.subList(from, Math.min(ids.size(), from + PAGE_CNT));
+    }
+
+    private static List<Long> ids(PagedQuoteDto dto) {
+        return dto.quotes().stream().map(Quote::getId).toList();
+    }
+}
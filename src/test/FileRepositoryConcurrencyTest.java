@@ -0,0 +1,303 @@
+import com.quoteBoard.dao.QuoteLogStore;
+import com.quoteBoard.dao.QuoteRepositoryImpl;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.FileUtils;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 파일 저장소의 동시 쓰기 스트레스 테스트.
+ * 같은 디렉터리를 연 두 인스턴스는 메모리 상태(색인, id 구간)를 공유하지 않으므로 두 프로세스처럼 동작한다.
+ */
+public class FileRepositoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 1_500;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("여러 스레드 동시 등록 - id 중복 / 유실 없음")
+    void concurrentCreateTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+
+        //when
+        List<Long> ids = createConcurrently(List.of(repository), "a");
+
+        //then
+        assertAllPresent(new QuoteRepositoryImpl(dir), ids, "a");
+    }
+
+    @Test
+    @DisplayName("같은 디렉터리를 연 두 저장소의 동시 등록 - id 중복 / 유실 없음")
+    void concurrentCreateAcrossInstancesTest() throws Exception {
+        //given
+        QuoteRepositoryImpl first = new QuoteRepositoryImpl(dir);
+        QuoteRepositoryImpl second = new QuoteRepositoryImpl(dir);
+
+        //when
+        List<Long> ids = createConcurrently(List.of(first, second), "b");
+
+        //then
+        assertAllPresent(new QuoteRepositoryImpl(dir), ids, "b");
+        // 다른 인스턴스가 쓴 명언도 읽을 수 있어야 한다
+        Thread.sleep(150);
+        Assertions.assertEquals(ids.size(), first.findAll().size());
+        Assertions.assertEquals(ids.size(), second.findAll().size());
+    }
+
+    @Test
+    @DisplayName("동시 수정 / 삭제 - 마지막 쓰기 유지, 삭제된 명언 부활 없음")
+    void concurrentUpdateDeleteTest() throws Exception {
+        //given
+        QuoteRepositoryImpl first = new QuoteRepositoryImpl(dir);
+        QuoteRepositoryImpl second = new QuoteRepositoryImpl(dir);
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < THREADS * 10; i++) {
+            ids.add(first.create(new Quote("원본 " + i, "작가")).getId());
+        }
+        int rounds = 50;
+
+        //when
+        // 스레드마다 자기 몫의 id 를 여러 번 수정하고, 짝수 번째 id 는 마지막에 삭제한다
+        // 동시에 다른 스레드들은 전체 id 를 대상으로 삭제를 시도해 수정과 경합시킨다
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++) {
+            int owner = t;
+            QuoteRepositoryImpl repository = t % 2 == 0 ? first : second;
+            futures.add(executor.submit(() -> {
+                for(int r = 1; r <= rounds; r++) {
+                    for(int i = owner; i < ids.size(); i += THREADS) {
+                        if(i % 4 == 3) continue; // 경합용으로 남긴 id
+                        repository.update(ids.get(i), "수정 " + r, "작가 " + owner);
+                    }
+                }
+                for(int i = owner; i < ids.size(); i += THREADS) {
+                    if(i % 4 == 0) repository.delete(ids.get(i));
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                for(int i = owner; i < ids.size(); i += THREADS) {
+                    if(i % 4 != 3) continue;
+                    try {
+                        repository.delete(ids.get(i));
+                    } catch (IllegalArgumentException ignore) { }
+                    try {
+                        repository.update(ids.get(i), "부활", "부활");
+                        Assertions.fail("삭제된 명언이 수정됨 : " + ids.get(i));
+                    } catch (IllegalArgumentException expected) { }
+                }
+                return null;
+            }));
+        }
+        for(Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        //then
+        QuoteRepositoryImpl reopened = new QuoteRepositoryImpl(dir);
+        for(int i = 0; i < ids.size(); i++) {
+            Optional<Quote> quote = reopened.find(ids.get(i));
+            if(i % 4 == 0 || i % 4 == 3) {
+                Assertions.assertTrue(quote.isEmpty(), "삭제된 명언이 남아 있음 : " + ids.get(i));
+            } else {
+                Assertions.assertEquals("수정 " + rounds, quote.orElseThrow().getQuote());
+                Assertions.assertEquals("작가 " + (i % THREADS), quote.get().getAuthor());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("쓰다가 잘린 로그 - 다시 열면 완료된 쓰기만 복원하고 이후 쓰기를 이어간다")
+    void tornTailReplayTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Long> ids = createConcurrently(List.of(repository), "c");
+        Path log = dir.resolve(QuoteLogStore.FILE_NAME);
+        // 마지막 레코드를 쓰는 도중 종료된 것처럼 끝부분을 잘라낸다
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        //when
+        QuoteRepositoryImpl reopened = new QuoteRepositoryImpl(dir);
+        long next = reopened.create(new Quote("재시작 후", "작가")).getId();
+
+        //then
+        Assertions.assertEquals(ids.size(), reopened.findAll().size());
+        Assertions.assertEquals("재시작 후", new QuoteRepositoryImpl(dir).find(next).orElseThrow().getQuote());
+    }
+
+    // 저장소들에 스레드를 고르게 나눠 동시에 등록하고, 발급된 id 를 모두 반환한다
+    @Test
+    @DisplayName("순회 도중 수정 - 수정된 명언도 빠짐 / 중복 없이 한 번씩 전달")
+    void scanDuringUpdateTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < 20_000; i++) quotes.add(new Quote("원본 " + i, "작가"));
+        repository.createAll(quotes);
+        Set<Long> expected = new HashSet<>();
+        for(Quote quote : quotes) expected.add(quote.getId());
+
+        //when
+        // 순회하는 동안 앞쪽 명언을 계속 수정해, 순회 시작 때의 레코드가 끝 이후의 레코드로 대체되게 한다
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> updater = executor.submit(() -> {
+            started.countDown();
+            for(int r = 0; !Thread.currentThread().isInterrupted(); r++) {
+                Quote quote = quotes.get(r % 2_000);
+                repository.update(quote.getId(), "수정 " + r, "작가");
+            }
+        });
+        started.await();
+        try {
+            for(int scan = 0; scan < 20; scan++) {
+                List<Long> seen = new ArrayList<>();
+                repository.scanAll(quote -> seen.add(quote.getId()));
+
+                //then
+                Assertions.assertEquals(expected.size(), seen.size(), "순회 " + scan);
+                Assertions.assertEquals(expected, new HashSet<>(seen), "순회 " + scan);
+            }
+        } finally {
+            updater.cancel(true);
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("쓰는 도중 색인 저장 - 다시 열면 저장 뒤의 쓰기까지 반영된 같은 목록 / 검색 결과")
+    void checkpointDuringWritesTest() throws Exception {
+        //given
+        QuoteRepositoryImpl repository = new QuoteRepositoryImpl(dir);
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < 5_000; i++) quotes.add(new Quote("원본 " + i, "작가"));
+        repository.createAll(quotes);
+
+        //when - 등록 / 수정 / 삭제가 이어지는 동안 색인을 여러 번 저장
+        // 인터럽트는 쓰던 FileChannel 을 닫으므로 플래그로 멈춘다
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> writer = executor.submit(() -> {
+            started.countDown();
+            for(int r = 0; !stop.get(); r++) {
+                Long id = repository.create(new Quote("새 " + r, "작가")).getId();
+                repository.update(quotes.get(r % quotes.size()).getId(), "수정 " + r, "작가");
+                if(r % 3 == 0) repository.delete(id);
+            }
+        });
+        started.await();
+        try {
+            for(int i = 0; i < 20; i++) repository.checkpoint();
+        } finally {
+            stop.set(true);
+            executor.shutdown();
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        repository.checkpoint();
+        repository.create(new Quote("저장 뒤 수정", "작가"));
+
+        //then
+        QuoteRepositoryImpl reopened = new QuoteRepositoryImpl(dir);
+        int maxPage = repository.findPagedQuote(1).maxPage();
+        Assertions.assertEquals(maxPage, reopened.findPagedQuote(1).maxPage());
+        for(int page = 1; page <= maxPage; page++) {
+            Assertions.assertEquals(ids(repository.findPagedQuote(page).quotes()), ids(reopened.findPagedQuote(page).quotes()), "페이지 " + page);
+        }
+        for(int page = 1; page <= 3; page++) {
+            Assertions.assertEquals(
+                    ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "수정", page).quotes()),
+                    ids(reopened.search(SearchQuoteRequest.SearchType.CONTENT, "수정", page).quotes()), "검색 " + page);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 파일 동시 교체 - 모두 성공하고 그중 하나의 내용이 온전히 남으며 임시 파일은 남지 않음")
+    void concurrentWriteAtomicallyTest() throws Exception {
+        //given
+        Path target = dir.resolve("data.json");
+        int rounds = 50;
+        String filler = "x".repeat(100_000);
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++) {
+            String content = t + filler + t;
+            futures.add(executor.submit(() -> {
+                for(int r = 0; r < rounds; r++) {
+                    FileUtils.writeAtomically(target, writer -> writer.write(content));
+                }
+                return null;
+            }));
+        }
+        for(Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        String written = Files.readString(target);
+        String prefix = written.substring(0, written.indexOf('x'));
+        Assertions.assertEquals(prefix + filler + prefix, written);
+        try (var files = Files.list(dir)) {
+            Assertions.assertEquals(List.of(target), files.toList());
+        }
+    }
+
+    private static List<Long> ids(List<Quote> quotes) {
+        return quotes.stream().map(Quote::getId).toList();
+    }
+
+    private static List<Long> createConcurrently(List<QuoteRepositoryImpl> repositories, String prefix) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++) {
+            int thread = t;
+            QuoteRepositoryImpl repository = repositories.get(t % repositories.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Long> ids = new ArrayList<>(PER_THREAD);
+                for(int i = 0; i < PER_THREAD; i++) {
+                    ids.add(repository.create(new Quote(prefix + "-" + thread + "-" + i, "작가 " + thread)).getId());
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+
+        List<Long> ids = new ArrayList<>();
+        for(Future<List<Long>> future : futures) ids.addAll(future.get());
+        executor.shutdown();
+
+        Assertions.assertEquals(THREADS * PER_THREAD, new HashSet<>(ids).size(), "중복 id 발급");
+        return ids;
+    }
+
+    // 발급된 id 마다 해당 스레드가 쓴 내용이 그대로 저장되어 있는지 확인한다
+    private static void assertAllPresent(QuoteRepositoryImpl repository, List<Long> ids, String prefix) {
+        Assertions.assertEquals(ids.size(), repository.findAll().size());
+        for(int t = 0; t < THREADS; t++) {
+            for(int i = 0; i < PER_THREAD; i++) {
+                long id = ids.get(t * PER_THREAD + i);
+                Quote quote = repository.find(id).orElseThrow(() -> new AssertionError("유실된 id : " + id));
+                Assertions.assertEquals(prefix + "-" + t + "-" + i, quote.getQuote());
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import com.quoteBoard.dao.ForwardingQuoteRepository;
+import com.quoteBoard.dao.QuoteRepository;
+import com.quoteBoard.dto.CreateQuoteDto;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.http.QuoteHttpServer;
+import com.quoteBoard.service.AsyncQuoteService;
+import com.quoteBoard.service.QuoteService;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 모드 기능 테스트와 부하 테스트.
+ * 부하 테스트는 외부 서버를 대상으로 직접 실행할 수도 있다.
+ * <pre>
+ * java -cp ... HttpLoadTest http://localhost:8080 20000 200
+ * </pre>
+ */
+public class HttpLoadTest {
+
+    private StubQuoteRepository repository;
+    private AsyncQuoteService service;
+    private QuoteHttpServer server;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    void before() throws Exception {
+        repository = new StubQuoteRepository(1);
+        service = new AsyncQuoteService(new QuoteService(repository), 10);
+        for(int i = 0; i < 100; i++) {
+            service.create(new CreateQuoteDto("명언 " + i, "작가 " + i)).join();
+        }
+        server = new QuoteHttpServer(0, service);
+        server.start();
+        base = "http://localhost:" + server.port();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void after() {
+        server.close();
+        service.close();
+    }
+
+    @Test
+    @DisplayName("등록 / 조회 / 수정 / 삭제")
+    void crudTest() throws Exception {
+        //when
+        HttpResponse<String> created = send("POST", "/quotes", "{\"content\":\"나의 죽음을 적들에게 알리지 말라!\",\"author\":\"이순신\"}");
+        String location = created.headers().firstValue("Location").orElseThrow();
+        HttpResponse<String> found = send("GET", location, null);
+        HttpResponse<String> updated = send("PUT", location, "{\"content\":\"수정된 명언\",\"author\":\"수정된 작가\"}");
+        HttpResponse<String> afterUpdate = send("GET", location, null);
+        HttpResponse<String> deleted = send("DELETE", location, null);
+        HttpResponse<String> missing = send("GET", location, null);
+
+        //then
+        Assertions.assertEquals(201, created.statusCode());
+        Assertions.assertEquals(200, found.statusCode());
+        Assertions.assertTrue(found.body().contains("\"author\":\"이순신\""));
+        Assertions.assertEquals(204, updated.statusCode());
+        Assertions.assertTrue(afterUpdate.body().contains("\"word\":\"수정된 명언\""));
+        Assertions.assertEquals(204, deleted.statusCode());
+        Assertions.assertEquals(404, missing.statusCode());
+        Assertions.assertEquals(400, send("POST", "/quotes", "{\"content\":\"작가 없음\"}").statusCode());
+    }
+
+    @Test
+    @DisplayName("목록 / 검색")
+    void listTest() throws Exception {
+        //when
+        HttpResponse<String> page = send("GET", "/quotes?page=2", null);
+        HttpResponse<String> search = send("GET", "/quotes?keywordType=author&keyword=" + encode("작가 99"), null);
+        HttpResponse<String> badType = send("GET", "/quotes?keywordType=none&keyword=x", null);
+
+        //then
+        Assertions.assertEquals(200, page.statusCode());
+        Assertions.assertTrue(page.body().startsWith("{\"maxPage\":5,\"currentPage\":2,"));
+        Assertions.assertTrue(search.body().contains("\"author\":\"작가 99\""));
+        Assertions.assertEquals(400, badType.statusCode());
+    }
+
+    @Test
+    @DisplayName("목록 ETag - 변경이 없으면 304, 변경 후에는 200")
+    void etagTest() throws Exception {
+        //given
+        HttpResponse<String> first = send("GET", "/quotes", null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        //when
+        HttpResponse<String> notModified = client.send(request("GET", "/quotes", null).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofString());
+        send("POST", "/quotes", "{\"content\":\"새 명언\",\"author\":\"새 작가\"}");
+        HttpResponse<String> modified = client.send(request("GET", "/quotes", null).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        //then
+        Assertions.assertEquals(304, notModified.statusCode());
+        Assertions.assertEquals(200, modified.statusCode());
+        Assertions.assertNotEquals(etag, modified.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("다른 프로세스도 쓰는 저장소 - ETag 를 붙이지 않고 If-None-Match 가 있어도 200")
+    void noEtagForSharedStorageTest() throws Exception {
+        //given
+        restart(new ForwardingQuoteRepository(repository) {
+            @Override
+            public boolean processLocal() {
+                return false;
+            }
+        });
+        String etag = "\"any\"";
+
+        //when
+        HttpResponse<String> response = client.send(request("GET", "/quotes", null).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        //then
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.headers().firstValue("ETag").isEmpty());
+    }
+
+    @Test
+    @DisplayName("처리 중 오류 - 헤더 전이면 500, 본문을 보내던 중이면 헤더를 다시 보내지 않고 끝냄")
+    void internalErrorTest() throws Exception {
+        //given
+        restart(new ForwardingQuoteRepository(repository) {
+            @Override
+            public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
+                throw new IllegalStateException("search failed");
+            }
+
+            @Override
+            public PagedQuoteDto findPagedQuote(int page) {
+                // id 가 없는 명언은 본문을 기록하는 도중에 실패한다
+                PagedQuoteDto dto = super.findPagedQuote(page);
+                List<Quote> quotes = new ArrayList<>(dto.quotes());
+                quotes.add(new Quote("id 없음", "작가"));
+                return new PagedQuoteDto(dto.maxPage(), dto.currentPage(), quotes, dto.prevCursor(), dto.nextCursor());
+            }
+        });
+
+        //when
+        HttpResponse<String> beforeHeaders = send("GET", "/quotes?keywordType=author&keyword=x", null);
+        HttpResponse<String> afterHeaders = send("GET", "/quotes?page=1", null);
+        HttpResponse<String> next = send("GET", "/quotes/1", null);
+
+        //then
+        Assertions.assertEquals(500, beforeHeaders.statusCode());
+        Assertions.assertEquals("{\"error\":\"internal error\"}", beforeHeaders.body());
+        Assertions.assertEquals(200, afterHeaders.statusCode());
+        Assertions.assertFalse(afterHeaders.body().endsWith("}"), afterHeaders.body());
+        Assertions.assertEquals(200, next.statusCode());
+    }
+
+    @Test
+    @DisplayName("부하 테스트 - 동시 요청 200, 총 5000 건 모두 성공")
+    void loadTest() throws Exception {
+        //when
+        Report report = run(client, base, 5_000, 200);
+        System.out.println(report);
+
+        //then
+        Assertions.assertEquals(0, report.errors(), report.toString());
+        Assertions.assertTrue(repository.maxConcurrent() <= 10);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.println(run(client, base, requests, concurrency));
+    }
+
+    /**
+     * 부하 테스트 결과
+     * @param requests 보낸 요청 수
+     * @param errors 실패(연결 오류 혹은 5xx) 수
+     * @param elapsedNanos 걸린 시간
+     * @param p50Micros 응답 시간 중앙값
+     * @param p99Micros 응답 시간 99 백분위
+     */
+    record Report(int requests, long errors, long elapsedNanos, long p50Micros, long p99Micros) {
+        double requestsPerSecond() {
+            return requests * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d rps=%.0f p50=%dus p99=%dus",
+                    requests, errors, requestsPerSecond(), p50Micros, p99Micros);
+        }
+    }
+
+    /**
+     * 목록 / 검색 / 단건 조회 / 등록을 섞은 요청을 concurrency 개의 가상 스레드로 나눠 보낸다.
+     */
+    static Report run(HttpClient client, String base, int requests, int concurrency) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicLong errors = new AtomicLong();
+        AtomicLong sequence = new AtomicLong();
+        Semaphore slots = new Semaphore(concurrency);
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for(int i = 0; i < requests; i++) {
+                int n = i;
+                slots.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpRequest request = switch (n % 10) {
+                            case 0 -> HttpRequest.newBuilder(URI.create(base + "/quotes"))
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"content\":\"부하 " + sequence.incrementAndGet() + "\",\"author\":\"부하 테스트\"}"))
+                                    .build();
+                            case 1, 2 -> HttpRequest.newBuilder(URI.create(base + "/quotes?keywordType=content&keyword=" + encode("명언 1"))).build();
+                            case 3, 4 -> HttpRequest.newBuilder(URI.create(base + "/quotes/" + (1 + n % 50))).build();
+                            default -> HttpRequest.newBuilder(URI.create(base + "/quotes?page=" + (1 + n % 5))).build();
+                        };
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[n] = System.nanoTime() - begin;
+                        if(response.statusCode() >= 500) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        Arrays.sort(latencies);
+        return new Report(requests, errors.get(), elapsed,
+                latencies[requests / 2] / 1_000, latencies[Math.min(requests - 1, requests * 99 / 100)] / 1_000);
+    }
+
+    // 같은 명언을 가진 저장소로 서버를 다시 띄운다
+    private void restart(QuoteRepository repository) throws Exception {
+        after();
+        service = new AsyncQuoteService(new QuoteService(repository), 10);
+        server = new QuoteHttpServer(0, service);
+        server.start();
+        base = "http://localhost:" + server.port();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static String encode(String value) {
+        return java.net.URLEncoder.encode(value, java.nio.charset.StandardCharsets.UTF_8);
+    }
+}
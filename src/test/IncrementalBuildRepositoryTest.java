@@ -0,0 +1,240 @@
+import com.quoteBoard.dao.IncrementalBuildRepository;
+import com.quoteBoard.dao.QuoteRepositoryImpl;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.QuoteJsonReader;
+import com.quoteBoard.utils.QuoteSnapshot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 변경분 빌드 : data.json 에 manifest 의 변경분을 덮어쓴 결과가 항상 저장소 전체와 같은지 확인한다.
+ */
+public class IncrementalBuildRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("첫 빌드는 전체, 이후 빌드는 바뀐 명언만 변경분 파일로 기록")
+    void deltaBuildTest() throws IOException {
+        //given
+        IncrementalBuildRepository repository = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < 100; i++) quotes.add(new Quote("명언 " + i, "작가 " + i));
+        repository.createAll(quotes);
+        repository.build();
+        String base = Files.readString(dir.resolve("data.json"));
+        Assertions.assertEquals(List.of(), manifestDeltas());
+
+        //when
+        repository.create(new Quote("새 명언", "새 작가"));
+        repository.update(quotes.get(3).getId(), "수정", "수정 작가");
+        repository.delete(quotes.get(5).getId());
+        repository.build();
+
+        //then
+        Assertions.assertEquals(base, Files.readString(dir.resolve("data.json")), "기준 빌드는 그대로");
+        List<String> deltas = manifestDeltas();
+        Assertions.assertEquals(1, deltas.size());
+        Assertions.assertEquals(3, Files.readAllLines(dir.resolve(deltas.get(0))).size());
+        assertCurrent(repository.findAll());
+
+        // 바뀐 것이 없으면 변경분을 만들지 않는다
+        repository.build();
+        Assertions.assertEquals(deltas, manifestDeltas());
+        Assertions.assertEquals(0, Files.size(dir.resolve(IncrementalBuildRepository.JOURNAL_FILE_NAME)));
+    }
+
+    @Test
+    @DisplayName("변경분이 쌓이면 data.json / data.qsnap 과 합친다")
+    void mergeTest() throws IOException {
+        //given
+        IncrementalBuildRepository repository = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < 50; i++) ids.add(repository.create(new Quote("명언 " + i, "작가")).getId());
+        repository.build();
+
+        //when
+        boolean merged = false;
+        for(int round = 0; round < 40 && !merged; round++) {
+            repository.update(ids.get(round), "수정 " + round, "작가");
+            if(round % 3 == 0) repository.delete(ids.get(49 - round));
+            repository.create(new Quote("추가 " + round, "작가"));
+            repository.build();
+            assertCurrent(repository.findAll());
+            merged = round > 0 && manifestDeltas().isEmpty();
+        }
+
+        //then
+        Assertions.assertTrue(merged, "변경분이 합쳐지지 않음");
+        List<Quote> json = readJson();
+        assertSameQuotes(repository.findAll(), json);
+        List<Quote> snapshot = new ArrayList<>();
+        QuoteSnapshot.read(dir.resolve(QuoteSnapshot.BUILD_FILE_NAME), snapshot::add);
+        assertSameQuotes(json, snapshot);
+        try (var files = Files.list(dir)) {
+            Assertions.assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith("data.delta-")));
+        }
+    }
+
+    @Test
+    @DisplayName("같은 디렉터리를 쓰는 다른 인스턴스의 수정 / 등록, 재시작 후에도 반영")
+    void sharedJournalTest() throws IOException {
+        //given
+        IncrementalBuildRepository first = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        Long id = first.create(new Quote("원본", "작가")).getId();
+        first.build();
+
+        //when
+        IncrementalBuildRepository second = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        second.update(id, "다른 인스턴스에서 수정", "작가");
+        second.create(new Quote("다른 인스턴스에서 등록", "작가"));
+        IncrementalBuildRepository restarted = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        restarted.build();
+
+        //then
+        assertCurrent(restarted.findAll());
+        Assertions.assertEquals("다른 인스턴스에서 수정", current().stream()
+                .filter(quote -> quote.getId().equals(id)).findFirst().orElseThrow().getQuote());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 더 큰 id 를 먼저 빌드한 뒤 등록된 작은 id 도 반영 (인스턴스마다 id 구간이 다름)")
+    void lowerIdAfterHigherBuildTest() throws IOException {
+        //given
+        IncrementalBuildRepository first = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        IncrementalBuildRepository second = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        Long low = first.create(new Quote("첫 인스턴스", "작가")).getId();
+        first.build();
+        Long high = second.create(new Quote("두 번째 인스턴스", "작가")).getId();
+        second.build();
+        Assertions.assertTrue(high > low + 1, "인스턴스마다 다른 id 구간");
+
+        //when
+        Long lower = first.create(new Quote("첫 인스턴스에서 다시 등록", "작가")).getId();
+        first.build();
+
+        //then
+        Assertions.assertTrue(lower < high);
+        Assertions.assertTrue(current().stream().anyMatch(quote -> quote.getId().equals(lower)), "작은 id 가 빌드에서 빠짐");
+        assertCurrent(first.findAll());
+    }
+
+    @Test
+    @DisplayName("많은 건수를 일괄 등록하면 id 대신 전체 빌드 표시를 남기고, 다음 빌드는 전체 빌드")
+    void bulkCreateFullBuildTest() throws IOException {
+        //given
+        IncrementalBuildRepository repository = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        repository.create(new Quote("명언", "작가"));
+        repository.build();
+
+        //when
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < 1_500; i++) quotes.add(new Quote("일괄 " + i, "작가"));
+        repository.createAll(quotes, 100);
+        List<String> journal = Files.readAllLines(dir.resolve(IncrementalBuildRepository.JOURNAL_FILE_NAME));
+        repository.build();
+
+        //then
+        Assertions.assertEquals(List.of("*"), journal);
+        Assertions.assertEquals(List.of(), manifestDeltas());
+        assertSameQuotes(repository.findAll(), readJson());
+    }
+
+    @Test
+    @DisplayName("변경분 빌드도 저장소의 색인 파일(quotes.idx)을 저장")
+    void checkpointOnDeltaBuildTest() throws IOException {
+        //given
+        IncrementalBuildRepository repository = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        repository.create(new Quote("명언", "작가"));
+        repository.build();
+        Files.delete(dir.resolve("quotes.idx"));
+
+        //when
+        repository.create(new Quote("명언 2", "작가"));
+        repository.build();
+
+        //then
+        Assertions.assertEquals(1, manifestDeltas().size());
+        Assertions.assertTrue(Files.exists(dir.resolve("quotes.idx")));
+    }
+
+    @Test
+    @DisplayName("manifest 이후 data.json 이 다른 방식으로 바뀌면 전체 빌드")
+    void foreignRewriteTest() throws IOException {
+        //given
+        IncrementalBuildRepository repository = new IncrementalBuildRepository(new QuoteRepositoryImpl(dir), dir);
+        repository.create(new Quote("명언", "작가"));
+        repository.build();
+        repository.create(new Quote("명언 2", "작가"));
+        repository.build();
+        Assertions.assertEquals(1, manifestDeltas().size());
+
+        //when
+        Files.writeString(dir.resolve("data.json"), "[\n]");
+        repository.build();
+
+        //then
+        Assertions.assertEquals(List.of(), manifestDeltas());
+        assertSameQuotes(repository.findAll(), readJson());
+    }
+
+    // data.json 에 변경분을 덮어쓴 결과가 저장소 전체와 같은지 (id 순 비교)
+    private void assertCurrent(List<Quote> expected) throws IOException {
+        List<Quote> sorted = new ArrayList<>(expected);
+        sorted.sort(Comparator.comparing(Quote::getId));
+        List<Quote> actual = current();
+        actual.sort(Comparator.comparing(Quote::getId));
+        assertSameQuotes(sorted, actual);
+    }
+
+    private List<Quote> current() throws IOException {
+        Map<Long, Quote> quotes = new LinkedHashMap<>();
+        for(Quote quote : readJson()) quotes.put(quote.getId(), quote);
+        for(String delta : manifestDeltas()) {
+            try (BufferedReader in = Files.newBufferedReader(dir.resolve(delta), StandardCharsets.UTF_8)) {
+                String line;
+                while((line = in.readLine()) != null) {
+                    Quote quote = QuoteJsonReader.parse(line);
+                    if(quote.getQuote() == null && quote.getAuthor() == null) quotes.remove(quote.getId());
+                    else quotes.put(quote.getId(), quote);
+                }
+            }
+        }
+        return new ArrayList<>(quotes.values());
+    }
+
+    private List<Quote> readJson() throws IOException {
+        List<Quote> quotes = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(dir.resolve("data.json"), StandardCharsets.UTF_8)) {
+            new QuoteJsonReader(in).readArray(quotes::add);
+        }
+        return quotes;
+    }
+
+    private List<String> manifestDeltas() throws IOException {
+        Properties manifest = new Properties();
+        try (Reader in = Files.newBufferedReader(dir.resolve(IncrementalBuildRepository.MANIFEST_FILE_NAME), StandardCharsets.UTF_8)) {
+            manifest.load(in);
+        }
+        String deltas = manifest.getProperty("deltas", "");
+        return deltas.isEmpty() ? List.of() : List.of(deltas.split(","));
+    }
+
+    private static void assertSameQuotes(List<Quote> expected, List<Quote> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            Assertions.assertEquals(expected.get(i).getQuote(), actual.get(i).getQuote());
+            Assertions.assertEquals(expected.get(i).getAuthor(), actual.get(i).getAuthor());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 import com.quoteBoard.App;
 import com.quoteBoard.dao.QuoteRepository;
 import com.quoteBoard.dao.RDBQuoteRepositoryImpl;
+import com.quoteBoard.dto.SearchQuoteRequest;
 import com.quoteBoard.entity.Quote;
 import org.junit.jupiter.api.*;
 
@@ -8,7 +9,9 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
@@ -181,4 +184,58 @@ public class IntegrationTest {
         repository.delete(id);
 
     }
+
+    @Test
+    @DisplayName("검색 - 색인이 준비되기 전(LIKE)과 후(색인)의 결과가 같다")
+    void searchPathsTest() throws InterruptedException {
+        //given
+        String token = "t" + System.nanoTime();
+        RDBQuoteRepositoryImpl repository = new RDBQuoteRepositoryImpl();
+        List<Long> ids = List.of(
+                repository.create(new Quote(token + " 100% 확신", token + " Café")),
+                repository.create(new Quote(token + " a_b", token + " CAFE")),
+                repository.create(new Quote(token + " axb", token + " cafe au lait")),
+                // % _ 가 와일드카드로 쓰였다면 "100%" / "a_b" 검색에도 걸린다
+                repository.create(new Quote(token + " 1000", token + " 작가"))
+        ).stream().map(Quote::getId).toList();
+        List<Map.Entry<SearchQuoteRequest.SearchType, String>> queries = List.of(
+                Map.entry(SearchQuoteRequest.SearchType.CONTENT, token + " 100%"),
+                Map.entry(SearchQuoteRequest.SearchType.CONTENT, token + " a_b"),
+                Map.entry(SearchQuoteRequest.SearchType.CONTENT, token.toUpperCase()),
+                Map.entry(SearchQuoteRequest.SearchType.AUTHOR, token + " cafe"),
+                Map.entry(SearchQuoteRequest.SearchType.AUTHOR, token + " CAFÉ")
+        );
+
+        //when - 색인을 버린 직후에는 LIKE 검색
+        List<List<Long>> byLike = new ArrayList<>();
+        for(Map.Entry<SearchQuoteRequest.SearchType, String> query : queries) {
+            RDBQuoteRepositoryImpl.invalidateSearchIndex();
+            byLike.add(searchIds(repository, query.getKey(), query.getValue()));
+        }
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while(!RDBQuoteRepositoryImpl.isSearchIndexReady()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "search index was not built");
+            Thread.sleep(20);
+        }
+        List<List<Long>> byIndex = new ArrayList<>();
+        for(Map.Entry<SearchQuoteRequest.SearchType, String> query : queries) {
+            byIndex.add(searchIds(repository, query.getKey(), query.getValue()));
+        }
+
+        //then
+        Assertions.assertEquals(byIndex, byLike);
+        Assertions.assertEquals(List.of(
+                List.of(ids.get(0)),
+                List.of(ids.get(1)),
+                List.of(ids.get(3), ids.get(2), ids.get(1), ids.get(0)),
+                List.of(ids.get(2), ids.get(1)),
+                List.of(ids.get(0))
+        ), byIndex);
+
+        ids.forEach(repository::delete);
+    }
+
+    private static List<Long> searchIds(RDBQuoteRepositoryImpl repository, SearchQuoteRequest.SearchType type, String keyword) {
+        return repository.search(type, keyword, 1).quotes().stream().map(Quote::getId).toList();
+    }
 }
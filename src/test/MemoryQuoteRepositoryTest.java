@@ -0,0 +1,155 @@
+import com.quoteBoard.dao.MemoryQuoteRepository;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 메모리 저장소의 페이징 / 커서 / 검색이 RDB 저장소와 같은 의미를 갖는지 단순 모델(id 내림차순 목록)과 비교한다.
+ */
+public class MemoryQuoteRepositoryTest {
+
+    private static final int PAGE_CNT = 20;
+
+    private MemoryQuoteRepository repository;
+
+    @BeforeEach
+    void before() {
+        repository = new MemoryQuoteRepository();
+    }
+
+    @Test
+    @DisplayName("번호 페이지 - 삭제로 id 가 비어도 내림차순 20건씩, 범위 밖은 마지막 페이지")
+    void pagedQuoteTest() {
+        //given
+        // 펜윅 트리가 여러 번 늘어나도록 초기 크기(1024)보다 많이 등록하고 일부를 지운다
+        List<Long> expected = createAndDeleteSome(5_000);
+
+        //when & then
+        int maxPage = (expected.size() + PAGE_CNT - 1) / PAGE_CNT;
+        for(int page = 1; page <= maxPage; page++) {
+            PagedQuoteDto dto = repository.findPagedQuote(page);
+            Assertions.assertEquals(maxPage, dto.maxPage());
+            Assertions.assertEquals(page, dto.currentPage());
+            Assertions.assertEquals(slice(expected, page), ids(dto));
+        }
+        PagedQuoteDto beyond = repository.findPagedQuote(maxPage + 10);
+        Assertions.assertEquals(maxPage, beyond.currentPage());
+        Assertions.assertEquals(slice(expected, maxPage), ids(beyond));
+        Assertions.assertNull(beyond.nextCursor());
+        Assertions.assertEquals(1, repository.findPagedQuote(-3).currentPage());
+    }
+
+    @Test
+    @DisplayName("커서 - 끝까지 다음으로 이동한 뒤 처음까지 이전으로 되돌아오기")
+    void cursorTest() {
+        //given
+        List<Long> expected = createAndDeleteSome(1_000);
+
+        //when
+        List<Long> forward = new ArrayList<>();
+        PagedQuoteDto dto = repository.findPagedQuoteByCursor(null);
+        forward.addAll(ids(dto));
+        while(dto.nextCursor() != null) {
+            dto = repository.findPagedQuoteByCursor(dto.nextCursor());
+            forward.addAll(ids(dto));
+        }
+        List<Long> backward = new ArrayList<>(ids(dto));
+        while(dto.prevCursor() != null) {
+            dto = repository.findPagedQuoteByCursor(dto.prevCursor());
+            backward.addAll(0, ids(dto));
+        }
+
+        //then
+        Assertions.assertEquals(expected, forward);
+        Assertions.assertEquals(expected, backward);
+    }
+
+    @Test
+    @DisplayName("검색 - 대소문자 무시 부분 일치, 수정 / 삭제 반영")
+    void searchTest() {
+        //given
+        Long first = repository.create(new Quote("Stay Hungry, stay foolish", "Steve Jobs")).getId();
+        Long second = repository.create(new Quote("나의 죽음을 적들에게 알리지 말라", "이순신")).getId();
+        Long third = repository.create(new Quote("죽느냐 사느냐", "셰익스피어")).getId();
+
+        //when
+        repository.update(first, "hungry", "jobs");
+        repository.delete(third);
+
+        //then
+        Assertions.assertEquals(List.of(first), ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "HUNG", 1)));
+        Assertions.assertEquals(List.of(), ids(repository.search(SearchQuoteRequest.SearchType.AUTHOR, "Steve", 1)));
+        Assertions.assertEquals(List.of(second), ids(repository.search(SearchQuoteRequest.SearchType.CONTENT, "죽", 1)));
+        Assertions.assertEquals(List.of(second, first), ids(repository.search(SearchQuoteRequest.SearchType.AUTHOR, "", 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repository.delete(third));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repository.update(third, "a", "b"));
+    }
+
+    @Test
+    @DisplayName("동시 등록 중 페이지 조회 - 전체 수와 행이 같은 시점")
+    void concurrentPagingTest() throws Exception {
+        //given
+        int writers = 8;
+        int perWriter = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for(int t = 0; t < writers; t++) {
+            futures.add(executor.submit(() -> {
+                for(int i = 0; i < perWriter; i++) {
+                    repository.create(new Quote("명언", "작가"));
+                }
+            }));
+        }
+        Future<Integer> reader = executor.submit(() -> {
+            int checked = 0;
+            while(futures.stream().anyMatch(f -> !f.isDone())) {
+                PagedQuoteDto dto = repository.findPagedQuote(Integer.MAX_VALUE);
+                List<Long> ids = ids(dto);
+                // id 는 1부터 빈틈없이 발급되므로 마지막 페이지는 첫 id 부터 1 까지 모두 담는다
+                if(!ids.isEmpty()) {
+                    Assertions.assertEquals(ids.get(0).longValue(), ids.size());
+                    Assertions.assertTrue(ids.size() <= PAGE_CNT);
+                }
+                checked++;
+            }
+            return checked;
+        });
+        for(Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        int checked = reader.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        Assertions.assertTrue(checked > 0);
+        Assertions.assertEquals(writers * perWriter, repository.findAll().size());
+    }
+
+    // n 건을 등록하고 7 의 배수 번째를 지운 뒤 남은 id 를 내림차순으로 반환
+    private List<Long> createAndDeleteSome(int n) {
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < n; i++) quotes.add(new Quote("명언 " + i, "작가 " + i));
+        repository.createAll(quotes, 256);
+
+        List<Long> remaining = new ArrayList<>();
+        for(Quote quote : quotes) {
+            if(quote.getId() % 7 == 0) repository.delete(quote.getId());
+            else remaining.add(quote.getId());
+        }
+        remaining.sort(Comparator.reverseOrder());
+        return remaining;
+    }
+
+    private static List<Long> slice(List<Long> ids, int page) {
+        int from = (page - 1) * PAGE_CNT;
+        return ids.subList(from, Math.min(ids.size(), from + PAGE_CNT));
+    }
+
+    private static List<Long> ids(PagedQuoteDto dto) {
+        return dto.quotes().stream().map(Quote::getId).toList();
+    }
+}
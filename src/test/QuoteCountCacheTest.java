@@ -0,0 +1,70 @@
+import com.quoteBoard.dao.QuoteCountCache;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+/**
+ * 쓰기 문장이 끝난 뒤 onCreate 등을 호출하기 전에 조회가 끼어드는 경우와, 다른 프로세스의 쓰기가 반영되는 주기를 확인한다.
+ */
+public class QuoteCountCacheTest {
+
+    @Test
+    @DisplayName("쓰기 도중 읽은 전체 수는 저장하지 않아 onCreate 로 한 번 더 더해지지 않는다")
+    void countDuringWriteTest() {
+        //given
+        QuoteCountCache cache = new QuoteCountCache();
+        long[] rows = {10};
+
+        //when - 자동 커밋으로 행이 이미 보이는 상태에서 조회
+        cache.beginWrite();
+        rows[0]++;
+        long during = cache.total(() -> rows[0]);
+        cache.onCreate(1);
+        cache.endWrite();
+
+        //then
+        Assertions.assertEquals(11, during);
+        Assertions.assertEquals(11, cache.total(() -> rows[0]));
+        Assertions.assertEquals(11, cache.total(() -> -1));
+    }
+
+    @Test
+    @DisplayName("조회 도중 쓰기가 시작되면 그 결과는 저장하지 않는다")
+    void writeDuringCountTest() {
+        //given
+        QuoteCountCache cache = new QuoteCountCache();
+        long[] rows = {3};
+
+        //when
+        long loaded = cache.search(SearchQuoteRequest.SearchType.CONTENT, "a", () -> {
+            cache.beginWrite();
+            return rows[0]++;
+        });
+        cache.onCreate(1);
+        cache.endWrite();
+
+        //then
+        Assertions.assertEquals(3, loaded);
+        Assertions.assertEquals(4, cache.search(SearchQuoteRequest.SearchType.CONTENT, "a", () -> rows[0]));
+    }
+
+    @Test
+    @DisplayName("다른 프로세스의 쓰기 - 캐시한 수는 maxAge 가 지나면 다시 읽는다")
+    void maxAgeTest() throws InterruptedException {
+        //given
+        QuoteCountCache cache = new QuoteCountCache(Duration.ofMillis(500));
+        long[] rows = {5};
+        Assertions.assertEquals(5, cache.total(() -> rows[0]));
+        Assertions.assertEquals(5, cache.search(SearchQuoteRequest.SearchType.AUTHOR, "a", () -> rows[0]));
+
+        //when - 이 캐시를 거치지 않은 쓰기
+        rows[0] = 8;
+
+        //then
+        Assertions.assertEquals(5, cache.total(() -> rows[0]));
+        Thread.sleep(600);
+        Assertions.assertEquals(8, cache.total(() -> rows[0]));
+        Assertions.assertEquals(8, cache.search(SearchQuoteRequest.SearchType.AUTHOR, "a", () -> rows[0]));
+    }
+}
@@ -0,0 +1,119 @@
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.utils.JsonUtils;
+import com.quoteBoard.utils.QuoteJsonReader;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+
+/**
+ * JSON 기록(JsonUtils) / 읽기(QuoteJsonReader)가 이스케이프, 알 수 없는 키, 숫자 범위를 올바르게 처리하는지 확인한다.
+ */
+public class QuoteJsonReaderTest {
+
+    // 이스케이프가 필요한 글자를 모두 포함한 값
+    private static final String TRICKY = "따옴표\" 역슬래시\\ 슬래시/ 줄바꿈\n 복귀\r 탭\t \b\f 제어\u0001\u001f 이모지😀 끝";
+
+    @Test
+    @DisplayName("이스케이프 - 따옴표, 역슬래시, 줄바꿈, 제어 문자, \\uXXXX 를 그대로 복원")
+    void escapeTest() {
+        //given
+        String json = "{\"id\": 7, \"content\": \"a\\\"b\\\\c\\/d\\ne\\rf\\tg\\bh\\fi\\u0001\\uAC00\\ud83d\\ude00\", \"author\": \"\"}";
+
+        //when
+        Quote quote = QuoteJsonReader.parse(json);
+
+        //then
+        Assertions.assertEquals(7L, quote.getId());
+        Assertions.assertEquals("a\"b\\c/d\ne\rf\tg\bh\fi\u0001가😀", quote.getQuote());
+        Assertions.assertEquals("", quote.getAuthor());
+    }
+
+    @Test
+    @DisplayName("기록 후 읽기 - 객체 / 한 줄 / 배열 모두 id, 명언, 작가(null, 빈 문자열 포함) 그대로 복원")
+    void roundTripTest() throws IOException {
+        //given
+        List<Quote> quotes = List.of(
+                new Quote(1L, TRICKY, TRICKY),
+                new Quote(2L, "", null),
+                new Quote(null, null, ""),
+                new Quote(Long.MAX_VALUE, "최대", "id"));
+
+        for(Quote quote : quotes) {
+            //when
+            StringBuilder object = new StringBuilder();
+            JsonUtils.writeEntity(quote, object);
+            StringBuilder line = new StringBuilder();
+            JsonUtils.writeLine(quote, line);
+
+            //then
+            assertSameQuote(quote, JsonUtils.jsonToEntity(object.toString()));
+            assertSameQuote(quote, QuoteJsonReader.parse(line.toString()));
+            Assertions.assertEquals(-1, line.indexOf("\n"), "한 줄 JSON 에 줄바꿈이 있음");
+        }
+
+        //when - 배열
+        StringWriter out = new StringWriter();
+        JsonUtils.writeArray(out, quotes::forEach);
+        List<Quote> read = new ArrayList<>();
+        new QuoteJsonReader(new StringReader(out.toString())).readArray(read::add);
+
+        //then
+        Assertions.assertEquals(quotes.size(), read.size());
+        for(int i = 0; i < quotes.size(); i++) assertSameQuote(quotes.get(i), read.get(i));
+    }
+
+    @Test
+    @DisplayName("알 수 없는 키 - 문자열 / 숫자 / 리터럴 / 중첩 객체, 배열 값을 건너뛰고 나머지는 그대로 읽음")
+    void unknownKeyTest() {
+        //given
+        String json = "{\"extra\": \"}]\\\"{\", \"id\": 3, \"n\": -1.5e3, \"flag\": true, \"none\": null,"
+                + " \"nested\": {\"a\": [1, {\"b\": \"]\"}], \"c\": {}}, \"content\": \"명언\", \"list\": [], \"author\": \"작가\"}";
+
+        //when
+        Quote quote = QuoteJsonReader.parse(json);
+
+        //then
+        Assertions.assertEquals(3L, quote.getId());
+        Assertions.assertEquals("명언", quote.getQuote());
+        Assertions.assertEquals("작가", quote.getAuthor());
+    }
+
+    @Test
+    @DisplayName("id - 없거나 null 이면 null, long 범위를 넘으면 감싸지 않고 형식 오류")
+    void idTest() {
+        //when & then
+        Assertions.assertNull(QuoteJsonReader.parse("{\"content\": \"a\", \"author\": \"b\"}").getId());
+        Assertions.assertNull(QuoteJsonReader.parse("{\"id\": null, \"content\": \"a\", \"author\": \"b\"}").getId());
+        Assertions.assertNull(QuoteJsonReader.parse("{}").getId());
+        Assertions.assertEquals(Long.MAX_VALUE, QuoteJsonReader.parse("{\"id\": 9223372036854775807}").getId());
+        Assertions.assertEquals(Long.MIN_VALUE, QuoteJsonReader.parse("{\"id\": -9223372036854775808}").getId());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuoteJsonReader.parse("{\"id\": 9223372036854775808}"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuoteJsonReader.parse("{\"id\": -9223372036854775809}"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuoteJsonReader.parse("{\"id\": 99999999999999999999}"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuoteJsonReader.parse("{\"id\": -}"));
+    }
+
+    @Test
+    @DisplayName("형식 오류 - 닫히지 않은 문자열, 잘못된 이스케이프, 남는 내용은 IllegalArgumentException")
+    void malformedTest() {
+        //when & then
+        for(String json : List.of(
+                "{\"id\": 1, \"content\": \"잘린",
+                "{\"content\": \"\\x\"}",
+                "{\"content\": \"\\u12G4\"}",
+                "{\"id\": 1} {}",
+                "{\"id\": 1 \"content\": \"a\"}",
+                "")) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> QuoteJsonReader.parse(json), json);
+        }
+    }
+
+    private static void assertSameQuote(Quote expected, Quote actual) {
+        Assertions.assertEquals(expected.getId(), actual.getId());
+        Assertions.assertEquals(expected.getQuote(), actual.getQuote());
+        Assertions.assertEquals(expected.getAuthor(), actual.getAuthor());
+    }
+}
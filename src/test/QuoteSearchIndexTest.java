@@ -0,0 +1,88 @@
+import com.quoteBoard.dao.QuoteSearchIndex;
+import com.quoteBoard.dto.SearchQuoteRequest.SearchType;
+import com.quoteBoard.entity.Quote;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * 역색인 검색이 LIKE 검색(RDBQuoteRepositoryImpl)과 같은 규칙으로 일치하는지 확인한다.
+ * 소문자로 바꾼 뒤 부분 문자열로 비교하며, % _ \ 는 문자 그대로, 악센트는 구분한다.
+ */
+public class QuoteSearchIndexTest {
+
+    private QuoteSearchIndex index;
+
+    @BeforeEach
+    void before() {
+        index = new QuoteSearchIndex();
+        index.beginBuild();
+        index.completeBuild(List.of(
+                new Quote(1L, "100% 확신", "Café"),
+                new Quote(2L, "a_b 와 a\\b", "CAFE"),
+                new Quote(3L, "1000 확신", "cafe au lait"),
+                new Quote(4L, "axb", "이순신")
+        ));
+    }
+
+    @Test
+    @DisplayName("% _ \\ 는 와일드카드가 아닌 문자로 비교")
+    void likeCharactersLiteralTest() {
+        Assertions.assertEquals(List.of(1L), ids(SearchType.CONTENT, "0%"));
+        Assertions.assertEquals(List.of(2L), ids(SearchType.CONTENT, "a_b"));
+        Assertions.assertEquals(List.of(2L), ids(SearchType.CONTENT, "a\\b"));
+        Assertions.assertEquals(List.of(), ids(SearchType.CONTENT, "%%"));
+    }
+
+    @Test
+    @DisplayName("대소문자는 무시하고 악센트는 구분, 빈 검색어는 전체")
+    void caseAndAccentTest() {
+        Assertions.assertEquals(List.of(3L, 2L), ids(SearchType.AUTHOR, "cafe"));
+        Assertions.assertEquals(List.of(1L), ids(SearchType.AUTHOR, "CAFÉ"));
+        Assertions.assertEquals(List.of(4L), ids(SearchType.AUTHOR, "순"));
+        Assertions.assertEquals(List.of(4L, 3L, 2L, 1L), ids(SearchType.CONTENT, ""));
+    }
+
+    @Test
+    @DisplayName("수정 / 삭제 반영, 기록한 색인을 다시 읽어도 같은 결과")
+    void updateAndReadBackTest() throws IOException {
+        //when
+        index.add(4L, "100% 노력", "이순신");
+        index.remove(1L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        QuoteSearchIndex read = QuoteSearchIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        //then
+        for(QuoteSearchIndex target : List.of(index, read)) {
+            Assertions.assertEquals(List.of(4L), target.search(SearchType.CONTENT, "100%").ids());
+            Assertions.assertEquals(List.of(3L, 2L), target.search(SearchType.AUTHOR, "caf").ids());
+        }
+    }
+
+    @Test
+    @DisplayName("구축 도중 바뀐 명언은 구축용 스냅샷으로 덮어쓰지 않는다")
+    void touchedDuringBuildTest() {
+        //given
+        QuoteSearchIndex building = new QuoteSearchIndex();
+        building.beginBuild();
+
+        //when - 스냅샷을 읽은 뒤 수정 / 삭제
+        building.add(1L, "새 내용", "작가");
+        building.remove(2L);
+        building.completeBuild(List.of(new Quote(1L, "옛 내용", "작가"), new Quote(2L, "옛 내용", "작가")));
+
+        //then
+        Assertions.assertTrue(building.isReady());
+        Assertions.assertEquals(List.of(), building.search(SearchType.CONTENT, "옛").ids());
+        Assertions.assertEquals(List.of(1L), building.search(SearchType.CONTENT, "새").ids());
+    }
+
+    private List<Long> ids(SearchType type, String keyword) {
+        QuoteSearchIndex.Hits hits = index.search(type, keyword);
+        Assertions.assertEquals(hits.ids().size(), hits.total());
+        return hits.ids();
+    }
+}
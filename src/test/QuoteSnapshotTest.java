@@ -0,0 +1,116 @@
+import com.quoteBoard.dao.MemoryQuoteRepository;
+import com.quoteBoard.dao.QuoteRepositoryImpl;
+import com.quoteBoard.entity.Quote;
+import com.quoteBoard.service.QuoteTransfer;
+import com.quoteBoard.utils.QuoteJsonReader;
+import com.quoteBoard.utils.QuoteSnapshot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 바이너리 스냅샷(.qsnap)의 기록 / 복원이 원본과 같은지, 손상된 파일을 거부하는지 확인한다.
+ */
+public class QuoteSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("여러 블록에 걸친 기록 / 읽기 - id, 명언, 작가(null, 빈 문자열, 유니코드 포함) 그대로 복원")
+    void roundTripTest() throws IOException {
+        //given
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 1; i <= QuoteSnapshot.DEFAULT_BLOCK_SIZE * 2 + 17; i++) {
+            quotes.add(new Quote((long) i * 3, "명언 \"" + i + "\"\n😀", "작가 " + (i % 50)));
+        }
+        quotes.add(new Quote(5L, "", null)); // id 가 줄어드는 경우
+        quotes.add(new Quote(Long.MAX_VALUE, null, ""));
+        Path file = dir.resolve("quotes" + QuoteSnapshot.EXTENSION);
+
+        //when
+        long written = QuoteSnapshot.write(file, quotes::forEach);
+        List<Quote> read = new ArrayList<>();
+        long count = QuoteSnapshot.read(file, read::add);
+
+        //then
+        Assertions.assertEquals(quotes.size(), written);
+        Assertions.assertEquals(quotes.size(), count);
+        assertSameQuotes(quotes, read);
+        try (QuoteSnapshot.SnapshotReader reader = QuoteSnapshot.open(file)) {
+            Assertions.assertEquals(3, reader.blockCount());
+            Assertions.assertEquals(51, reader.authorCount()); // "작가 0" ~ "작가 49", ""
+            Assertions.assertEquals(3, reader.blocks().get(0).firstId());
+        }
+    }
+
+    @Test
+    @DisplayName("손상된 스냅샷 - 블록 / 꼬리말이 바뀌거나 잘리면 IOException")
+    void corruptSnapshotTest() throws IOException {
+        //given
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 1; i <= 1_000; i++) quotes.add(new Quote((long) i, "명언 " + i, "작가"));
+        Path file = dir.resolve("quotes" + QuoteSnapshot.EXTENSION);
+        QuoteSnapshot.write(file, quotes::forEach);
+        byte[] original = Files.readAllBytes(file);
+
+        //when & then
+        byte[] block = original.clone();
+        block[20] ^= 0x5A;
+        Files.write(file, block);
+        Assertions.assertThrows(IOException.class, () -> QuoteSnapshot.read(file, quote -> { }));
+
+        byte[] footer = original.clone();
+        footer[footer.length - 10] ^= 0x5A;
+        Files.write(file, footer);
+        Assertions.assertThrows(IOException.class, () -> QuoteSnapshot.open(file).close());
+
+        Files.write(file, Arrays.copyOf(original, original.length - 3));
+        Assertions.assertThrows(IOException.class, () -> QuoteSnapshot.open(file).close());
+    }
+
+    @Test
+    @DisplayName("빌드 후 스냅샷 가져오기 - data.json 과 같은 내용을 같은 순서로 복원")
+    void buildAndImportTest() throws IOException {
+        //given
+        QuoteRepositoryImpl source = new QuoteRepositoryImpl(dir);
+        List<Quote> quotes = new ArrayList<>();
+        for(int i = 0; i < 5_000; i++) quotes.add(new Quote("명언 " + i, "작가 " + (i % 7)));
+        source.createAll(quotes);
+        source.delete(quotes.get(10).getId());
+        source.build();
+
+        //when
+        MemoryQuoteRepository target = new MemoryQuoteRepository();
+        QuoteTransfer.Result result = new QuoteTransfer(target, 1_000, 3)
+                .importFrom(dir.resolve(QuoteSnapshot.BUILD_FILE_NAME), (rows, rate) -> { });
+
+        //then
+        List<Quote> fromJson = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(dir.resolve("data.json"), StandardCharsets.UTF_8)) {
+            new QuoteJsonReader(in).readArray(fromJson::add);
+        }
+        Assertions.assertEquals(quotes.size() - 1, result.rows());
+        List<Quote> restored = target.findAll();
+        Assertions.assertEquals(fromJson.size(), restored.size());
+        for(int i = 0; i < restored.size(); i++) {
+            Assertions.assertEquals(fromJson.get(i).getQuote(), restored.get(i).getQuote());
+            Assertions.assertEquals(fromJson.get(i).getAuthor(), restored.get(i).getAuthor());
+        }
+    }
+
+    private static void assertSameQuotes(List<Quote> expected, List<Quote> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            Assertions.assertEquals(expected.get(i).getQuote(), actual.get(i).getQuote());
+            Assertions.assertEquals(expected.get(i).getAuthor(), actual.get(i).getAuthor());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import dbConfig.SchemaMigrator;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 마이그레이션 파일을 번호 순서대로 읽고 문장 단위로 나누는지 확인한다. (MySQL 없이 확인 가능한 부분)
+ */
+public class SchemaMigratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("저장소의 마이그레이션 - V1 테이블 생성, V2 작가 테이블 분리 순서로 읽고 주석 / 세미콜론은 빠진다. V2 는 끝난 단계를 건너뛴다")
+    void loadBundledMigrationsTest() throws IOException {
+        //when
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(SchemaMigrator.MIGRATION_DIR);
+
+        //then
+        Assertions.assertEquals(List.of(1, 2), migrations.stream().map(SchemaMigrator.Migration::version).toList());
+        Assertions.assertEquals(1, migrations.get(0).statements().size());
+        Assertions.assertTrue(migrations.get(0).statements().get(0).startsWith("CREATE TABLE IF NOT EXISTS quote"));
+
+        List<String> authorTable = migrations.get(1).statements();
+        Assertions.assertEquals("author table", migrations.get(1).description());
+        Assertions.assertEquals(16, authorTable.size());
+        Assertions.assertTrue(authorTable.get(0).startsWith("SET @has_author ="));
+        Assertions.assertTrue(authorTable.get(2).startsWith("CREATE TABLE IF NOT EXISTS author"));
+        // 다시 실행했을 때 실패하는 문장은 모두 열의 유무에 따라 건너뛴다
+        Assertions.assertTrue(authorTable.get(6).contains("IF(@has_author_id = 0,"));
+        Assertions.assertTrue(authorTable.get(6).contains("ADD COLUMN author_id"));
+        Assertions.assertTrue(authorTable.get(12).contains("IF(@has_author = 1,"));
+        Assertions.assertTrue(authorTable.get(12).contains("DROP COLUMN author,"));
+        Assertions.assertEquals("DEALLOCATE PREPARE step", authorTable.get(15));
+        for(String statement : authorTable) {
+            Assertions.assertFalse(statement.contains("--"), statement);
+            Assertions.assertFalse(statement.endsWith(";"), statement);
+        }
+    }
+
+    @Test
+    @DisplayName("번호는 숫자 순서로 정렬하고, 이름 형식이 다른 파일은 무시하며, 같은 번호가 둘이면 거부")
+    void orderingAndDuplicateTest() throws IOException {
+        //given
+        Files.writeString(dir.resolve("V10__later.sql"), "SELECT 10;");
+        Files.writeString(dir.resolve("V2__earlier.sql"), "SELECT 2;\nSELECT\n  3");
+        Files.writeString(dir.resolve("notes.sql"), "DROP TABLE quote;");
+
+        //when
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(dir);
+
+        //then
+        Assertions.assertEquals(List.of(2, 10), migrations.stream().map(SchemaMigrator.Migration::version).toList());
+        Assertions.assertEquals(List.of("SELECT 2", "SELECT\n  3"), migrations.get(0).statements());
+
+        //when - 같은 번호
+        Files.writeString(dir.resolve("V002__again.sql"), "SELECT 2;");
+
+        //then
+        Assertions.assertThrows(IllegalStateException.class, () -> SchemaMigrator.load(dir));
+    }
+}
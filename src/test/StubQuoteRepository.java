@@ -0,0 +1,132 @@
+import com.quoteBoard.dao.QuoteRepository;
+import com.quoteBoard.dto.PagedQuoteDto;
+import com.quoteBoard.dto.SearchQuoteRequest;
+import com.quoteBoard.entity.Quote;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * DB 없이 서비스 계층을 시험하기 위한 메모리 저장소.
+ * JDBC I/O 를 흉내 내기 위해 호출마다 지정한 시간만큼 멈추고, 동시에 실행된 최대 호출 수를 기록한다.
+ */
+class StubQuoteRepository implements QuoteRepository {
+
+    private static final int PAGE_CNT = 20;
+
+    private final ConcurrentSkipListMap<Long, Quote> store = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final long delayMillis;
+
+    StubQuoteRepository(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    int size() {
+        return store.size();
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent.get();
+    }
+
+    private void io() {
+        maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            if(delayMillis > 0) Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Quote create(Quote quote) {
+        io();
+        quote.setId(sequence.incrementAndGet());
+        store.put(quote.getId(), new Quote(quote.getId(), quote.getQuote(), quote.getAuthor()));
+        return quote;
+    }
+
+    @Override
+    public long createAll(Iterable<Quote> quotes, int batchSize) {
+        io();
+        long n = 0;
+        for(Quote quote : quotes) {
+            quote.setId(sequence.incrementAndGet());
+            store.put(quote.getId(), new Quote(quote.getId(), quote.getQuote(), quote.getAuthor()));
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public List<Quote> findAll() {
+        io();
+        return new ArrayList<>(store.values());
+    }
+
+    @Override
+    public void scanAll(Consumer<Quote> consumer) {
+        findAll().forEach(consumer);
+    }
+
+    @Override
+    public Optional<Quote> find(Long id) {
+        io();
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public void delete(Long id) {
+        io();
+        if(store.remove(id) == null) throw new IllegalArgumentException();
+    }
+
+    @Override
+    public void update(Long id, String word, String author) {
+        io();
+        if(store.replace(id, new Quote(id, word, author)) == null) throw new IllegalArgumentException();
+    }
+
+    @Override
+    public void build() { }
+
+    @Override
+    public boolean processLocal() {
+        return true;
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuote(int page) {
+        io();
+        return page(new ArrayList<>(store.values()), page);
+    }
+
+    @Override
+    public PagedQuoteDto findPagedQuoteByCursor(String cursor) {
+        return findPagedQuote(1);
+    }
+
+    @Override
+    public PagedQuoteDto search(SearchQuoteRequest.SearchType type, String keyword, int page) {
+        io();
+        List<Quote> hits = store.values().stream()
+                .filter(q -> (type == SearchQuoteRequest.SearchType.AUTHOR ? q.getAuthor() : q.getQuote()).contains(keyword))
+                .toList();
+        return page(hits, page);
+    }
+
+    private static PagedQuoteDto page(List<Quote> quotes, int page) {
+        int maxPage = Math.max(1, (quotes.size() + PAGE_CNT - 1) / PAGE_CNT);
+        page = Math.min(Math.max(page, 1), maxPage);
+        int from = (page - 1) * PAGE_CNT;
+        return new PagedQuoteDto(maxPage, page, quotes.subList(Math.min(from, quotes.size()), Math.min(from + PAGE_CNT, quotes.size())));
+    }
+}